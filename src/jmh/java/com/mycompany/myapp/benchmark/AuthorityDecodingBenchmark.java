@@ -0,0 +1,51 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.jwt.AuthoritySetRegistry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Benchmark of the decoding of the {@code auth} claim of a token: {@code split} and a stream, as {@code TokenProvider} used
+ * to do it, against the {@link AuthoritySetRegistry}. The {@code gc.alloc.rate.norm} of the registry should be zero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthorityDecodingBenchmark {
+
+    private String claim;
+
+    private AuthoritySetRegistry authoritySetRegistry;
+
+    @Setup
+    public void setup() {
+        claim = AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER;
+        authoritySetRegistry = new AuthoritySetRegistry(256);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> splitAndStream() {
+        return Arrays
+            .stream(claim.split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> registry() {
+        return authoritySetRegistry.get(claim);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.jwt.TokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Objects shared by the benchmarks, built the way the unit tests build them.
+ */
+final class BenchmarkFixtures {
+
+    static final String BASE64_SECRET = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private BenchmarkFixtures() {}
+
+    static TokenProvider tokenProvider() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        return new TokenProvider(jHipsterProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+    }
+
+    static Authentication authentication() {
+        return new UsernamePasswordAuthenticationToken(
+            "benchmark-user",
+            "benchmark-password",
+            Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+        );
+    }
+
+    static List<Hero> heroes(int size) {
+        List<Hero> heroes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Hero hero = new Hero().name("hero-" + i);
+            hero.setId((long) i + 1);
+            heroes.add(hero);
+        }
+        return heroes;
+    }
+
+    static List<User> users(int size) {
+        Authority user = new Authority();
+        user.setName(AuthoritiesConstants.USER);
+        Authority admin = new Authority();
+        admin.setName(AuthoritiesConstants.ADMIN);
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User u = new User();
+            u.setId((long) i + 1);
+            u.setLogin("user-" + i);
+            u.setFirstName("First" + i);
+            u.setLastName("Last" + i);
+            u.setEmail("user-" + i + "@localhost");
+            u.setActivated(true);
+            u.setLangKey("en");
+            u.setImageUrl("http://placehold.it/50x50");
+            u.setCreatedBy("system");
+            u.setCreatedDate(Instant.EPOCH);
+            u.setLastModifiedBy("system");
+            u.setLastModifiedDate(Instant.EPOCH);
+            u.setAuthorities(new HashSet<>(i % 2 == 0 ? Arrays.asList(user) : Arrays.asList(user, admin)));
+            users.add(u);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,106 @@
+package com.mycompany.myapp.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of a page of {@code GET /api/heroes} at the start and at the end of the table, with the OFFSET/LIMIT
+ * statements of {@code HeroRepository.findAll(Pageable)} (the page and its {@code count(*)}) and the keyset statement of
+ * {@code HeroRepository.findAllByIdGreaterThan}, on the {@code hero} table of an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HeroPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({ "100000" })
+    private int heroes;
+
+    @Param({ "0", "1999" })
+    private int page;
+
+    private Connection connection;
+
+    private PreparedStatement offsetPage;
+
+    private PreparedStatement count;
+
+    private PreparedStatement keysetPage;
+
+    private long lastIdOfPreviousPage;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:heroPagination;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table hero (id bigint primary key, name varchar(255) not null, version bigint default 0)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("insert into hero (id, name) values (?, ?)")) {
+            for (long id = 1; id <= heroes; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, String.format("benchmark-hero-%06d", id));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        offsetPage = connection.prepareStatement("select id, name, version from hero order by id asc limit ? offset ?");
+        count = connection.prepareStatement("select count(id) from hero");
+        keysetPage = connection.prepareStatement("select id, name, version from hero where id > ? order by id asc limit ?");
+        lastIdOfPreviousPage = (long) page * PAGE_SIZE;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table hero");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long offsetPagination() throws SQLException {
+        offsetPage.setInt(1, PAGE_SIZE);
+        offsetPage.setInt(2, page * PAGE_SIZE);
+        return readIds(offsetPage) + readCount();
+    }
+
+    @Benchmark
+    public long keysetPagination() throws SQLException {
+        keysetPage.setLong(1, lastIdOfPreviousPage);
+        keysetPage.setInt(2, PAGE_SIZE);
+        return readIds(keysetPage);
+    }
+
+    private long readIds(PreparedStatement query) throws SQLException {
+        long sum = 0;
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                sum += resultSet.getLong(1);
+            }
+        }
+        return sum;
+    }
+
+    private long readCount() throws SQLException {
+        try (ResultSet resultSet = count.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.service.HeroSearchIndex;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the searches of {@code GET /api/heroes/_search}, sampled to read their percentiles, on an index of names
+ * made of a few common words and a unique one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HeroSearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+        "spider",
+        "iron",
+        "man",
+        "woman",
+        "captain",
+        "super",
+        "dark",
+        "night",
+        "storm",
+        "black",
+        "widow",
+        "hulk",
+        "thor",
+        "lord",
+        "star",
+        "green",
+        "lantern",
+        "flash",
+        "arrow",
+        "hawk",
+    };
+
+    @Param({ "1000000" })
+    private int heroes;
+
+    @Param({ "spi", "green lantern", "stor wid", "nigth", "abc", "s", "spider s" })
+    private String query;
+
+    private HeroSearchIndex index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        index = new HeroSearchIndex();
+        for (long id = 1; id <= heroes; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + Long.toString(id, 36);
+            index.put(id, name);
+        }
+    }
+
+    @Benchmark
+    public HeroSearchIndex.Matches search() {
+        return index.search(query);
+    }
+}
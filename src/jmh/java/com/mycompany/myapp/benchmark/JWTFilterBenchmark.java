@@ -0,0 +1,64 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.security.jwt.JWTFilter;
+import com.mycompany.myapp.security.jwt.TokenProvider;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Benchmark of the {@link JWTFilter}, with and without a bearer token.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JWTFilterBenchmark {
+
+    private JWTFilter jwtFilter;
+
+    private MockHttpServletRequest authenticatedRequest;
+
+    private MockHttpServletRequest anonymousRequest;
+
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        TokenProvider tokenProvider = BenchmarkFixtures.tokenProvider();
+        jwtFilter = new JWTFilter(tokenProvider);
+        String token = tokenProvider.createToken(BenchmarkFixtures.authentication(), false);
+
+        authenticatedRequest = new MockHttpServletRequest("GET", "/api/heroes");
+        authenticatedRequest.addHeader(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + token);
+        anonymousRequest = new MockHttpServletRequest("GET", "/management/health");
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void authenticatedRequest() throws IOException, ServletException {
+        jwtFilter.doFilter(authenticatedRequest, response, new MockFilterChain());
+    }
+
+    @Benchmark
+    public void anonymousRequest() throws IOException, ServletException {
+        jwtFilter.doFilter(anonymousRequest, response, new MockFilterChain());
+    }
+}
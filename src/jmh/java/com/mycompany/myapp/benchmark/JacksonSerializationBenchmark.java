@@ -0,0 +1,62 @@
+package com.mycompany.myapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.mapper.UserMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of the JSON serialization of the pages returned by {@code GET /api/heroes} and {@code GET /api/admin/users},
+ * with the modules registered by {@code JacksonConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JacksonSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private List<Hero> heroes;
+
+    private List<AdminUserDTO> users;
+
+    @Setup
+    public void setup() {
+        objectMapper =
+            new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jdk8Module())
+                .registerModule(new Hibernate5Module())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        heroes = BenchmarkFixtures.heroes(pageSize);
+        users = new UserMapper().usersToAdminUserDTOs(BenchmarkFixtures.users(pageSize));
+    }
+
+    @Benchmark
+    public byte[] serializeHeroPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(heroes);
+    }
+
+    @Benchmark
+    public byte[] serializeAdminUserPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
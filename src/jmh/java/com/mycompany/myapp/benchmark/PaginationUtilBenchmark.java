@@ -0,0 +1,50 @@
+package com.mycompany.myapp.benchmark;
+
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Benchmark of the generation of the pagination headers: {@code X-Total-Count} and {@code Link}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PaginationUtilBenchmark {
+
+    private static final String REQUEST_URL = "http://localhost:8080/api/heroes?page=3&size=20&sort=name,asc";
+
+    private Page<Hero> page;
+
+    private String nextCursor;
+
+    @Setup
+    public void setup() {
+        page = new PageImpl<>(BenchmarkFixtures.heroes(20), PageRequest.of(3, 20, Sort.by("name")), 1000);
+        nextCursor = KeysetPaginationUtil.encodeCursor(Sort.Order.asc("name"), "hero-79");
+    }
+
+    @Benchmark
+    public HttpHeaders offsetPaginationHeaders() {
+        return PaginationUtil.generatePaginationHttpHeaders(UriComponentsBuilder.fromHttpUrl(REQUEST_URL), page);
+    }
+
+    @Benchmark
+    public HttpHeaders keysetPaginationHeaders() {
+        return KeysetPaginationUtil.generateKeysetHttpHeaders(UriComponentsBuilder.fromHttpUrl(REQUEST_URL), nextCursor, 1000L);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH micro-benchmarks of the per-request code paths, run with the {@code benchmark} Maven profile.
+ */
+package com.mycompany.myapp.benchmark;
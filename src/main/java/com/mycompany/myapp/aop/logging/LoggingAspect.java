@@ -1,6 +1,16 @@
 package com.mycompany.myapp.aop.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aopalliance.intercept.MethodInvocation;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
@@ -9,22 +19,65 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.util.ClassUtils;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only logs with the "dev" profile. With the "prod" profile, it times a sample of the calls instead, in a
+ * timer per method tagged with its layer: repository, service or rest.
+ * <p>
+ * The logger and the names of a join point are looked up once, on its first call, and then found by the proxy class and
+ * the method of the invocation Spring AOP exposes, without building its signature. The timers only publish a percentile
+ * histogram when {@code application.logging-aspect.percentile-histogram} is enabled, as it multiplies the series of each
+ * method.
  */
 @Aspect
 public class LoggingAspect {
 
-    private final Environment env;
+    public static final String METHOD_TIMER_METER_NAME = "app.method.execution";
+    public static final String METHOD_TIMER_METER_DESCRIPTION = "Indicates the execution time of a sample of the calls to a method.";
+    public static final String METHOD_TIMER_LAYER_DIMENSION = "layer";
+    public static final String METHOD_TIMER_CLASS_DIMENSION = "class";
+    public static final String METHOD_TIMER_METHOD_DIMENSION = "method";
+
+    private static final String APPLICATION_PACKAGE = "com.mycompany.myapp.";
+
+    private final boolean developmentProfile;
+
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final boolean percentileHistogram;
+
+    private final ClassValue<Map<Method, JoinPointMetadata>> metadataByType = new ClassValue<>() {
+        @Override
+        protected Map<Method, JoinPointMetadata> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     public LoggingAspect(Environment env) {
-        this.env = env;
+        this(env, null, 0, false);
+    }
+
+    /**
+     * @param env the environment.
+     * @param meterRegistry the registry of the method timers, or {@code null} not to time the methods.
+     * @param sampleRate the ratio of the calls that are timed, between 0 and 1.
+     * @param percentileHistogram whether the method timers publish a percentile histogram.
+     */
+    public LoggingAspect(Environment env, MeterRegistry meterRegistry, double sampleRate, boolean percentileHistogram) {
+        this.developmentProfile = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = meterRegistry == null ? 0 : sampleRate;
+        this.percentileHistogram = percentileHistogram;
     }
 
     /**
@@ -52,13 +105,77 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Retrieves the metadata of the given {@link JoinPoint}, created on its first call.
      *
-     * @param joinPoint join point we want the logger for.
-     * @return {@link Logger} associated to the given {@link JoinPoint}.
+     * @param joinPoint join point we want the metadata for.
+     * @return {@link JoinPointMetadata} of the given {@link JoinPoint}.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+    private JoinPointMetadata metadata(JoinPoint joinPoint) {
+        // The invocation the join point wraps, exposed by Spring AOP for its AspectJ advices. The proxy class is part of
+        // the key as the methods inherited from the Spring Data interfaces are shared by all the repositories
+        MethodInvocation invocation = ExposeInvocationInterceptor.currentInvocation();
+        Object proxy = invocation instanceof ProxyMethodInvocation ? ((ProxyMethodInvocation) invocation).getProxy() : invocation.getThis();
+        Map<Method, JoinPointMetadata> metadataByMethod = metadataByType.get(proxy.getClass());
+        Method method = invocation.getMethod();
+        JoinPointMetadata metadata = metadataByMethod.get(method);
+        if (metadata == null) {
+            metadata = metadataByMethod.computeIfAbsent(method, key -> createMetadata(joinPoint));
+        }
+        return metadata;
+    }
+
+    private JoinPointMetadata createMetadata(JoinPoint joinPoint) {
+        Logger logger = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+        String methodName = joinPoint.getSignature().getName();
+        Timer timer = null;
+        if (sampleRate > 0) {
+            Class<?> type = applicationType(joinPoint);
+            Timer.Builder builder = Timer
+                .builder(METHOD_TIMER_METER_NAME)
+                .description(METHOD_TIMER_METER_DESCRIPTION)
+                .tag(METHOD_TIMER_LAYER_DIMENSION, layer(type))
+                .tag(METHOD_TIMER_CLASS_DIMENSION, type.getSimpleName())
+                .tag(METHOD_TIMER_METHOD_DIMENSION, methodName);
+            if (percentileHistogram) {
+                builder
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10));
+            }
+            timer = builder.register(meterRegistry);
+        }
+        return new JoinPointMetadata(logger, methodName, timer);
+    }
+
+    /**
+     * The class of the application a join point belongs to: the repository interface for the repository proxies, the
+     * target class otherwise.
+     */
+    private static Class<?> applicationType(JoinPoint joinPoint) {
+        Object proxy = joinPoint.getThis();
+        if (proxy != null && Proxy.isProxyClass(proxy.getClass())) {
+            for (Class<?> type : proxy.getClass().getInterfaces()) {
+                if (type.getName().startsWith(APPLICATION_PACKAGE)) {
+                    return type;
+                }
+            }
+        }
+        Object target = joinPoint.getTarget();
+        return target != null ? ClassUtils.getUserClass(target) : joinPoint.getSignature().getDeclaringType();
+    }
+
+    private static String layer(Class<?> type) {
+        String name = type.getName();
+        if (name.startsWith(APPLICATION_PACKAGE + "repository.")) {
+            return "repository";
+        }
+        if (name.startsWith(APPLICATION_PACKAGE + "service.")) {
+            return "service";
+        }
+        if (name.startsWith(APPLICATION_PACKAGE + "web.rest.")) {
+            return "rest";
+        }
+        return "other";
     }
 
     /**
@@ -69,27 +186,22 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = '{}' and exception = '{}'",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL",
-                    e.getMessage(),
-                    e
-                );
+        JoinPointMetadata metadata = metadata(joinPoint);
+        if (developmentProfile) {
+            metadata.logger.error(
+                "Exception in {}() with cause = '{}' and exception = '{}'",
+                metadata.methodName,
+                e.getCause() != null ? e.getCause() : "NULL",
+                e.getMessage(),
+                e
+            );
         } else {
-            logger(joinPoint)
-                .error(
-                    "Exception in {}() with cause = {}",
-                    joinPoint.getSignature().getName(),
-                    e.getCause() != null ? e.getCause() : "NULL"
-                );
+            metadata.logger.error("Exception in {}() with cause = {}", metadata.methodName, e.getCause() != null ? e.getCause() : "NULL");
         }
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and times a sample of the calls.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -97,19 +209,45 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        JoinPointMetadata metadata = metadata(joinPoint);
+        Logger log = metadata.logger;
+        boolean debug = log.isDebugEnabled();
+        if (debug) {
+            log.debug("Enter: {}() with argument[s] = {}", metadata.methodName, Arrays.toString(joinPoint.getArgs()));
         }
+        boolean timed = metadata.timer != null && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+        long start = timed ? System.nanoTime() : 0;
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            if (debug) {
+                log.debug("Exit: {}() with result = {}", metadata.methodName, result);
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), metadata.methodName);
             throw e;
+        } finally {
+            if (timed) {
+                metadata.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * What the advices need to know about a join point.
+     */
+    private static final class JoinPointMetadata {
+
+        private final Logger logger;
+
+        private final String methodName;
+
+        private final Timer timer;
+
+        private JoinPointMetadata(Logger logger, String methodName, Timer timer) {
+            this.logger = logger;
+            this.methodName = methodName;
+            this.timer = timer;
         }
     }
 }
@@ -1,5 +1,10 @@
 package com.mycompany.myapp.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +14,700 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Mail mail = new Mail();
+
+    private final LoggingAspect loggingAspect = new LoggingAspect();
+
+    private final Execution execution = new Execution();
+
+    private final Cache cache = new Cache();
+
+    private final Datasource datasource = new Datasource();
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public LoggingAspect getLoggingAspect() {
+        return loggingAspect;
+    }
+
+    public Execution getExecution() {
+        return execution;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public static class Mail {
+
+        private final Outbox outbox = new Outbox();
+
+        public Outbox getOutbox() {
+            return outbox;
+        }
+
+        public static class Outbox {
+
+            /**
+             * Delay between two polls of the outbox, in the ISO-8601 format as it is also read by {@code @Scheduled}.
+             */
+            private Duration pollInterval = Duration.ofSeconds(5);
+
+            /**
+             * Maximum number of messages sent over one SMTP connection.
+             */
+            private int batchSize = 50;
+
+            /**
+             * Number of attempts after which a message is marked as failed.
+             */
+            private int maxAttempts = 5;
+
+            /**
+             * Delay before the first retry, doubled on each following retry.
+             */
+            private Duration initialBackoff = Duration.ofSeconds(30);
+
+            private Duration maxBackoff = Duration.ofHours(1);
+
+            /**
+             * How long a batch is claimed by the instance sending it: past it, its messages are sent again by any
+             * instance. Must exceed the time an SMTP connection may take to send a batch.
+             */
+            private Duration claimTimeout = Duration.ofMinutes(5);
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                this.pollInterval = pollInterval;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getMaxAttempts() {
+                return maxAttempts;
+            }
+
+            public void setMaxAttempts(int maxAttempts) {
+                this.maxAttempts = maxAttempts;
+            }
+
+            public Duration getInitialBackoff() {
+                return initialBackoff;
+            }
+
+            public void setInitialBackoff(Duration initialBackoff) {
+                this.initialBackoff = initialBackoff;
+            }
+
+            public Duration getMaxBackoff() {
+                return maxBackoff;
+            }
+
+            public void setMaxBackoff(Duration maxBackoff) {
+                this.maxBackoff = maxBackoff;
+            }
+
+            public Duration getClaimTimeout() {
+                return claimTimeout;
+            }
+
+            public void setClaimTimeout(Duration claimTimeout) {
+                this.claimTimeout = claimTimeout;
+            }
+        }
+    }
+
+    public static class LoggingAspect {
+
+        /**
+         * Ratio of the calls to the repositories, services and REST controllers that are timed with the "prod" profile,
+         * between 0 (none) and 1 (all).
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * Whether the timers of the methods publish a percentile histogram: a few dozen series for each method.
+         */
+        private boolean percentileHistogram = false;
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
+
+    public static class Execution {
+
+        /**
+         * The threads running the {@code @Async} tasks, the {@code @Scheduled} jobs and the servlet requests.
+         */
+        public enum Mode {
+            /**
+             * The platform thread pools configured by {@code spring.task.*} and {@code server.undertow.threads.*}.
+             */
+            PLATFORM,
+            /**
+             * A virtual thread per task and per request, when the Java runtime has virtual threads (Java 21 and later).
+             */
+            VIRTUAL,
+        }
+
+        private Mode mode = Mode.PLATFORM;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+    }
+
+    public static class Cache {
+
+        private final Invalidation invalidation = new Invalidation();
+
+        private final WarmUp warmUp = new WarmUp();
+
+        /**
+         * Directory of the disk tiers, a {@code myapp-cache} directory of the temporary directory by default.
+         */
+        private String diskPath;
+
+        /**
+         * The tiers and expiry of each cache region, by name: a region that is not listed only has a heap tier, with the
+         * size and time to live of {@code jhipster.cache.ehcache}.
+         */
+        private Map<String, Region> regions = new HashMap<>();
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public String getDiskPath() {
+            return diskPath;
+        }
+
+        public void setDiskPath(String diskPath) {
+            this.diskPath = diskPath;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public static class Region {
+
+            /**
+             * Number of entries kept on the heap, {@code jhipster.cache.ehcache.max-entries} by default.
+             */
+            private Long heapEntries;
+
+            /**
+             * Size of the off-heap tier, in MB, none when 0. Off-heap entries are serialized, out of reach of the garbage
+             * collector.
+             */
+            private long offHeapMb;
+
+            /**
+             * Size of the disk tier, in MB, none when 0. It must be larger than the off-heap tier, and is emptied on restart.
+             */
+            private long diskMb;
+
+            /**
+             * Time after which an entry expires once created or updated, {@code jhipster.cache.ehcache.time-to-live-seconds}
+             * by default.
+             */
+            private Duration timeToLive;
+
+            /**
+             * When set, each read pushes the expiry of the entry back to this duration from the read.
+             */
+            private Duration timeToIdle;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public long getDiskMb() {
+                return diskMb;
+            }
+
+            public void setDiskMb(long diskMb) {
+                this.diskMb = diskMb;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+        }
+
+        public static class WarmUp {
+
+            private boolean enabled = true;
+
+            /**
+             * Number of heroes loaded in the second-level cache, the first ones by id.
+             */
+            private int heroes = 10000;
+
+            /**
+             * Number of users loaded in the second-level cache and {@code usersByLogin}, the last modified ones first.
+             */
+            private int users = 1000;
+
+            /**
+             * Number of entities loaded by each query.
+             */
+            private int batchSize = 100;
+
+            /**
+             * Number of batches loaded at the same time, each using a database connection.
+             */
+            private int parallelism = 4;
+
+            /**
+             * Ratio of the entities to load, between 0 and 1, from which the readiness group reports UP.
+             */
+            private double threshold = 0.8;
+
+            /**
+             * Time after which the readiness group reports UP whatever the progress of the warm-up.
+             */
+            private Duration timeout = Duration.ofMinutes(2);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getHeroes() {
+                return heroes;
+            }
+
+            public void setHeroes(int heroes) {
+                this.heroes = heroes;
+            }
+
+            public int getUsers() {
+                return users;
+            }
+
+            public void setUsers(int users) {
+                this.users = users;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public double getThreshold() {
+                return threshold;
+            }
+
+            public void setThreshold(double threshold) {
+                this.threshold = threshold;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        public static class Invalidation {
+
+            /**
+             * How the cache evictions of this node are sent to the other nodes of the cluster.
+             */
+            public enum Transport {
+                /**
+                 * Evictions stay local: for a single node.
+                 */
+                NONE,
+                /**
+                 * Evictions go to the other transports of the same JVM: for tests.
+                 */
+                LOOPBACK,
+                /**
+                 * Evictions go to the {@code peers} as UDP datagrams, and are received on {@code port}.
+                 */
+                UDP,
+            }
+
+            private Transport transport = Transport.NONE;
+
+            /**
+             * UDP port the evictions of the peers are received on. It must only be reachable from the cluster nodes.
+             */
+            private int port = 45588;
+
+            /**
+             * The {@code host:port} addresses of the other nodes of the cluster: only the evictions sent from them are applied.
+             */
+            private List<String> peers = new ArrayList<>();
+
+            public Transport getTransport() {
+                return transport;
+            }
+
+            public void setTransport(Transport transport) {
+                this.transport = transport;
+            }
+
+            public int getPort() {
+                return port;
+            }
+
+            public void setPort(int port) {
+                this.port = port;
+            }
+
+            public List<String> getPeers() {
+                return peers;
+            }
+
+            public void setPeers(List<String> peers) {
+                this.peers = peers;
+            }
+        }
+    }
+
+    public static class Datasource {
+
+        /**
+         * The replicas of the {@code spring.datasource} database, which take the read-only transactions. Their pools have the
+         * settings of {@code spring.datasource.hikari}, but for the ones set here.
+         */
+        private List<Replica> replicas = new ArrayList<>();
+
+        /**
+         * Delay between two checks of the replicas.
+         */
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+        /**
+         * Replication lag from which a replica is skipped, its read-only transactions going to the other replicas or to the
+         * primary.
+         */
+        private Duration maxLag = Duration.ofSeconds(10);
+
+        /**
+         * Query returning the replication lag of a replica in seconds, or {@code NULL} when the replication is stopped, such
+         * as a query on a heartbeat table. When not set, only the connection to the replicas is checked.
+         */
+        private String lagQuery;
+
+        /**
+         * Time after which a connection still held is logged as leaked, with the stack of the code that took it. Taking the
+         * stack has a cost on each connection, so the detection is off when 0.
+         */
+        private Duration leakDetectionThreshold = Duration.ZERO;
+
+        private final PoolSizing poolSizing = new PoolSizing();
+
+        private final Statements statements = new Statements();
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public Duration getHealthCheckInterval() {
+            return healthCheckInterval;
+        }
+
+        public void setHealthCheckInterval(Duration healthCheckInterval) {
+            this.healthCheckInterval = healthCheckInterval;
+        }
+
+        public Duration getMaxLag() {
+            return maxLag;
+        }
+
+        public void setMaxLag(Duration maxLag) {
+            this.maxLag = maxLag;
+        }
+
+        public String getLagQuery() {
+            return lagQuery;
+        }
+
+        public void setLagQuery(String lagQuery) {
+            this.lagQuery = lagQuery;
+        }
+
+        public Duration getLeakDetectionThreshold() {
+            return leakDetectionThreshold;
+        }
+
+        public void setLeakDetectionThreshold(Duration leakDetectionThreshold) {
+            this.leakDetectionThreshold = leakDetectionThreshold;
+        }
+
+        public PoolSizing getPoolSizing() {
+            return poolSizing;
+        }
+
+        public Statements getStatements() {
+            return statements;
+        }
+
+        public static class Statements {
+
+            /**
+             * Number of SQL statements a request may run before it is logged as over its budget.
+             */
+            private int maxPerRequest = 30;
+
+            /**
+             * Number of times a request or a transaction may run the same SQL statement before it is logged as a likely N+1.
+             */
+            private int maxRepeats = 5;
+
+            public int getMaxPerRequest() {
+                return maxPerRequest;
+            }
+
+            public void setMaxPerRequest(int maxPerRequest) {
+                this.maxPerRequest = maxPerRequest;
+            }
+
+            public int getMaxRepeats() {
+                return maxRepeats;
+            }
+
+            public void setMaxRepeats(int maxRepeats) {
+                this.maxRepeats = maxRepeats;
+            }
+        }
+
+        public static class PoolSizing {
+
+            /**
+             * Whether the maximum size of the pools follows the time waited for their connections. When on, the idle
+             * connections above the minimum size are closed after {@code spring.datasource.hikari.idle-timeout}.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Lower bound of the maximum size of each pool.
+             */
+            private int minimumSize = 10;
+
+            /**
+             * Upper bound of the maximum size of each pool: the database must accept this many connections per pool and node.
+             */
+            private int maximumSize = 40;
+
+            /**
+             * Wait for a connection above which a pool grows, at the percentile.
+             */
+            private Duration targetWait = Duration.ofMillis(10);
+
+            /**
+             * Percentile of the waits compared to the target, between 0 and 1.
+             */
+            private double percentile = 0.95;
+
+            /**
+             * Delay between two adjustments: a pool changes by at most one step in this delay.
+             */
+            private Duration interval = Duration.ofSeconds(30);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMinimumSize() {
+                return minimumSize;
+            }
+
+            public void setMinimumSize(int minimumSize) {
+                this.minimumSize = minimumSize;
+            }
+
+            public int getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(int maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            public Duration getTargetWait() {
+                return targetWait;
+            }
+
+            public void setTargetWait(Duration targetWait) {
+                this.targetWait = targetWait;
+            }
+
+            public double getPercentile() {
+                return percentile;
+            }
+
+            public void setPercentile(double percentile) {
+                this.percentile = percentile;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+        }
+
+        public static class Replica {
+
+            /**
+             * Name of the pool of the replica, in the logs and the {@code pool} tag of the metrics.
+             */
+            private String name;
+
+            private String url;
+
+            /**
+             * User of the replica, the one of {@code spring.datasource} by default.
+             */
+            private String username;
+
+            /**
+             * Password of the replica, the one of {@code spring.datasource} by default.
+             */
+            private String password;
+
+            /**
+             * Maximum size of the pool of the replica, {@code spring.datasource.hikari.maximum-pool-size} by default.
+             */
+            private Integer maximumPoolSize;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public Integer getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(Integer maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+        }
+    }
+}
@@ -1,35 +1,64 @@
 package com.mycompany.myapp.config;
 
+import java.util.Optional;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 
+/**
+ * Configuration of the threads running the {@code @Async} tasks, the {@code @Scheduled} jobs and the servlet requests.
+ * <p>
+ * With {@code application.execution.mode: virtual}, each of them runs on virtual threads if the Java runtime has them,
+ * and on the platform thread pools otherwise.
+ */
 @Configuration
 @EnableAsync
 @EnableScheduling
 public class AsyncConfiguration implements AsyncConfigurer {
 
+    private static final String REQUEST_THREAD_NAME_PREFIX = "myapp-request-";
+
+    /**
+     * Pool size of the scheduler in virtual mode: a pooled virtual thread costs a few hundred bytes while it waits, so
+     * the pool is sized for every job that may be due at once rather than for the carrier threads.
+     */
+    private static final int VIRTUAL_SCHEDULER_POOL_SIZE = 256;
+
     private final Logger log = LoggerFactory.getLogger(AsyncConfiguration.class);
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        Optional<ThreadFactory> virtualThreadFactory = virtualThreadFactory(taskExecutionProperties.getThreadNamePrefix());
+        if (virtualThreadFactory.isPresent()) {
+            log.debug("Creating Async Task Executor on virtual threads");
+            return new ExceptionHandlingAsyncTaskExecutor(new SimpleAsyncTaskExecutor(virtualThreadFactory.get()));
+        }
         log.debug("Creating Async Task Executor");
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
@@ -43,4 +72,46 @@ public class AsyncConfiguration implements AsyncConfigurer {
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
     }
+
+    /**
+     * The scheduler of the {@code @Scheduled} jobs, configured by {@code spring.task.scheduling.*}: in virtual mode, its
+     * pool threads are virtual threads, so jobs blocking on I/O do not hold a carrier thread, and the pool is widened to
+     * {@link #VIRTUAL_SCHEDULER_POOL_SIZE} so that a job blocked on the database or the mail server never delays the
+     * others that are due.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder taskSchedulerBuilder) {
+        ThreadPoolTaskScheduler scheduler = taskSchedulerBuilder.build();
+        virtualThreadFactory(scheduler.getThreadNamePrefix())
+            .ifPresent(threadFactory -> {
+                scheduler.setThreadFactory(threadFactory);
+                scheduler.setPoolSize(Math.max(scheduler.getPoolSize(), VIRTUAL_SCHEDULER_POOL_SIZE));
+            });
+        return scheduler;
+    }
+
+    /**
+     * In virtual mode, dispatch the servlet requests to a virtual thread each, rather than to the Undertow worker pool.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowExecutionCustomizer() {
+        return factory ->
+            virtualThreadFactory(REQUEST_THREAD_NAME_PREFIX)
+                .ifPresent(threadFactory ->
+                    factory.addDeploymentInfoCustomizers(deploymentInfo ->
+                        deploymentInfo.setExecutor(new SimpleAsyncTaskExecutor(threadFactory))
+                    )
+                );
+    }
+
+    private Optional<ThreadFactory> virtualThreadFactory(String threadNamePrefix) {
+        if (applicationProperties.getExecution().getMode() != ApplicationProperties.Execution.Mode.VIRTUAL) {
+            return Optional.empty();
+        }
+        Optional<ThreadFactory> threadFactory = VirtualThreads.threadFactory(threadNamePrefix);
+        if (threadFactory.isEmpty()) {
+            log.warn("Virtual threads are not available on Java {}, using platform threads", System.getProperty("java.version"));
+        }
+        return threadFactory;
+    }
 }
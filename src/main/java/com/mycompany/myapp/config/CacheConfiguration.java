@@ -1,11 +1,33 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.config.cache.CacheInvalidationTransport;
+import com.mycompany.myapp.config.cache.CacheRegionMetrics;
+import com.mycompany.myapp.config.cache.ClusterCacheInvalidator;
+import com.mycompany.myapp.config.cache.LoopbackCacheInvalidationTransport;
+import com.mycompany.myapp.config.cache.UdpCacheInvalidationTransport;
+import com.mycompany.myapp.config.datasource.ReplicaRoutingDataSource;
+import com.mycompany.myapp.service.CacheWarmUpService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.File;
 import java.time.Duration;
+import java.util.stream.Collectors;
+import javax.cache.Caching;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
+import org.ehcache.impl.internal.statistics.DefaultStatisticsService;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
@@ -21,23 +43,108 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final long defaultHeapEntries;
+    private final Duration defaultTimeToLive;
+    private final ApplicationProperties.Cache cacheProperties;
+    /**
+     * The statistics of the tiers of each region, read by the cache metrics: the JCache manager keeps its own out of reach.
+     */
+    private final DefaultStatisticsService statisticsService = new DefaultStatisticsService();
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+        defaultHeapEntries = ehcache.getMaxEntries();
+        defaultTimeToLive = Duration.ofSeconds(ehcache.getTimeToLiveSeconds());
+        cacheProperties = applicationProperties.getCache();
+    }
+
+    /**
+     * The JCache manager of Ehcache, with a persistence directory when a region has a disk tier.
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jCacheCacheManager(ObjectProvider<JCacheManagerCustomizer> customizers) {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        boolean diskTier = cacheProperties.getRegions().values().stream().anyMatch(region -> region.getDiskMb() > 0);
+        DefaultConfiguration configuration = diskTier
+            ? new DefaultConfiguration(provider.getDefaultClassLoader(), new DefaultPersistenceConfiguration(getDiskDirectory()))
+            : new DefaultConfiguration(provider.getDefaultClassLoader());
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), configuration);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    private File getDiskDirectory() {
+        return cacheProperties.getDiskPath() != null
+            ? new File(cacheProperties.getDiskPath())
+            : new File(System.getProperty("java.io.tmpdir"), "myapp-cache");
+    }
+
+    /**
+     * The configuration of a cache region: the tiers and expiry set in {@code application.cache.regions}, or a heap tier
+     * with the size and time to live of {@code jhipster.cache.ehcache}.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties
+            .getRegions()
+            .getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder
+            .newResourcePoolsBuilder()
+            .heap(region.getHeapEntries() != null ? region.getHeapEntries() : defaultHeapEntries, EntryUnit.ENTRIES);
+        if (region.getOffHeapMb() > 0) {
+            resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+        }
+        if (region.getDiskMb() > 0) {
+            // Not persistent: the database may have changed while the application was stopped
+            resourcePools = resourcePools.disk(region.getDiskMb(), MemoryUnit.MB, false);
+        }
+        Duration timeToLive = region.getTimeToLive() != null ? region.getTimeToLive() : defaultTimeToLive;
+        ExpiryPolicyBuilder<Object, Object> expiry = ExpiryPolicyBuilder.expiry().create(timeToLive).update(timeToLive);
+        if (region.getTimeToIdle() != null) {
+            expiry = expiry.access(region.getTimeToIdle());
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(expiry.build())
+                .build()
+        );
     }
 
     @Bean
     public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
-        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Each region holds a single entity or collection, so its keys can be the bare ids, which can be sent to the other nodes
+            hibernateProperties.put(AvailableSettings.CACHE_KEYS_FACTORY, "simple");
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "loopback")
+    public LoopbackCacheInvalidationTransport loopbackCacheInvalidationTransport() {
+        return new LoopbackCacheInvalidationTransport(new LoopbackCacheInvalidationTransport.Bus());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.cache.invalidation", name = "transport", havingValue = "udp")
+    public UdpCacheInvalidationTransport udpCacheInvalidationTransport(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache.Invalidation invalidation = applicationProperties.getCache().getInvalidation();
+        return new UdpCacheInvalidationTransport(
+            invalidation.getPort(),
+            invalidation.getPeers().stream().map(UdpCacheInvalidationTransport::parsePeer).collect(Collectors.toList())
+        );
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnExpression("!'${application.cache.invalidation.transport:none}'.equalsIgnoreCase('none')")
+    public ClusterCacheInvalidator clusterCacheInvalidator(
+        javax.cache.CacheManager cacheManager,
+        CacheInvalidationTransport cacheInvalidationTransport,
+        ReplicaRoutingDataSource replicaRoutingDataSource,
+        MeterRegistry meterRegistry
+    ) {
+        return new ClusterCacheInvalidator(cacheManager, cacheInvalidationTransport, replicaRoutingDataSource, meterRegistry);
     }
 
     @Bean
@@ -49,6 +156,7 @@ public class CacheConfiguration {
             createCache(cm, com.mycompany.myapp.domain.Authority.class.getName());
             createCache(cm, com.mycompany.myapp.domain.User.class.getName() + ".authorities");
             createCache(cm, com.mycompany.myapp.domain.Hero.class.getName());
+            createCache(cm, com.mycompany.myapp.repository.HeroRepository.HERO_PAGES_CACHE);
             // jhipster-needle-ehcache-add-entry
         };
     }
@@ -58,8 +166,25 @@ public class CacheConfiguration {
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName));
         }
+        // Hits and misses of each region, read by the cache metrics
+        cm.enableStatistics(cacheName, true);
+        // Entries and bytes of each of its tiers
+        statisticsService.cacheAdded(cacheName, cm.getCache(cacheName).unwrap(org.ehcache.Cache.class));
+    }
+
+    /**
+     * The {@code cacheWarmUp} health, in the readiness group: OUT_OF_SERVICE until the caches are warm enough.
+     */
+    @Bean
+    public HealthIndicator cacheWarmUpHealthIndicator(CacheWarmUpService cacheWarmUpService) {
+        return cacheWarmUpService::health;
+    }
+
+    @Bean
+    public CacheRegionMetrics cacheRegionMetrics(javax.cache.CacheManager cacheManager) {
+        return new CacheRegionMetrics(cacheManager, statisticsService);
     }
 
     @Autowired(required = false)
@@ -1,14 +1,41 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.config.datasource.ConnectionLeakDetector;
+import com.mycompany.myapp.config.datasource.ConnectionPoolMetricsEndpoint;
+import com.mycompany.myapp.config.datasource.InstrumentedDataSource;
+import com.mycompany.myapp.config.datasource.PoolSizeController;
+import com.mycompany.myapp.config.datasource.ReplicaRoutingDataSource;
+import com.mycompany.myapp.config.sql.SqlStatementFilter;
+import com.mycompany.myapp.config.sql.SqlStatementTracker;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -19,12 +46,173 @@ import tech.jhipster.config.h2.H2ConfigurationHelper;
 @EnableTransactionManagement
 public class DatabaseConfiguration {
 
+    private static final String DEFAULT_POOL_NAME = "Hikari";
+
     private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
 
     private final Environment env;
 
-    public DatabaseConfiguration(Environment env) {
+    private final ApplicationProperties.Datasource datasourceProperties;
+
+    public DatabaseConfiguration(Environment env, ApplicationProperties applicationProperties) {
         this.env = env;
+        this.datasourceProperties = applicationProperties.getDatasource();
+    }
+
+    /**
+     * The pool of the primary database, configured by {@code spring.datasource}: it takes the writes, and runs the
+     * Liquibase migrations.
+     */
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // The name is the pool tag of the metrics, so it is set before the pool starts; spring.datasource.hikari.pool-name wins
+        dataSource.setPoolName(StringUtils.hasText(properties.getName()) ? properties.getName() : DEFAULT_POOL_NAME);
+        return dataSource;
+    }
+
+    /**
+     * The detector of the connections held longer than {@code application.datasource.leak-detection-threshold}.
+     */
+    @Bean(destroyMethod = "close")
+    public ConnectionLeakDetector connectionLeakDetector(MeterRegistry meterRegistry) {
+        ConnectionLeakDetector leakDetector = new ConnectionLeakDetector(datasourceProperties.getLeakDetectionThreshold(), meterRegistry);
+        leakDetector.start();
+        return leakDetector;
+    }
+
+    /**
+     * The sizing of the pools after the time waited for their connections, when {@code application.datasource.pool-sizing}
+     * is enabled.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "application.datasource.pool-sizing", name = "enabled", havingValue = "true")
+    public PoolSizeController poolSizeController(MeterRegistry meterRegistry) {
+        ApplicationProperties.Datasource.PoolSizing poolSizing = datasourceProperties.getPoolSizing();
+        PoolSizeController poolSizeController = new PoolSizeController(
+            poolSizing.getMinimumSize(),
+            poolSizing.getMaximumSize(),
+            poolSizing.getTargetWait(),
+            poolSizing.getPercentile(),
+            meterRegistry
+        );
+        poolSizeController.start(poolSizing.getInterval());
+        return poolSizeController;
+    }
+
+    /**
+     * The routing between the primary and the replicas of {@code application.datasource.replicas}, which it owns and
+     * closes. The connections of each pool are timed by endpoint, followed for leaks, and sized if enabled.
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+        HikariDataSource primaryDataSource,
+        ConnectionLeakDetector connectionLeakDetector,
+        ObjectProvider<PoolSizeController> poolSizeController,
+        MeterRegistry meterRegistry
+    ) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ApplicationProperties.Datasource.Replica> replicaProperties = datasourceProperties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            HikariDataSource replica = createReplicaPool(primaryDataSource, replicaProperties.get(i), i + 1, meterRegistry);
+            replicas.put(replica.getPoolName(), instrument(replica, connectionLeakDetector, poolSizeController, meterRegistry));
+        }
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+            primaryDataSource.getPoolName(),
+            instrument(primaryDataSource, connectionLeakDetector, poolSizeController, meterRegistry),
+            replicas,
+            datasourceProperties.getMaxLag(),
+            datasourceProperties.getLagQuery(),
+            meterRegistry
+        );
+        routingDataSource.start(datasourceProperties.getHealthCheckInterval());
+        log.debug("Routing the read-only transactions to the replicas {}", replicas.keySet());
+        return routingDataSource;
+    }
+
+    private static InstrumentedDataSource instrument(
+        HikariDataSource pool,
+        ConnectionLeakDetector connectionLeakDetector,
+        ObjectProvider<PoolSizeController> poolSizeController,
+        MeterRegistry meterRegistry
+    ) {
+        InstrumentedDataSource instrumented = new InstrumentedDataSource(pool.getPoolName(), pool, meterRegistry, connectionLeakDetector);
+        poolSizeController.ifAvailable(controller -> controller.register(pool, instrumented));
+        return instrumented;
+    }
+
+    private HikariDataSource createReplicaPool(
+        HikariDataSource primaryDataSource,
+        ApplicationProperties.Datasource.Replica replica,
+        int index,
+        MeterRegistry meterRegistry
+    ) {
+        HikariConfig config = new HikariConfig();
+        primaryDataSource.copyStateTo(config);
+        config.setPoolName(
+            StringUtils.hasText(replica.getName()) ? replica.getName() : primaryDataSource.getPoolName() + "-replica-" + index
+        );
+        config.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            config.setUsername(replica.getUsername());
+        }
+        if (replica.getPassword() != null) {
+            config.setPassword(replica.getPassword());
+        }
+        if (replica.getMaximumPoolSize() != null) {
+            config.setMaximumPoolSize(replica.getMaximumPoolSize());
+        }
+        // A write sent to a replica by mistake fails instead of diverging from the primary
+        config.setReadOnly(true);
+        // A replica down at startup is skipped until it is back, rather than failing the startup
+        config.setInitializationFailTimeout(-1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * The data source of the application: it only takes a connection on the first statement of a transaction, once it is
+     * known to be read-only or not, so the routing can send it to a replica or to the primary.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * The {@code jhimetrics} endpoint, with the metrics of each connection pool.
+     */
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public ConnectionPoolMetricsEndpoint connectionPoolMetricsEndpoint(MeterRegistry meterRegistry) {
+        return new ConnectionPoolMetricsEndpoint(meterRegistry);
+    }
+
+    /**
+     * The counting of the SQL statements by request and by transaction, against the limits of
+     * {@code application.datasource.statements}.
+     */
+    @Bean
+    public SqlStatementTracker sqlStatementTracker(MeterRegistry meterRegistry) {
+        ApplicationProperties.Datasource.Statements statements = datasourceProperties.getStatements();
+        return new SqlStatementTracker(statements.getMaxPerRequest(), statements.getMaxRepeats(), meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer(SqlStatementTracker sqlStatementTracker) {
+        StatementInspector statementInspector = sql -> {
+            sqlStatementTracker.record(sql);
+            return sql;
+        };
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, statementInspector);
+    }
+
+    @Bean
+    public SqlStatementFilter sqlStatementFilter(SqlStatementTracker sqlStatementTracker) {
+        return new SqlStatementFilter(sqlStatementTracker);
     }
 
     /**
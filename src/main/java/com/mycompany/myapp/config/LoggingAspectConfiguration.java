@@ -1,6 +1,7 @@
 package com.mycompany.myapp.config;
 
 import com.mycompany.myapp.aop.logging.LoggingAspect;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -14,4 +15,11 @@ public class LoggingAspectConfiguration {
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    @Bean
+    @Profile("!" + JHipsterConstants.SPRING_PROFILE_DEVELOPMENT + " & " + JHipsterConstants.SPRING_PROFILE_PRODUCTION)
+    public LoggingAspect timingLoggingAspect(Environment env, MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.LoggingAspect properties = applicationProperties.getLoggingAspect();
+        return new LoggingAspect(env, meterRegistry, properties.getSampleRate(), properties.isPercentileHistogram());
+    }
 }
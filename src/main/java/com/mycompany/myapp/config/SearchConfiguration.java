@@ -0,0 +1,183 @@
+package com.mycompany.myapp.config;
+
+import com.mycompany.myapp.config.cache.CacheInvalidation;
+import com.mycompany.myapp.config.cache.ClusterCacheInvalidator;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.service.HeroSearchService;
+import com.mycompany.myapp.service.HeroService;
+import com.mycompany.myapp.service.HeroSuggestService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the hero search index and name suggestions up to date: Hibernate notifies them of the heroes inserted, updated and
+ * deleted, once their transaction is committed, so rolled back writes are never indexed.
+ * <p>
+ * In a cluster, the ids of the heroes indexed by a node are sent to the others through the {@link ClusterCacheInvalidator},
+ * which read their names again from the database.
+ */
+@Configuration
+public class SearchConfiguration {
+
+    /**
+     * The name of the invalidations of the heroes indexed by another node.
+     */
+    public static final String HERO_NAMES_INVALIDATION = "heroNames";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final HeroSearchService heroSearchService;
+
+    private final HeroSuggestService heroSuggestService;
+
+    private final HeroService heroService;
+
+    private final ObjectProvider<ClusterCacheInvalidator> clusterCacheInvalidator;
+
+    public SearchConfiguration(
+        EntityManagerFactory entityManagerFactory,
+        HeroSearchService heroSearchService,
+        HeroSuggestService heroSuggestService,
+        HeroService heroService,
+        ObjectProvider<ClusterCacheInvalidator> clusterCacheInvalidator
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.heroSearchService = heroSearchService;
+        this.heroSuggestService = heroSuggestService;
+        this.heroService = heroService;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+    }
+
+    @PostConstruct
+    public void registerHeroNameListener() {
+        EventListenerRegistry registry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        HeroNameListener listener = new HeroNameListener(heroSearchService, heroSuggestService);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        registerClusterListeners();
+    }
+
+    private void registerClusterListeners() {
+        ClusterCacheInvalidator invalidator = clusterCacheInvalidator.getIfAvailable();
+        if (invalidator == null) {
+            return;
+        }
+        // Not sent back while the ids of another node are indexed, on the thread receiving them
+        heroSearchService.addWriteListener(id -> invalidator.invalidate(HERO_NAMES_INVALIDATION, id));
+        invalidator.addListener(HERO_NAMES_INVALIDATION, this::reindex);
+    }
+
+    /**
+     * Index the heroes written by another node, with their names read again from the database rather than sent: the
+     * invalidations of two writes of the same hero can arrive out of order, the database has the last name.
+     */
+    void reindex(CacheInvalidation invalidation) {
+        // Hero ids are always sent as keys
+        List<Long> ids = new ArrayList<>();
+        for (Object key : invalidation.getKeys()) {
+            if (key instanceof Long) {
+                ids.add((Long) key);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, String> names = heroService.findNames(ids);
+        for (Long id : ids) {
+            String name = names.get(id);
+            if (name == null) {
+                heroSearchService.deleted(id);
+                heroSuggestService.deleted(id);
+            } else {
+                heroSearchService.indexed(id, name);
+                heroSuggestService.indexed(id, name);
+            }
+        }
+    }
+
+    static class HeroNameListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient HeroSearchService heroSearchService;
+
+        private final transient HeroSuggestService heroSuggestService;
+
+        HeroNameListener(HeroSearchService heroSearchService, HeroSuggestService heroSuggestService) {
+            this.heroSearchService = heroSearchService;
+            this.heroSuggestService = heroSuggestService;
+        }
+
+        private void indexed(Hero hero) {
+            heroSearchService.indexed(hero.getId(), hero.getName());
+            heroSuggestService.indexed(hero.getId(), hero.getName());
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Hero) {
+                indexed((Hero) event.getEntity());
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Hero) {
+                indexed((Hero) event.getEntity());
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Hero) {
+                heroSearchService.deleted((Long) event.getId());
+                heroSuggestService.deleted((Long) event.getId());
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // Nothing was indexed before the commit
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Nothing was indexed before the commit
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Nothing was removed before the commit
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return Hero.class.equals(persister.getMappedClass());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return requiresPostCommitHanding(persister);
+        }
+    }
+}
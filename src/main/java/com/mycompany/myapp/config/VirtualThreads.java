@@ -0,0 +1,33 @@
+package com.mycompany.myapp.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of Java 21 and later, while the application is compiled for an older Java version.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * Get a factory of virtual threads.
+     *
+     * @param namePrefix the prefix of the names of the threads, followed by a counter.
+     * @return the factory, or an empty {@link Optional} if the Java runtime has no virtual threads.
+     */
+    public static Optional<ThreadFactory> threadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method name = builderType.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderType.getMethod("factory").invoke(builder));
+        } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException | InvocationTargetException e) {
+            // Before Java 21, or Java 19 and 20 without --enable-preview
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mycompany.myapp.config.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The keys evicted from a cache by a node of the cluster, or the whole cache when it cannot send the keys.
+ * <p>
+ * Only {@link String}, {@link Long} and {@link Integer} keys are sent, see {@link #isPortable(Object)}: they cover the
+ * Spring caches of the application and, with the {@code simple} Hibernate cache keys, its entity and collection regions.
+ */
+public final class CacheInvalidation {
+
+    private static final String ALL_KEYS = "*";
+
+    private static final char STRING_KEY = 'S';
+
+    private static final char LONG_KEY = 'L';
+
+    private static final char INTEGER_KEY = 'I';
+
+    private final String origin;
+
+    private final String cacheName;
+
+    private final List<Object> keys;
+
+    private CacheInvalidation(String origin, String cacheName, List<Object> keys) {
+        this.origin = origin;
+        this.cacheName = cacheName;
+        this.keys = keys;
+    }
+
+    /**
+     * An invalidation of some keys of a cache.
+     *
+     * @param origin the id of the node sending the invalidation.
+     * @param cacheName the name of the cache.
+     * @param keys the evicted keys, all {@linkplain #isPortable(Object) portable}.
+     * @return the invalidation.
+     */
+    public static CacheInvalidation ofKeys(String origin, String cacheName, List<Object> keys) {
+        return new CacheInvalidation(origin, cacheName, Collections.unmodifiableList(new ArrayList<>(keys)));
+    }
+
+    /**
+     * An invalidation of a whole cache.
+     *
+     * @param origin the id of the node sending the invalidation.
+     * @param cacheName the name of the cache.
+     * @return the invalidation.
+     */
+    public static CacheInvalidation ofAll(String origin, String cacheName) {
+        return new CacheInvalidation(origin, cacheName, null);
+    }
+
+    /**
+     * Whether a key can be sent to the other nodes.
+     */
+    public static boolean isPortable(Object key) {
+        return key instanceof Long || key instanceof Integer || (key instanceof String && ((String) key).indexOf('\n') < 0);
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public boolean isAll() {
+        return keys == null;
+    }
+
+    /**
+     * The evicted keys, empty when the whole cache is.
+     */
+    public List<Object> getKeys() {
+        return keys == null ? Collections.emptyList() : keys;
+    }
+
+    /**
+     * Encode this invalidation, one line for the origin, one for the cache name, and one per key.
+     */
+    public byte[] toBytes() {
+        StringBuilder builder = new StringBuilder().append(origin).append('\n').append(cacheName);
+        if (isAll()) {
+            builder.append('\n').append(ALL_KEYS);
+        }
+        for (Object key : getKeys()) {
+            char type = key instanceof Long ? LONG_KEY : key instanceof Integer ? INTEGER_KEY : STRING_KEY;
+            builder.append('\n').append(type).append(key);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode an invalidation encoded by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not an encoded invalidation.
+     */
+    public static CacheInvalidation fromBytes(byte[] bytes, int length) {
+        String[] lines = new String(bytes, 0, length, StandardCharsets.UTF_8).split("\n", -1);
+        if (lines.length < 3 || lines[0].isEmpty() || lines[1].isEmpty()) {
+            throw new IllegalArgumentException("Not a cache invalidation");
+        }
+        if (lines.length == 3 && ALL_KEYS.equals(lines[2])) {
+            return ofAll(lines[0], lines[1]);
+        }
+        List<Object> keys = new ArrayList<>(lines.length - 2);
+        for (int i = 2; i < lines.length; i++) {
+            keys.add(decodeKey(lines[i]));
+        }
+        return new CacheInvalidation(lines[0], lines[1], Collections.unmodifiableList(keys));
+    }
+
+    private static Object decodeKey(String line) {
+        if (line.isEmpty()) {
+            throw new IllegalArgumentException("Empty cache invalidation key");
+        }
+        String value = line.substring(1);
+        switch (line.charAt(0)) {
+            case STRING_KEY:
+                return value;
+            case LONG_KEY:
+                return Long.valueOf(value);
+            case INTEGER_KEY:
+                return Integer.valueOf(value);
+            default:
+                throw new IllegalArgumentException("Unknown cache invalidation key type: " + line.charAt(0));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CacheInvalidation{origin='" + origin + "', cacheName='" + cacheName + "', keys=" + (isAll() ? ALL_KEYS : keys) + "}";
+    }
+}
@@ -0,0 +1,29 @@
+package com.mycompany.myapp.config.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries the {@link CacheInvalidation}s between the nodes of the cluster.
+ * <p>
+ * Delivery is best effort: the time to live of the caches bounds how long a lost invalidation leaves an entry stale.
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Start receiving the invalidations of the other nodes.
+     *
+     * @param receiver called with each received invalidation, possibly from another thread.
+     */
+    void start(Consumer<CacheInvalidation> receiver);
+
+    /**
+     * Send an invalidation to the other nodes.
+     *
+     * @param invalidation the invalidation.
+     */
+    void send(CacheInvalidation invalidation);
+
+    /**
+     * Stop receiving and sending invalidations.
+     */
+    void stop();
+}
@@ -0,0 +1,162 @@
+package com.mycompany.myapp.config.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.management.ManagementFactory;
+import java.util.function.ToLongFunction;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.TierStatistics;
+import org.ehcache.jsr107.Eh107Configuration;
+
+/**
+ * Metrics of each region of the Ehcache manager, next to the {@code cache.gets}, {@code cache.puts} and
+ * {@code cache.evictions} bound by Spring Boot: the hit ratio, and the capacity, entries and occupied bytes of each of its
+ * tiers.
+ * <p>
+ * The hit ratio is read from the JCache statistics, so they must be enabled on the regions. The occupancy of the tiers is
+ * read from the Ehcache statistics service, which the regions must have been added to.
+ */
+public class CacheRegionMetrics implements MeterBinder {
+
+    public static final String HIT_RATIO_METER_NAME = "cache.hit.ratio";
+    public static final String HIT_RATIO_METER_DESCRIPTION = "Indicates the ratio of the reads of the cache region that were hits.";
+    public static final String TIER_CAPACITY_METER_NAME = "cache.tier.capacity";
+    public static final String TIER_CAPACITY_METER_DESCRIPTION = "Indicates the configured capacity of a tier of the cache region.";
+    public static final String TIER_ENTRIES_METER_NAME = "cache.tier.entries";
+    public static final String TIER_ENTRIES_METER_DESCRIPTION = "Indicates the count of entries held by a tier of the cache region.";
+    public static final String TIER_OCCUPIED_METER_NAME = "cache.tier.occupied";
+    public static final String TIER_OCCUPIED_METER_DESCRIPTION =
+        "Indicates the memory occupied by a tier of the cache region, when it is sized in memory.";
+    public static final String CACHE_DIMENSION = "cache";
+    public static final String TIER_DIMENSION = "tier";
+
+    private final CacheManager cacheManager;
+
+    private final StatisticsService statisticsService;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public CacheRegionMetrics(CacheManager cacheManager, StatisticsService statisticsService) {
+        this.cacheManager = cacheManager;
+        this.statisticsService = statisticsService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            ObjectName statistics = statisticsName(cacheName);
+            Gauge
+                .builder(HIT_RATIO_METER_NAME, this, metrics -> metrics.hitRatio(statistics))
+                .description(HIT_RATIO_METER_DESCRIPTION)
+                .tag(CACHE_DIMENSION, cacheName)
+                .register(registry);
+
+            Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+            Eh107Configuration<?, ?> configuration = cache.getConfiguration(Eh107Configuration.class);
+            ResourcePools resourcePools = configuration.unwrap(CacheRuntimeConfiguration.class).getResourcePools();
+            bindTier(registry, cacheName, "heap", "OnHeap", resourcePools, ResourceType.Core.HEAP);
+            bindTier(registry, cacheName, "offheap", "OffHeap", resourcePools, ResourceType.Core.OFFHEAP);
+            bindTier(registry, cacheName, "disk", "Disk", resourcePools, ResourceType.Core.DISK);
+        }
+    }
+
+    /**
+     * @param tier the name of the tier in the tags.
+     * @param tierStatistics the name of the tier in the Ehcache statistics.
+     */
+    private void bindTier(
+        MeterRegistry registry,
+        String cacheName,
+        String tier,
+        String tierStatistics,
+        ResourcePools pools,
+        ResourceType.Core type
+    ) {
+        if (!pools.getResourceTypeSet().contains(type)) {
+            return;
+        }
+        SizedResourcePool pool = pools.getPoolForResource(type);
+        // The heap can be sized in entries, the other tiers only in memory
+        boolean inBytes = pool.getUnit() instanceof MemoryUnit;
+        double capacity = inBytes ? ((MemoryUnit) pool.getUnit()).toBytes(pool.getSize()) : pool.getSize();
+        Gauge
+            .builder(TIER_CAPACITY_METER_NAME, () -> capacity)
+            .description(TIER_CAPACITY_METER_DESCRIPTION)
+            .tags(CACHE_DIMENSION, cacheName, TIER_DIMENSION, tier)
+            .baseUnit(inBytes ? "bytes" : "entries")
+            .register(registry);
+        Gauge
+            .builder(
+                TIER_ENTRIES_METER_NAME,
+                this,
+                metrics -> metrics.tierStatistic(cacheName, tierStatistics, TierStatistics::getMappings)
+            )
+            .description(TIER_ENTRIES_METER_DESCRIPTION)
+            .tags(CACHE_DIMENSION, cacheName, TIER_DIMENSION, tier)
+            .baseUnit("entries")
+            .register(registry);
+        Gauge
+            .builder(
+                TIER_OCCUPIED_METER_NAME,
+                this,
+                metrics -> metrics.tierStatistic(cacheName, tierStatistics, TierStatistics::getOccupiedByteSize)
+            )
+            .description(TIER_OCCUPIED_METER_DESCRIPTION)
+            .tags(CACHE_DIMENSION, cacheName, TIER_DIMENSION, tier)
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    /**
+     * A statistic of a tier, or {@code NaN} when the region is not in the statistics service, or the tier does not keep
+     * the statistic, such as the bytes of a heap sized in entries.
+     */
+    private double tierStatistic(String cacheName, String tier, ToLongFunction<TierStatistics> statistic) {
+        TierStatistics tierStatistics;
+        try {
+            tierStatistics = statisticsService.getCacheStatistics(cacheName).getTierStatistics().get(tier);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+        long value = tierStatistics == null ? -1 : statistic.applyAsLong(tierStatistics);
+        return value < 0 ? Double.NaN : value;
+    }
+
+    private double hitRatio(ObjectName statistics) {
+        if (statistics == null) {
+            return Double.NaN;
+        }
+        try {
+            return ((Number) mBeanServer.getAttribute(statistics, "CacheHitPercentage")).doubleValue() / 100;
+        } catch (JMException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * The name of the JCache statistics MBean of a cache, built as the JCache providers do.
+     */
+    private ObjectName statisticsName(String cacheName) {
+        try {
+            String cacheManagerName = sanitize(cacheManager.getURI().toString());
+            return new ObjectName("javax.cache:type=CacheStatistics,CacheManager=" + cacheManagerName + ",Cache=" + sanitize(cacheName));
+        } catch (JMException e) {
+            return null;
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name == null ? "" : name.replaceAll("[,:=\n]", ".");
+    }
+}
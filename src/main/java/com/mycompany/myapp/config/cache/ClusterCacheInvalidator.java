@@ -0,0 +1,302 @@
+package com.mycompany.myapp.config.cache;
+
+import com.mycompany.myapp.config.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListener;
+import javax.cache.event.CacheEntryRemovedListener;
+import javax.cache.event.CacheEntryUpdatedListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the caches of the nodes of a cluster coherent: the keys removed from, or replaced in, a cache of this node are
+ * removed from the same cache on the other nodes, and the other way round.
+ * <p>
+ * Only invalidations are sent, never values: the other nodes fill their caches again from the database on the next read,
+ * so each node keeps the entries nobody changed. The Spring caches are evicted when their entries change, but the
+ * {@code READ_WRITE} Hibernate regions replace theirs: an update or a delete puts a lock in place of the entry, and then
+ * the new entry once the transaction completes. Both replacements are sent, the second one invalidating what another node
+ * may have read from the database before the commit. A key put for the first time is not sent.
+ * <p>
+ * An invalidation tells of a write of another node, which the replicas may not have yet: until they do, the read-only
+ * transactions go to the primary, so the next read does not fill the cache again with the old data.
+ * <p>
+ * The invalidations are sent from a single thread, grouped by cache, so a burst of changes makes few messages and never
+ * waits for the transport.
+ * <p>
+ * State held in memory other than a cache, such as a search index, can use the same channel: its changes are sent with
+ * {@link #invalidate(String, Object)} under a name of its own, and the other nodes are told through the listeners added
+ * with {@link #addListener(String, Consumer)}.
+ */
+public class ClusterCacheInvalidator {
+
+    public static final String KEYS_METER_NAME = "cache.invalidation.keys";
+    public static final String KEYS_METER_DESCRIPTION = "Indicates the count of cache keys invalidated on, or by, the other nodes.";
+    public static final String KEYS_METER_DIRECTION_DIMENSION = "direction";
+
+    /**
+     * Maximum number of keys per invalidation, so an invalidation of long keys still fits in a datagram.
+     */
+    static final int MAX_KEYS_PER_INVALIDATION = 64;
+
+    /**
+     * Set while the invalidations of another node are applied, so they are not sent back.
+     */
+    private static final ThreadLocal<Boolean> APPLYING_REMOTE_INVALIDATION = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Logger log = LoggerFactory.getLogger(ClusterCacheInvalidator.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationTransport transport;
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private final Executor sendExecutor;
+
+    private final Counter sentCounter;
+
+    private final Counter receivedCounter;
+
+    private final ConcurrentLinkedQueue<Removal> pendingRemovals = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean sendScheduled = new AtomicBoolean();
+
+    private final Map<String, List<Consumer<CacheInvalidation>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheManager the caches of this node.
+     * @param transport the transport of the invalidations.
+     * @param replicaRoutingDataSource the routing of the read-only transactions, diverted to the primary by each
+     * invalidation, or {@code null}.
+     * @param meterRegistry the registry of the meters.
+     */
+    public ClusterCacheInvalidator(
+        CacheManager cacheManager,
+        CacheInvalidationTransport transport,
+        ReplicaRoutingDataSource replicaRoutingDataSource,
+        MeterRegistry meterRegistry
+    ) {
+        this(
+            cacheManager,
+            transport,
+            replicaRoutingDataSource,
+            meterRegistry,
+            Executors.newSingleThreadExecutor(ClusterCacheInvalidator::newSenderThread)
+        );
+    }
+
+    ClusterCacheInvalidator(
+        CacheManager cacheManager,
+        CacheInvalidationTransport transport,
+        ReplicaRoutingDataSource replicaRoutingDataSource,
+        MeterRegistry meterRegistry,
+        Executor sendExecutor
+    ) {
+        this.cacheManager = cacheManager;
+        this.transport = transport;
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+        this.sendExecutor = sendExecutor;
+        this.sentCounter = keysCounterForDirectionBuilder("sent").register(meterRegistry);
+        this.receivedCounter = keysCounterForDirectionBuilder("received").register(meterRegistry);
+    }
+
+    private static Counter.Builder keysCounterForDirectionBuilder(String direction) {
+        return Counter.builder(KEYS_METER_NAME).description(KEYS_METER_DESCRIPTION).tag(KEYS_METER_DIRECTION_DIMENSION, direction);
+    }
+
+    private static Thread newSenderThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "cache-invalidation-sender");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Listen to the removals and updates of all the caches of the cache manager, and start receiving the invalidations of
+     * the other nodes.
+     */
+    public void start() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+            CacheEntryListener<Object, Object> listener = new InvalidationListener(cacheName);
+            Factory<CacheEntryListener<Object, Object>> listenerFactory = () -> listener;
+            // Synchronous, so the listener runs in the thread applying a remote invalidation and can tell it apart
+            cache.registerCacheEntryListener(new MutableCacheEntryListenerConfiguration<>(listenerFactory, null, false, true));
+        }
+        transport.start(this::apply);
+        log.debug("Cluster cache invalidation started for node {}", nodeId);
+    }
+
+    /**
+     * Stop receiving and sending invalidations.
+     */
+    public void stop() {
+        transport.stop();
+        if (sendExecutor instanceof ExecutorService) {
+            ((ExecutorService) sendExecutor).shutdown();
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Send the invalidation of a key to the other nodes, for state other than a cache. Nothing is sent while the
+     * invalidation of another node is applied on the current thread: each node was told already.
+     *
+     * @param name the name the other nodes listen to, see {@link #addListener(String, Consumer)}.
+     * @param key the key, sent only if {@linkplain CacheInvalidation#isPortable(Object) portable}, or else as an invalidation of
+     * all the keys.
+     */
+    public void invalidate(String name, Object key) {
+        changed(name, key);
+    }
+
+    /**
+     * Be told of the invalidations of the other nodes for a name, on the thread receiving them, before the cache of the same
+     * name, if any, is invalidated.
+     *
+     * @param name the name of the cache, or of the state sent with {@link #invalidate(String, Object)}.
+     * @param listener the listener.
+     */
+    public void addListener(String name, Consumer<CacheInvalidation> listener) {
+        listeners.computeIfAbsent(name, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void changed(String cacheName, Object key) {
+        if (APPLYING_REMOTE_INVALIDATION.get()) {
+            return;
+        }
+        pendingRemovals.add(new Removal(cacheName, key));
+        if (sendScheduled.compareAndSet(false, true)) {
+            sendExecutor.execute(this::sendPendingRemovals);
+        }
+    }
+
+    private void sendPendingRemovals() {
+        // Cleared first: a removal queued from now on schedules another run
+        sendScheduled.set(false);
+        Map<String, List<Object>> keysByCache = new LinkedHashMap<>();
+        Map<String, Boolean> allByCache = new LinkedHashMap<>();
+        Removal removal;
+        while ((removal = pendingRemovals.poll()) != null) {
+            if (CacheInvalidation.isPortable(removal.key)) {
+                keysByCache.computeIfAbsent(removal.cacheName, name -> new ArrayList<>()).add(removal.key);
+            } else {
+                allByCache.put(removal.cacheName, Boolean.TRUE);
+            }
+        }
+        try {
+            for (String cacheName : allByCache.keySet()) {
+                keysByCache.remove(cacheName);
+                transport.send(CacheInvalidation.ofAll(nodeId, cacheName));
+            }
+            keysByCache.forEach((cacheName, keys) -> {
+                for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_INVALIDATION) {
+                    List<Object> chunk = keys.subList(from, Math.min(from + MAX_KEYS_PER_INVALIDATION, keys.size()));
+                    transport.send(CacheInvalidation.ofKeys(nodeId, cacheName, chunk));
+                }
+                sentCounter.increment(keys.size());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot send cache invalidations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply the invalidation of another node.
+     */
+    void apply(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+        List<Consumer<CacheInvalidation>> nameListeners = listeners.getOrDefault(invalidation.getCacheName(), List.of());
+        Cache<Object, Object> cache = cacheManager.getCache(invalidation.getCacheName());
+        if (cache == null && nameListeners.isEmpty()) {
+            log.debug("Ignoring {} for an unknown cache", invalidation);
+            return;
+        }
+        if (replicaRoutingDataSource != null) {
+            // Before the removal, so the next read of the removed keys does not fill them again from a replica
+            replicaRoutingDataSource.divertReads();
+        }
+        APPLYING_REMOTE_INVALIDATION.set(Boolean.TRUE);
+        try {
+            for (Consumer<CacheInvalidation> listener : nameListeners) {
+                try {
+                    listener.accept(invalidation);
+                } catch (RuntimeException e) {
+                    log.warn("Cannot apply {}: {}", invalidation, String.valueOf(e));
+                }
+            }
+            if (cache != null && invalidation.isAll()) {
+                cache.removeAll();
+            } else if (cache != null) {
+                cache.removeAll(new HashSet<>(invalidation.getKeys()));
+            }
+            receivedCounter.increment(invalidation.getKeys().size());
+        } finally {
+            APPLYING_REMOTE_INVALIDATION.remove();
+        }
+        log.trace("Applied {}", invalidation);
+    }
+
+    private final class InvalidationListener
+        implements CacheEntryRemovedListener<Object, Object>, CacheEntryUpdatedListener<Object, Object> {
+
+        private final String cacheName;
+
+        private InvalidationListener(String cacheName) {
+            this.cacheName = cacheName;
+        }
+
+        @Override
+        public void onRemoved(Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+            for (CacheEntryEvent<? extends Object, ? extends Object> event : events) {
+                changed(cacheName, event.getKey());
+            }
+        }
+
+        @Override
+        public void onUpdated(Iterable<CacheEntryEvent<? extends Object, ? extends Object>> events) {
+            for (CacheEntryEvent<? extends Object, ? extends Object> event : events) {
+                changed(cacheName, event.getKey());
+            }
+        }
+    }
+
+    private static final class Removal {
+
+        private final String cacheName;
+
+        private final Object key;
+
+        private Removal(String cacheName, Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+    }
+}
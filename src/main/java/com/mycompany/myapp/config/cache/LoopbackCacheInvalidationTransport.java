@@ -0,0 +1,62 @@
+package com.mycompany.myapp.config.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport delivering the invalidations to the other transports of the same {@link Bus}, in the calling thread.
+ * <p>
+ * Meant for tests, where each transport of the bus stands for a node of the cluster.
+ */
+public class LoopbackCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final Bus bus;
+
+    private volatile Consumer<CacheInvalidation> receiver;
+
+    public LoopbackCacheInvalidationTransport(Bus bus) {
+        this.bus = bus;
+    }
+
+    public Bus getBus() {
+        return bus;
+    }
+
+    @Override
+    public void start(Consumer<CacheInvalidation> receiver) {
+        this.receiver = receiver;
+        bus.transports.add(this);
+    }
+
+    @Override
+    public void send(CacheInvalidation invalidation) {
+        for (LoopbackCacheInvalidationTransport transport : bus.transports) {
+            Consumer<CacheInvalidation> peerReceiver = transport.receiver;
+            if (transport != this && peerReceiver != null) {
+                peerReceiver.accept(invalidation);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        bus.transports.remove(this);
+        receiver = null;
+    }
+
+    /**
+     * The transports exchanging invalidations.
+     */
+    public static class Bus {
+
+        private final List<LoopbackCacheInvalidationTransport> transports = new CopyOnWriteArrayList<>();
+
+        /**
+         * Create a transport on this bus.
+         */
+        public LoopbackCacheInvalidationTransport connect() {
+            return new LoopbackCacheInvalidationTransport(this);
+        }
+    }
+}
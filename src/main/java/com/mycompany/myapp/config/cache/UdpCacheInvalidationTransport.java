@@ -0,0 +1,162 @@
+package com.mycompany.myapp.config.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transport sending each invalidation as a UDP datagram to every peer, and receiving the invalidations of the peers on a
+ * port of its own.
+ * <p>
+ * The invalidations are sent from the receiving socket, so only the datagrams whose source is the address and port of a
+ * peer are applied; the peers are resolved again, at most every {@link #PEER_RESOLUTION_INTERVAL_MILLIS}, when a
+ * datagram comes from elsewhere, in case a peer has moved. Datagrams are not authenticated and their source can be
+ * spoofed: the port must still only be reachable from the nodes of the cluster.
+ */
+public class UdpCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    /**
+     * Maximum size of a UDP payload over IPv4.
+     */
+    static final int MAX_DATAGRAM_SIZE = 65507;
+
+    static final long PEER_RESOLUTION_INTERVAL_MILLIS = 30000;
+
+    private final Logger log = LoggerFactory.getLogger(UdpCacheInvalidationTransport.class);
+
+    private final int port;
+
+    private final List<InetSocketAddress> peers;
+
+    private volatile DatagramSocket socket;
+
+    // Only read and written by the receiver thread
+    private Set<InetSocketAddress> resolvedPeers = Collections.emptySet();
+
+    private long peersResolvedAt;
+
+    private Thread receiverThread;
+
+    public UdpCacheInvalidationTransport(int port, List<InetSocketAddress> peers) {
+        this.port = port;
+        this.peers = List.copyOf(peers);
+    }
+
+    /**
+     * Parse a peer address.
+     *
+     * @param address the address, as {@code host:port}.
+     * @return the parsed address, resolved when it is used.
+     */
+    public static InetSocketAddress parsePeer(String address) {
+        int separator = address.lastIndexOf(':');
+        if (separator <= 0 || separator == address.length() - 1) {
+            throw new IllegalArgumentException("Cache invalidation peer is not host:port: " + address);
+        }
+        return InetSocketAddress.createUnresolved(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+
+    @Override
+    public synchronized void start(Consumer<CacheInvalidation> receiver) {
+        try {
+            socket = new DatagramSocket(port);
+        } catch (SocketException e) {
+            throw new UncheckedIOException("Cannot listen to cache invalidations on UDP port " + port, e);
+        }
+        DatagramSocket receivingSocket = socket;
+        receiverThread = new Thread(() -> receive(receivingSocket, receiver), "cache-invalidation-receiver");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+        log.info("Receiving cache invalidations on UDP port {}, sending them to {}", port, peers);
+    }
+
+    private void receive(DatagramSocket receivingSocket, Consumer<CacheInvalidation> receiver) {
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        while (!receivingSocket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                receivingSocket.receive(packet);
+                if (!isPeer(packet.getSocketAddress())) {
+                    log.debug("Ignoring a datagram from {}, not a cache invalidation peer", packet.getSocketAddress());
+                    continue;
+                }
+                receiver.accept(CacheInvalidation.fromBytes(packet.getData(), packet.getLength()));
+            } catch (IOException e) {
+                if (!receivingSocket.isClosed()) {
+                    log.warn("Cannot receive a cache invalidation: {}", e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                log.warn("Ignoring an invalid cache invalidation from {}: {}", packet.getSocketAddress(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether a datagram comes from a peer, resolving the peers again if it does not and they were not resolved recently.
+     */
+    boolean isPeer(SocketAddress source) {
+        if (resolvedPeers.contains(source)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (peersResolvedAt != 0 && now - peersResolvedAt < PEER_RESOLUTION_INTERVAL_MILLIS) {
+            return false;
+        }
+        peersResolvedAt = now;
+        Set<InetSocketAddress> addresses = new HashSet<>();
+        for (InetSocketAddress peer : peers) {
+            InetSocketAddress address = resolve(peer);
+            if (!address.isUnresolved()) {
+                addresses.add(address);
+            }
+        }
+        resolvedPeers = addresses;
+        return resolvedPeers.contains(source);
+    }
+
+    private static InetSocketAddress resolve(InetSocketAddress peer) {
+        return peer.isUnresolved() ? new InetSocketAddress(peer.getHostString(), peer.getPort()) : peer;
+    }
+
+    @Override
+    public void send(CacheInvalidation invalidation) {
+        DatagramSocket sendingSocket = socket;
+        if (sendingSocket == null) {
+            return;
+        }
+        byte[] bytes = invalidation.toBytes();
+        if (bytes.length > MAX_DATAGRAM_SIZE) {
+            bytes = CacheInvalidation.ofAll(invalidation.getOrigin(), invalidation.getCacheName()).toBytes();
+        }
+        for (InetSocketAddress peer : peers) {
+            try {
+                sendingSocket.send(new DatagramPacket(bytes, bytes.length, resolve(peer)));
+            } catch (IOException e) {
+                log.warn("Cannot send a cache invalidation to {}: {}", peer, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (socket != null) {
+            socket.close();
+            socket = null;
+        }
+        if (receiverThread != null) {
+            receiverThread.interrupt();
+            receiverThread = null;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.mycompany.myapp.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects the connections held longer than a threshold, and attributes them to the code that took them.
+ * <p>
+ * Unlike the {@code leakDetectionThreshold} of Hikari, which only logs the stack, each leak is counted by pool, endpoint
+ * and site: the first method of the application in the stack that took the connection, so the leaks of a dashboard lead
+ * to the code to fix. A connection is reported once, when it passes the threshold, and logged again if it is returned.
+ */
+public class ConnectionLeakDetector implements Closeable {
+
+    public static final String LEAKS_METER_NAME = "datasource.connection.leaks";
+    public static final String LEAKS_METER_DESCRIPTION =
+        "Indicates the count of connections held longer than the leak detection threshold, by endpoint and site.";
+    public static final String SITE_DIMENSION = "site";
+
+    /**
+     * The site of the connections taken out of the code of the application.
+     */
+    public static final String UNKNOWN_SITE = "unknown";
+
+    private static final String APPLICATION_PACKAGE = "com.mycompany.myapp.";
+
+    /**
+     * The packages of the application that only wrap the code taking connections: this one, and the logging aspect.
+     */
+    private static final String[] INFRASTRUCTURE_PACKAGES = {
+        ConnectionLeakDetector.class.getPackageName() + ".",
+        APPLICATION_PACKAGE + "aop.",
+    };
+
+    private final Logger log = LoggerFactory.getLogger(ConnectionLeakDetector.class);
+
+    private final long thresholdNanos;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Borrow> borrows = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService detectExecutor;
+
+    /**
+     * @param threshold the time after which a connection is leaked, the detection being off when 0.
+     * @param meterRegistry the registry of the meters.
+     */
+    public ConnectionLeakDetector(Duration threshold, MeterRegistry meterRegistry) {
+        this.thresholdNanos = threshold.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Look for leaks in the background, twice per threshold.
+     */
+    public synchronized void start() {
+        if (thresholdNanos <= 0 || detectExecutor != null) {
+            return;
+        }
+        detectExecutor =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "datasource-leak-detection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(100), thresholdNanos / 2);
+        detectExecutor.scheduleWithFixedDelay(this::detectLeaks, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (detectExecutor != null) {
+            detectExecutor.shutdownNow();
+            detectExecutor = null;
+        }
+    }
+
+    /**
+     * Follow a connection just taken from a pool.
+     *
+     * @param pool the name of the pool.
+     * @param endpoint the endpoint of the request taking the connection.
+     * @return the borrow, to give back to {@link #returned(Borrow)} when the connection is closed, or {@code null} if the
+     * detection is off.
+     */
+    public Borrow borrowed(String pool, String endpoint) {
+        if (thresholdNanos <= 0) {
+            return null;
+        }
+        Borrow borrow = new Borrow(pool, endpoint);
+        borrows.add(borrow);
+        return borrow;
+    }
+
+    /**
+     * Stop following a connection, closed.
+     *
+     * @param borrow the borrow of the connection.
+     */
+    public void returned(Borrow borrow) {
+        borrows.remove(borrow);
+        if (borrow.leaked) {
+            log.info(
+                "Connection of pool {} reported as leaked was returned after {} ms by {}",
+                borrow.pool,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - borrow.since),
+                borrow.site
+            );
+        }
+    }
+
+    /**
+     * Report the connections that passed the threshold since the last detection.
+     *
+     * @return the number of new leaks.
+     */
+    public int detectLeaks() {
+        int leaks = 0;
+        long now = System.nanoTime();
+        for (Borrow borrow : borrows) {
+            if (borrow.leaked || now - borrow.since <= thresholdNanos) {
+                continue;
+            }
+            borrow.leaked = true;
+            borrow.site = site(borrow.stack.getStackTrace());
+            Counter
+                .builder(LEAKS_METER_NAME)
+                .description(LEAKS_METER_DESCRIPTION)
+                .tags(InstrumentedDataSource.POOL_DIMENSION, borrow.pool, InstrumentedDataSource.ENDPOINT_DIMENSION, borrow.endpoint)
+                .tag(SITE_DIMENSION, borrow.site)
+                .register(meterRegistry)
+                .increment();
+            log.warn(
+                "Connection of pool {} held for more than {} ms by {} on thread {}, endpoint {}",
+                borrow.pool,
+                TimeUnit.NANOSECONDS.toMillis(thresholdNanos),
+                borrow.site,
+                borrow.thread,
+                borrow.endpoint,
+                borrow.stack
+            );
+            leaks++;
+        }
+        return leaks;
+    }
+
+    /**
+     * The first method of the application in a stack, out of the infrastructure packages and of the Spring proxies.
+     */
+    static String site(StackTraceElement[] stack) {
+        for (StackTraceElement element : stack) {
+            String className = element.getClassName();
+            if (className.startsWith(APPLICATION_PACKAGE) && !className.contains("$$") && !isInfrastructure(className)) {
+                return className.substring(className.lastIndexOf('.') + 1) + "." + element.getMethodName();
+            }
+        }
+        return UNKNOWN_SITE;
+    }
+
+    private static boolean isInfrastructure(String className) {
+        for (String infrastructurePackage : INFRASTRUCTURE_PACKAGES) {
+            if (className.startsWith(infrastructurePackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A connection taken from a pool and not closed yet.
+     */
+    public static final class Borrow {
+
+        private final String pool;
+
+        private final String endpoint;
+
+        private final String thread = Thread.currentThread().getName();
+
+        /**
+         * Only turned into stack trace elements if the connection leaks.
+         */
+        private final Throwable stack = new Throwable("Connection taken here");
+
+        private final long since = System.nanoTime();
+
+        private volatile boolean leaked;
+
+        private volatile String site;
+
+        private Borrow(String pool, String endpoint) {
+            this.pool = pool;
+            this.endpoint = endpoint;
+        }
+    }
+}
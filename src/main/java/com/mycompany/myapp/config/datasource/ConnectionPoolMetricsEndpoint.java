@@ -0,0 +1,89 @@
+package com.mycompany.myapp.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import tech.jhipster.config.metric.JHipsterMetricsEndpoint;
+
+/**
+ * The {@code jhimetrics} endpoint, with a {@code connectionPools} section: by pool, its maximum size, its leaks and the
+ * waits and holds of its connections by endpoint.
+ * <p>
+ * The {@code databases} section of JHipster merges the meters of all the pools, and ignores the endpoints.
+ */
+@WebEndpoint(id = "jhimetrics")
+public class ConnectionPoolMetricsEndpoint extends JHipsterMetricsEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionPoolMetricsEndpoint(MeterRegistry meterRegistry) {
+        super(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @ReadOperation
+    public Map<String, Map<?, ?>> allMetrics() {
+        Map<String, Map<?, ?>> results = super.allMetrics();
+        results.put("connectionPools", connectionPoolMetrics());
+        return results;
+    }
+
+    private Map<String, Map<String, Object>> connectionPoolMetrics() {
+        Map<String, Map<String, Object>> pools = new TreeMap<>();
+        for (Gauge gauge : meterRegistry.find("hikaricp.connections.max").gauges()) {
+            pool(pools, gauge.getId().getTag("pool")).put("maximumPoolSize", gauge.value());
+        }
+        for (Gauge gauge : meterRegistry.find("hikaricp.connections.pending").gauges()) {
+            pool(pools, gauge.getId().getTag("pool")).put("pending", gauge.value());
+        }
+        addEndpointTimers(pools, InstrumentedDataSource.WAIT_METER_NAME, "wait");
+        addEndpointTimers(pools, InstrumentedDataSource.HOLD_METER_NAME, "hold");
+        for (Counter counter : meterRegistry.find(ConnectionLeakDetector.LEAKS_METER_NAME).counters()) {
+            Map<String, Double> leaks = child(pool(pools, counter.getId().getTag(InstrumentedDataSource.POOL_DIMENSION)), "leaks");
+            // By site, whatever the endpoint
+            leaks.merge(counter.getId().getTag(ConnectionLeakDetector.SITE_DIMENSION), counter.count(), Double::sum);
+        }
+        return pools;
+    }
+
+    private void addEndpointTimers(Map<String, Map<String, Object>> pools, String meterName, String key) {
+        for (Timer timer : meterRegistry.find(meterName).timers()) {
+            Map<String, Object> pool = pool(pools, timer.getId().getTag(InstrumentedDataSource.POOL_DIMENSION));
+            Map<String, Map<String, Object>> endpoints = child(pool, "endpoints");
+            endpoints
+                .computeIfAbsent(timer.getId().getTag(InstrumentedDataSource.ENDPOINT_DIMENSION), k -> new TreeMap<>())
+                .put(key, timerMetrics(timer));
+        }
+    }
+
+    private static Map<String, Number> timerMetrics(Timer timer) {
+        Map<String, Number> metrics = new HashMap<>();
+        metrics.put("count", timer.count());
+        metrics.put("mean", timer.mean(TimeUnit.MILLISECONDS));
+        metrics.put("max", timer.max(TimeUnit.MILLISECONDS));
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            metrics.put(String.valueOf(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return metrics;
+    }
+
+    private static Map<String, Object> pool(Map<String, Map<String, Object>> pools, String name) {
+        return pools.computeIfAbsent(name, k -> new TreeMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Map<String, V> child(Map<String, Object> parent, String key) {
+        return (Map<String, V>) parent.computeIfAbsent(key, k -> new TreeMap<String, V>());
+    }
+}
@@ -0,0 +1,59 @@
+package com.mycompany.myapp.config.datasource;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The last times waited for a connection of a pool, since they were last read by the {@link PoolSizeController}.
+ * <p>
+ * Recording is lock-free and never allocates: when more than {@value #CAPACITY} waits are recorded between two reads, the
+ * oldest ones are overwritten, which is enough for a percentile.
+ */
+public class ConnectionWaitWindow {
+
+    static final int CAPACITY = 1024;
+
+    private final AtomicLongArray waits = new AtomicLongArray(CAPACITY);
+
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Record the time waited for a connection.
+     *
+     * @param nanos the time waited, in nanoseconds.
+     */
+    public void record(long nanos) {
+        waits.set((int) (count.getAndIncrement() % CAPACITY), nanos);
+    }
+
+    /**
+     * Read the waits recorded since the last read, and start a new window.
+     *
+     * @return the waits, in nanoseconds, sorted.
+     */
+    public long[] drain() {
+        int size = (int) Math.min(count.getAndSet(0), CAPACITY);
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = waits.get(i);
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * The value at a percentile of sorted waits.
+     *
+     * @param sorted the waits, sorted.
+     * @param percentile the percentile, between 0 and 1.
+     * @return the wait at the percentile, 0 if there is none.
+     */
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
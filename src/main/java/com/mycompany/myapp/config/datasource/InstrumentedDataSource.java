@@ -0,0 +1,162 @@
+package com.mycompany.myapp.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * A pool of connections timed by REST endpoint: the time waited for a connection of the pool, and the time it is held
+ * until closed, next to the {@code hikaricp.connections.acquire} and {@code hikaricp.connections.usage} of the whole pool.
+ * <p>
+ * The endpoint is the method and the path pattern of the request mapping of the current thread, so the number of tags
+ * is bounded by the number of endpoints. The waits also feed the {@link PoolSizeController}, if any, and the connections
+ * are followed by the {@link ConnectionLeakDetector}.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    public static final String WAIT_METER_NAME = "datasource.connection.wait";
+    public static final String WAIT_METER_DESCRIPTION = "Indicates the time waited for a connection of the pool, by endpoint.";
+    public static final String HOLD_METER_NAME = "datasource.connection.hold";
+    public static final String HOLD_METER_DESCRIPTION = "Indicates the time a connection of the pool is held, by endpoint.";
+    public static final String POOL_DIMENSION = "pool";
+    public static final String ENDPOINT_DIMENSION = "endpoint";
+
+    /**
+     * The endpoint of the connections taken outside of a request, such as by the scheduled jobs.
+     */
+    public static final String NO_ENDPOINT = "none";
+
+    /**
+     * The endpoint of the connections taken by a request before it is mapped, such as by a filter.
+     */
+    public static final String UNMAPPED_ENDPOINT = "unmapped";
+
+    private final String pool;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConnectionLeakDetector leakDetector;
+
+    private final ConnectionWaitWindow waits = new ConnectionWaitWindow();
+
+    private final ConcurrentMap<String, Timer> waitTimers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Timer> holdTimers = new ConcurrentHashMap<>();
+
+    /**
+     * @param pool the name of the pool, used as the {@code pool} tag of the meters.
+     * @param targetDataSource the pool.
+     * @param meterRegistry the registry of the meters.
+     * @param leakDetector the detector of the connections held too long.
+     */
+    public InstrumentedDataSource(
+        String pool,
+        DataSource targetDataSource,
+        MeterRegistry meterRegistry,
+        ConnectionLeakDetector leakDetector
+    ) {
+        super(targetDataSource);
+        this.pool = pool;
+        this.meterRegistry = meterRegistry;
+        this.leakDetector = leakDetector;
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    public ConnectionWaitWindow getWaits() {
+        return waits;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String endpoint = currentEndpoint();
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = super.getConnection();
+        } finally {
+            // A timeout is the longest of the waits
+            long waited = System.nanoTime() - start;
+            waitTimers
+                .computeIfAbsent(endpoint, e -> timer(WAIT_METER_NAME, WAIT_METER_DESCRIPTION, e))
+                .record(waited, TimeUnit.NANOSECONDS);
+            waits.record(waited);
+        }
+        return track(connection, endpoint);
+    }
+
+    private Timer timer(String name, String description, String endpoint) {
+        return Timer
+            .builder(name)
+            .description(description)
+            .tags(POOL_DIMENSION, pool, ENDPOINT_DIMENSION, endpoint)
+            .register(meterRegistry);
+    }
+
+    private Connection track(Connection connection, String endpoint) {
+        long acquired = System.nanoTime();
+        ConnectionLeakDetector.Borrow borrow = leakDetector.borrowed(pool, endpoint);
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                        if (closed.compareAndSet(false, true)) {
+                            holdTimers
+                                .computeIfAbsent(endpoint, e -> timer(HOLD_METER_NAME, HOLD_METER_DESCRIPTION, e))
+                                .record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+                            if (borrow != null) {
+                                leakDetector.returned(borrow);
+                            }
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            }
+        );
+    }
+
+    /**
+     * The endpoint of the request of the current thread.
+     *
+     * @return the method and path pattern of the endpoint, {@value #UNMAPPED_ENDPOINT} before the request is mapped, or
+     * {@value #NO_ENDPOINT} outside of a request.
+     */
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return NO_ENDPOINT;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNMAPPED_ENDPOINT : request.getMethod() + " " + pattern;
+    }
+}
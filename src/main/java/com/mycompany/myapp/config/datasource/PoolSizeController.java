@@ -0,0 +1,185 @@
+package com.mycompany.myapp.config.datasource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sizes the Hikari pools after the time waited for their connections.
+ * <p>
+ * At each adjustment, a pool whose waits since the previous adjustment are above the target at the percentile grows by a
+ * quarter of its size, so a saturated pool quickly gets the connections it lacks, and a pool without waits and with less
+ * than half of its connections in use shrinks by one, so a burst does not leave the database with connections nobody
+ * uses. The size stays within the bounds. A pool also needs a few waits to grow: a single slow connection, such as the
+ * first one of a new pool, is not a saturation.
+ * <p>
+ * Only the maximum size of a pool is changed: the minimum number of idle connections is lowered to the lower bound, so
+ * Hikari closes the connections of a shrunk pool once they are idle for {@code idleTimeout}.
+ */
+public class PoolSizeController implements Closeable {
+
+    public static final String RESIZES_METER_NAME = "datasource.pool.resizes";
+    public static final String RESIZES_METER_DESCRIPTION = "Indicates the count of changes of the maximum size of the pool, by direction.";
+    public static final String DIRECTION_DIMENSION = "direction";
+
+    /**
+     * Number of waits from which the percentile is meaningful.
+     */
+    static final int MIN_WAITS = 20;
+
+    private final Logger log = LoggerFactory.getLogger(PoolSizeController.class);
+
+    private final int minimumSize;
+
+    private final int maximumSize;
+
+    private final long targetWaitNanos;
+
+    private final double percentile;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<Pool> pools = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService adjustExecutor;
+
+    /**
+     * @param minimumSize the lower bound of the maximum size of the pools.
+     * @param maximumSize the upper bound of the maximum size of the pools.
+     * @param targetWait the wait above which a pool grows.
+     * @param percentile the percentile of the waits compared to the target, between 0 and 1.
+     * @param meterRegistry the registry of the meters.
+     */
+    public PoolSizeController(int minimumSize, int maximumSize, Duration targetWait, double percentile, MeterRegistry meterRegistry) {
+        if (minimumSize < 1 || maximumSize < minimumSize) {
+            throw new IllegalArgumentException("Invalid bounds of the pool sizes: " + minimumSize + " to " + maximumSize);
+        }
+        this.minimumSize = minimumSize;
+        this.maximumSize = maximumSize;
+        this.targetWaitNanos = targetWait.toNanos();
+        this.percentile = percentile;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Size a pool, starting within the bounds.
+     *
+     * @param dataSource the pool.
+     * @param instrumented the pool, as timed by endpoint.
+     */
+    public void register(HikariDataSource dataSource, InstrumentedDataSource instrumented) {
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        config.setMaximumPoolSize(Math.max(minimumSize, Math.min(maximumSize, config.getMaximumPoolSize())));
+        config.setMinimumIdle(Math.min(minimumSize, config.getMaximumPoolSize()));
+        String name = instrumented.getPool();
+        pools.add(new Pool(dataSource, instrumented.getWaits(), resizeCounter(name, "up"), resizeCounter(name, "down")));
+    }
+
+    private Counter resizeCounter(String pool, String direction) {
+        return Counter
+            .builder(RESIZES_METER_NAME)
+            .description(RESIZES_METER_DESCRIPTION)
+            .tags(InstrumentedDataSource.POOL_DIMENSION, pool, DIRECTION_DIMENSION, direction)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Adjust the pools every interval in the background.
+     *
+     * @param interval the delay between two adjustments.
+     */
+    public synchronized void start(Duration interval) {
+        if (adjustExecutor != null) {
+            return;
+        }
+        adjustExecutor =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "datasource-pool-sizing");
+                thread.setDaemon(true);
+                return thread;
+            });
+        adjustExecutor.scheduleWithFixedDelay(this::adjust, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (adjustExecutor != null) {
+            adjustExecutor.shutdownNow();
+            adjustExecutor = null;
+        }
+    }
+
+    /**
+     * Adjust the maximum size of each pool after the waits since the previous adjustment.
+     */
+    public void adjust() {
+        for (Pool pool : pools) {
+            try {
+                adjust(pool);
+            } catch (RuntimeException e) {
+                log.warn("Cannot adjust the size of pool {}: {}", pool.dataSource.getPoolName(), String.valueOf(e));
+            }
+        }
+    }
+
+    private void adjust(Pool pool) {
+        long[] waits = pool.waits.drain();
+        HikariPoolMXBean state = pool.dataSource.getHikariPoolMXBean();
+        if (state == null) {
+            // Not started yet
+            return;
+        }
+        HikariConfigMXBean config = pool.dataSource.getHikariConfigMXBean();
+        int size = config.getMaximumPoolSize();
+        long wait = ConnectionWaitWindow.percentile(waits, percentile);
+        int resized = size;
+        if (waits.length >= MIN_WAITS && wait > targetWaitNanos) {
+            resized = Math.min(maximumSize, size + Math.max(1, size / 4));
+        } else if (wait <= targetWaitNanos / 10 && state.getThreadsAwaitingConnection() == 0 && state.getActiveConnections() < size / 2) {
+            resized = Math.max(minimumSize, size - 1);
+        }
+        if (resized == size) {
+            return;
+        }
+        config.setMaximumPoolSize(resized);
+        (resized > size ? pool.upCounter : pool.downCounter).increment();
+        log.info(
+            "Resized pool {} from {} to {} connections, the {} percentile of its {} last waits being {} ms",
+            pool.dataSource.getPoolName(),
+            size,
+            resized,
+            percentile,
+            waits.length,
+            TimeUnit.NANOSECONDS.toMillis(wait)
+        );
+    }
+
+    private static final class Pool {
+
+        private final HikariDataSource dataSource;
+
+        private final ConnectionWaitWindow waits;
+
+        private final Counter upCounter;
+
+        private final Counter downCounter;
+
+        private Pool(HikariDataSource dataSource, ConnectionWaitWindow waits, Counter upCounter, Counter downCounter) {
+            this.dataSource = dataSource;
+            this.waits = waits;
+            this.upCounter = upCounter;
+            this.downCounter = downCounter;
+        }
+    }
+}
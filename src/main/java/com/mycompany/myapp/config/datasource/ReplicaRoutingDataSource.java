@@ -0,0 +1,420 @@
+package com.mycompany.myapp.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A {@link DataSource} sending the connections of the read-only transactions to the replicas, and all the others to the
+ * primary.
+ * <p>
+ * The transaction is only known once it is started, so this data source must be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}: the connection is then fetched on the first statement, when the read-only flag
+ * of the transaction is set.
+ * <p>
+ * The replicas are used in turn, skipping the ones found unavailable: a replica is unavailable when it cannot give a
+ * connection, or when the last check of {@link #checkReplicas()} found it down or lagging behind the primary by more than
+ * the maximum lag. When no replica is available, the read-only transactions go to the primary.
+ * <p>
+ * The caches are evicted when their entities change, and filled again by the next read: a replica still behind the write
+ * would fill them with the old data, kept until the next eviction. So once a read-write transaction of this node commits
+ * a write, the read-only transactions go to the primary for the maximum lag plus the delay between two checks, after
+ * which the replicas that are still available have the write. A read-write transaction that did not run any
+ * {@code INSERT}, {@code UPDATE} or {@code DELETE} does not divert them. The writes of the other nodes are only known
+ * through the invalidations of their caches, which divert them the same way with {@link #divertReads()}. The reads that
+ * must see the writes of the other nodes before their invalidation arrives, such as the version of an entity about to be
+ * updated, must still run in a read-write transaction.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public static final String CONNECTIONS_METER_NAME = "datasource.routing.connections";
+    public static final String CONNECTIONS_METER_DESCRIPTION =
+        "Indicates the count of connections given by each pool, by transaction type.";
+    public static final String FALLBACKS_METER_NAME = "datasource.routing.fallbacks";
+    public static final String FALLBACKS_METER_DESCRIPTION =
+        "Indicates the count of read-only connections taken from the primary, by reason: a recent write, or no available replica.";
+    public static final String AVAILABLE_METER_NAME = "datasource.replica.available";
+    public static final String AVAILABLE_METER_DESCRIPTION = "Indicates whether the replica receives the read-only transactions.";
+    public static final String LAG_METER_NAME = "datasource.replica.lag";
+    public static final String LAG_METER_DESCRIPTION = "Indicates the replication lag of the replica at its last check.";
+    public static final String POOL_DIMENSION = "pool";
+    public static final String TRANSACTION_DIMENSION = "transaction";
+    public static final String REASON_DIMENSION = "reason";
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final Duration maxLag;
+
+    private final String lagQuery;
+
+    private final Counter primaryReadWriteCounter;
+
+    private final Counter primaryReadOnlyCounter;
+
+    private final Counter recentWriteFallbackCounter;
+
+    private final Counter noReplicaFallbackCounter;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * How long the read-only transactions go to the primary after a committed write, in nanoseconds.
+     */
+    private volatile long readYourWritesNanos;
+
+    /**
+     * The {@link System#nanoTime()} until which the read-only transactions go to the primary.
+     */
+    private volatile long primaryUntil = System.nanoTime();
+
+    private ScheduledExecutorService checkExecutor;
+
+    /**
+     * @param primaryName the name of the primary pool, used as the {@code pool} tag of its meters.
+     * @param primary the primary.
+     * @param replicas the replicas, by pool name, closed with this data source.
+     * @param maxLag the replication lag from which a replica is skipped.
+     * @param lagQuery the query returning the replication lag of a replica in seconds, {@code NULL} when the replication is
+     * stopped; when {@code null}, only the connection to the replicas is checked.
+     * @param meterRegistry the registry of the meters.
+     */
+    public ReplicaRoutingDataSource(
+        String primaryName,
+        DataSource primary,
+        Map<String, DataSource> replicas,
+        Duration maxLag,
+        String lagQuery,
+        MeterRegistry meterRegistry
+    ) {
+        this.primary = primary;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.readYourWritesNanos = maxLag.toNanos();
+        this.primaryReadWriteCounter = connectionCounter(meterRegistry, primaryName, "read-write");
+        this.primaryReadOnlyCounter = connectionCounter(meterRegistry, primaryName, "read-only");
+        this.recentWriteFallbackCounter = fallbackCounter(meterRegistry, "recent-write");
+        this.noReplicaFallbackCounter = fallbackCounter(meterRegistry, "no-replica");
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            Replica replica = new Replica(entry.getKey(), entry.getValue(), connectionCounter(meterRegistry, entry.getKey(), "read-only"));
+            this.replicas.add(replica);
+            Gauge
+                .builder(AVAILABLE_METER_NAME, replica, r -> r.available ? 1 : 0)
+                .description(AVAILABLE_METER_DESCRIPTION)
+                .tag(POOL_DIMENSION, replica.name)
+                .register(meterRegistry);
+            Gauge
+                .builder(LAG_METER_NAME, replica, r -> r.lagSeconds)
+                .description(LAG_METER_DESCRIPTION)
+                .tag(POOL_DIMENSION, replica.name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        }
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String pool, String transaction) {
+        return Counter
+            .builder(CONNECTIONS_METER_NAME)
+            .description(CONNECTIONS_METER_DESCRIPTION)
+            .tags(POOL_DIMENSION, pool, TRANSACTION_DIMENSION, transaction)
+            .register(meterRegistry);
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter
+            .builder(FALLBACKS_METER_NAME)
+            .description(FALLBACKS_METER_DESCRIPTION)
+            .tag(REASON_DIMENSION, reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Check the replicas now, then every interval in the background.
+     *
+     * @param interval the delay between two checks.
+     */
+    public synchronized void start(Duration interval) {
+        if (replicas.isEmpty() || checkExecutor != null) {
+            return;
+        }
+        // A replica checked just before a write may only be checked again after this interval
+        readYourWritesNanos = maxLag.plus(interval).toNanos();
+        checkExecutor =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "datasource-replica-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+        checkExecutor.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop checking the replicas, and close their pools.
+     */
+    @Override
+    public synchronized void close() {
+        if (checkExecutor != null) {
+            checkExecutor.shutdownNow();
+            checkExecutor = null;
+        }
+        for (Replica replica : replicas) {
+            try {
+                if (replica.dataSource.isWrapperFor(Closeable.class)) {
+                    replica.dataSource.unwrap(Closeable.class).close();
+                }
+            } catch (SQLException | IOException e) {
+                log.warn("Cannot close the pool of replica {}: {}", replica.name, String.valueOf(e));
+            }
+        }
+    }
+
+    /**
+     * Check whether each replica can take the read-only transactions: it gives a valid connection and, with a lag query,
+     * lags behind the primary by at most the maximum lag.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                available = connection.isValid(VALIDATION_TIMEOUT_SECONDS) && checkLag(replica, connection);
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Replica {} cannot be reached: {}", replica.name, String.valueOf(e));
+                available = false;
+                replica.lagSeconds = Double.NaN;
+            }
+            if (available != replica.available) {
+                if (available) {
+                    log.info("Replica {} is available again", replica.name);
+                } else {
+                    log.warn("Replica {} is unavailable, its read-only transactions go to the other replicas or the primary", replica.name);
+                }
+            }
+            replica.available = available;
+        }
+    }
+
+    private boolean checkLag(Replica replica, Connection connection) throws SQLException {
+        if (lagQuery == null) {
+            replica.lagSeconds = Double.NaN;
+            return true;
+        }
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            double lag = Double.NaN;
+            if (resultSet.next()) {
+                lag = resultSet.getDouble(1);
+                if (resultSet.wasNull()) {
+                    // The replication is stopped
+                    lag = Double.NaN;
+                }
+            }
+            replica.lagSeconds = lag;
+            return !Double.isNaN(lag) && lag * 1000 <= maxLag.toMillis();
+        } finally {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+        }
+    }
+
+    /**
+     * The availability of each replica at its last check, by pool name.
+     *
+     * @return whether each replica takes read-only transactions.
+     */
+    public Map<String, Boolean> getReplicaAvailability() {
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            availability.put(replica.name, replica.available);
+        }
+        return Collections.unmodifiableMap(availability);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryReadWriteCounter.increment();
+            // The statements run outside of a transaction, such as the health checks, do not write
+            boolean write = !replicas.isEmpty() && TransactionSynchronizationManager.isActualTransactionActive();
+            return write ? trackWrites(primary.getConnection()) : primary.getConnection();
+        }
+        int size = replicas.size();
+        if (size > 0 && System.nanoTime() - primaryUntil < 0) {
+            recentWriteFallbackCounter.increment();
+            primaryReadOnlyCounter.increment();
+            return primary.getConnection();
+        }
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.connectionCounter.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Skipped until its next successful check
+                log.warn("Replica {} cannot give a connection, it is now unavailable: {}", replica.name, String.valueOf(e));
+                replica.available = false;
+            }
+        }
+        if (size > 0) {
+            noReplicaFallbackCounter.increment();
+        }
+        primaryReadOnlyCounter.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Send the read-only transactions to the primary for a while once the connection of a read-write transaction commits
+     * a write.
+     */
+    private Connection trackWrites(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new WriteTracker(connection)
+        );
+    }
+
+    /**
+     * Send the read-only transactions to the primary for a while, as after a write of this node: another node wrote, and
+     * the replicas may not have its write yet.
+     */
+    public void divertReads() {
+        primaryUntil = System.nanoTime() + readYourWritesNanos;
+    }
+
+    /**
+     * Whether a statement run with {@code execute} only reads: the other methods tell it by their name.
+     */
+    static boolean isQuery(String sql) {
+        String trimmed = sql == null ? "" : sql.stripLeading();
+        return trimmed.regionMatches(true, 0, "select", 0, 6) || trimmed.regionMatches(true, 0, "values", 0, 6);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("The pools of the replicas and of the primary have their own credentials");
+    }
+
+    /**
+     * The connection of a read-write transaction, remembering whether its statements wrote since the last commit or
+     * rollback.
+     */
+    private final class WriteTracker implements InvocationHandler {
+
+        private final Connection connection;
+
+        private boolean written;
+
+        private WriteTracker(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            boolean commits = "commit".equals(name) || ("setAutoCommit".equals(name) && Boolean.TRUE.equals(args[0]));
+            if ("rollback".equals(name) && (args == null || args.length == 0)) {
+                written = false;
+            }
+            Object result = ReplicaRoutingDataSource.invoke(connection, method, args);
+            if (commits && written) {
+                written = false;
+                divertReads();
+            }
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { method.getReturnType() },
+                    (statementProxy, statementMethod, statementArgs) -> track(result, sql, statementMethod, statementArgs)
+                );
+            }
+            return result;
+        }
+
+        private Object track(Object statement, String preparedSql, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            boolean writes =
+                name.equals("executeUpdate") ||
+                name.equals("executeLargeUpdate") ||
+                name.equals("executeBatch") ||
+                name.equals("executeLargeBatch") ||
+                (name.equals("execute") && !isQuery(args != null && args.length > 0 ? (String) args[0] : preparedSql));
+            Object result = ReplicaRoutingDataSource.invoke(statement, method, args);
+            if (writes) {
+                written = true;
+                if (connection.getAutoCommit()) {
+                    // Already committed
+                    written = false;
+                    divertReads();
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private final Counter connectionCounter;
+
+        /**
+         * Unknown until the first check: the replica is tried, and marked unavailable if it fails.
+         */
+        private volatile boolean available = true;
+
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource, Counter connectionCounter) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.connectionCounter = connectionCounter;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mycompany.myapp.config.sql;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the SQL statements of each request with the {@link SqlStatementTracker}, by endpoint: the method and the path
+ * pattern of its request mapping, so the number of tags is bounded by the number of endpoints.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    /**
+     * The endpoint of the requests not mapped to a handler, such as the static resources.
+     */
+    public static final String UNMAPPED_ENDPOINT = "unmapped";
+
+    private final SqlStatementTracker sqlStatementTracker;
+
+    public SqlStatementFilter(SqlStatementTracker sqlStatementTracker) {
+        this.sqlStatementTracker = sqlStatementTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        SqlStatementTracker.Scope scope = sqlStatementTracker.openRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlStatementTracker.closeRequest(scope, endpoint(request));
+        }
+    }
+
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNMAPPED_ENDPOINT : request.getMethod() + " " + pattern;
+    }
+}
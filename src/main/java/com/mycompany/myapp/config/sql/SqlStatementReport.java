@@ -0,0 +1,65 @@
+package com.mycompany.myapp.config.sql;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The SQL statements run by a request or a transaction, once it is over.
+ */
+public class SqlStatementReport {
+
+    private final String scope;
+
+    private final String name;
+
+    private final int count;
+
+    private final Map<String, Integer> statements;
+
+    private final Map<String, Integer> repeatedStatements;
+
+    SqlStatementReport(String scope, String name, int count, Map<String, Integer> statements, Map<String, Integer> repeatedStatements) {
+        this.scope = scope;
+        this.name = name;
+        this.count = count;
+        this.statements = Collections.unmodifiableMap(statements);
+        this.repeatedStatements = Collections.unmodifiableMap(repeatedStatements);
+    }
+
+    /**
+     * @return {@value SqlStatementTracker#REQUEST_SCOPE} or {@value SqlStatementTracker#TRANSACTION_SCOPE}.
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * @return the endpoint of the request, or the class and method of the transaction.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of times each statement was run.
+     */
+    public Map<String, Integer> getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the statements run more than {@code application.datasource.statements.max-repeats} times, with their count.
+     */
+    public Map<String, Integer> getRepeatedStatements() {
+        return repeatedStatements;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatementReport{scope=" + scope + ", name=" + name + ", count=" + count + ", statements=" + statements + "}";
+    }
+}
@@ -0,0 +1,250 @@
+package com.mycompany.myapp.config.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Counts the SQL statements Hibernate prepares, by HTTP request and by transaction.
+ * <p>
+ * Each statement is counted in the request of the current thread, opened by the {@link SqlStatementFilter}, and in the
+ * transaction of the current thread, named after its {@code @Transactional} method. When the request or the transaction is
+ * over, its count is recorded in a histogram, and the statements it ran more than {@code maxRepeats} times are logged
+ * and counted: the same statement with other parameters, such as the lazy loading of a collection for each entity of a
+ * page, is the mark of an N+1. A request running more than {@code maxPerRequest} statements is logged too.
+ * <p>
+ * Only the statements of Hibernate are counted, not the ones of a {@code JdbcTemplate}, and only on the thread of the
+ * request: a response streamed from another thread is not.
+ */
+public class SqlStatementTracker {
+
+    public static final String STATEMENTS_METER_NAME = "sql.statements";
+    public static final String STATEMENTS_METER_DESCRIPTION = "Indicates the number of SQL statements run by a request or a transaction.";
+    public static final String REPEATED_METER_NAME = "sql.statements.repeated";
+    public static final String REPEATED_METER_DESCRIPTION =
+        "Indicates the count of SQL statements run more than the maximum number of repeats by a request or a transaction.";
+    public static final String OVER_BUDGET_METER_NAME = "sql.statements.over-budget";
+    public static final String OVER_BUDGET_METER_DESCRIPTION = "Indicates the count of requests running more SQL statements than allowed.";
+    public static final String SCOPE_DIMENSION = "scope";
+    public static final String NAME_DIMENSION = "name";
+
+    public static final String REQUEST_SCOPE = "request";
+    public static final String TRANSACTION_SCOPE = "transaction";
+
+    /**
+     * The name of the transactions without a name, such as the ones started with a {@code TransactionTemplate}.
+     */
+    public static final String UNNAMED_TRANSACTION = "unnamed";
+
+    private final Logger log = LoggerFactory.getLogger(SqlStatementTracker.class);
+
+    private final int maxPerRequest;
+
+    private final int maxRepeats;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ThreadLocal<Scope> requestScope = new ThreadLocal<>();
+
+    private final ConcurrentMap<List<String>, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    private final List<Consumer<SqlStatementReport>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param maxPerRequest the number of statements a request may run before it is logged.
+     * @param maxRepeats the number of times a request or transaction may run the same statement before it is logged.
+     * @param meterRegistry the registry of the meters.
+     */
+    public SqlStatementTracker(int maxPerRequest, int maxRepeats, MeterRegistry meterRegistry) {
+        this.maxPerRequest = maxPerRequest;
+        this.maxRepeats = maxRepeats;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Count a statement prepared by Hibernate, as a {@code StatementInspector}.
+     *
+     * @param sql the statement, with its parameters as placeholders.
+     */
+    public void record(String sql) {
+        Scope request = requestScope.get();
+        if (request != null) {
+            request.record(sql);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionScope().record(sql);
+        }
+    }
+
+    private Scope transactionScope() {
+        TransactionScope transactionScope = (TransactionScope) TransactionSynchronizationManager.getResource(this);
+        if (transactionScope == null) {
+            // The first statement of the transaction: a transaction suspended by a REQUIRES_NEW one is not counted meanwhile
+            transactionScope = new TransactionScope(this);
+            TransactionSynchronizationManager.bindResource(this, transactionScope);
+            TransactionSynchronizationManager.registerSynchronization(transactionScope);
+        }
+        return transactionScope.scope;
+    }
+
+    /**
+     * Start counting the statements of the request of the current thread.
+     *
+     * @return the scope to give back to {@link #closeRequest(Scope, String)}, or {@code null} if a request is already
+     * counted on the current thread.
+     */
+    public Scope openRequest() {
+        if (requestScope.get() != null) {
+            return null;
+        }
+        Scope scope = new Scope();
+        requestScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Stop counting the statements of the request of the current thread, and report them.
+     *
+     * @param scope the scope returned by {@link #openRequest()}.
+     * @param endpoint the endpoint of the request.
+     */
+    public void closeRequest(Scope scope, String endpoint) {
+        if (scope == null) {
+            return;
+        }
+        requestScope.remove();
+        SqlStatementReport report = report(REQUEST_SCOPE, endpoint, scope);
+        if (report.getCount() > maxPerRequest) {
+            Counter
+                .builder(OVER_BUDGET_METER_NAME)
+                .description(OVER_BUDGET_METER_DESCRIPTION)
+                .tag(NAME_DIMENSION, endpoint)
+                .register(meterRegistry)
+                .increment();
+            log.warn("Request {} ran {} SQL statements, over its budget of {}", endpoint, report.getCount(), maxPerRequest);
+        }
+    }
+
+    private SqlStatementReport report(String scopeName, String name, Scope scope) {
+        summaries
+            .computeIfAbsent(
+                Arrays.asList(scopeName, name),
+                key ->
+                    DistributionSummary
+                        .builder(STATEMENTS_METER_NAME)
+                        .description(STATEMENTS_METER_DESCRIPTION)
+                        .tags(SCOPE_DIMENSION, scopeName, NAME_DIMENSION, name)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1d)
+                        .maximumExpectedValue(1000d)
+                        .register(meterRegistry)
+            )
+            .record(scope.count);
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        scope.statements.forEach((sql, count) -> {
+            if (count > maxRepeats) {
+                repeated.put(sql, count);
+            }
+        });
+        if (!repeated.isEmpty()) {
+            Counter
+                .builder(REPEATED_METER_NAME)
+                .description(REPEATED_METER_DESCRIPTION)
+                .tags(SCOPE_DIMENSION, scopeName, NAME_DIMENSION, name)
+                .register(meterRegistry)
+                .increment(repeated.size());
+            repeated.forEach((sql, count) -> log.warn("The {} {} ran {} times a statement, a likely N+1: {}", scopeName, name, count, sql));
+        }
+        SqlStatementReport report = new SqlStatementReport(scopeName, name, scope.count, scope.statements, repeated);
+        for (Consumer<SqlStatementReport> listener : listeners) {
+            listener.accept(report);
+        }
+        return report;
+    }
+
+    /**
+     * Be told of the statements of each request and transaction, once over, on its thread.
+     *
+     * @param listener the listener.
+     */
+    public void addListener(Consumer<SqlStatementReport> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<SqlStatementReport> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * The class and method of a transaction named after its {@code @Transactional} method, such as
+     * {@code UserService.getAllManagedUsers} for {@code com.mycompany.myapp.service.UserService.getAllManagedUsers}.
+     */
+    static String transactionName(String name) {
+        if (name == null) {
+            return UNNAMED_TRANSACTION;
+        }
+        int method = name.lastIndexOf('.');
+        return method < 0 ? name : name.substring(name.lastIndexOf('.', method - 1) + 1);
+    }
+
+    /**
+     * The statements of a request or a transaction, only read and written by its thread.
+     */
+    public static final class Scope {
+
+        private final Map<String, Integer> statements = new HashMap<>();
+
+        private int count;
+
+        private void record(String sql) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * The statements of a transaction, reported on its completion. Bound to the transaction as a resource keyed by the
+     * tracker, and unbound while the transaction is suspended.
+     */
+    private static final class TransactionScope implements TransactionSynchronization {
+
+        private final SqlStatementTracker tracker;
+
+        private final String name = transactionName(TransactionSynchronizationManager.getCurrentTransactionName());
+
+        private final Scope scope = new Scope();
+
+        private TransactionScope(SqlStatementTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(tracker);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(tracker, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(tracker);
+            tracker.report(TRANSACTION_SCOPE, name, scope);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.mycompany.myapp.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serializable;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 /**
  * A Hero.
@@ -16,8 +19,21 @@ public class Hero implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // A pooled table generator, rather than IDENTITY, lets Hibernate batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "heroIdGenerator")
+    @GenericGenerator(
+        name = "heroIdGenerator",
+        strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+        parameters = {
+            @Parameter(name = "sequence_name", value = "hero_sequence"),
+            @Parameter(name = "force_table_use", value = "true"),
+            @Parameter(name = "increment_size", value = "" + ID_ALLOCATION_SIZE),
+            @Parameter(name = "optimizer", value = "pooled-lo"),
+        }
+    )
     @Column(name = "id")
     private Long id;
 
@@ -26,6 +42,12 @@ public class Hero implements Serializable {
     @Column(name = "name", nullable = false, unique = true)
     private String name;
 
+    // Sent as the ETag of the hero rather than in its body
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -54,6 +76,14 @@ public class Hero implements Serializable {
         this.name = name;
     }
 
+    public long getVersion() {
+        return this.version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
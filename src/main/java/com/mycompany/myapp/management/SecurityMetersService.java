@@ -13,16 +13,35 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String TOKEN_CACHE_METER_NAME = "security.authentication.token-cache";
+    public static final String TOKEN_CACHE_METER_DESCRIPTION = "Indicates the hit and miss count of the validated tokens cache.";
+    public static final String TOKEN_CACHE_METER_RESULT_DIMENSION = "result";
+
+    public static final String TOKEN_CACHE_EVICTIONS_METER_NAME = "security.authentication.token-cache.evictions";
+    public static final String TOKEN_CACHE_EVICTIONS_METER_DESCRIPTION =
+        "Indicates the count of tokens evicted from the validated tokens cache.";
+    public static final String TOKEN_CACHE_EVICTIONS_METER_CAUSE_DIMENSION = "cause";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
 
+    private final Counter tokenCacheHitCounter;
+    private final Counter tokenCacheMissCounter;
+    private final Counter tokenCacheExpiredEvictionCounter;
+    private final Counter tokenCacheSizeEvictionCounter;
+
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+
+        this.tokenCacheHitCounter = tokenCacheCounterForResultBuilder("hit").register(registry);
+        this.tokenCacheMissCounter = tokenCacheCounterForResultBuilder("miss").register(registry);
+        this.tokenCacheExpiredEvictionCounter = tokenCacheEvictionsCounterForCauseBuilder("expired").register(registry);
+        this.tokenCacheSizeEvictionCounter = tokenCacheEvictionsCounterForCauseBuilder("size").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +52,20 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder tokenCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(TOKEN_CACHE_METER_NAME)
+            .description(TOKEN_CACHE_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    private Counter.Builder tokenCacheEvictionsCounterForCauseBuilder(String cause) {
+        return Counter
+            .builder(TOKEN_CACHE_EVICTIONS_METER_NAME)
+            .description(TOKEN_CACHE_EVICTIONS_METER_DESCRIPTION)
+            .tag(TOKEN_CACHE_EVICTIONS_METER_CAUSE_DIMENSION, cause);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +81,20 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenCacheHit() {
+        this.tokenCacheHitCounter.increment();
+    }
+
+    public void trackTokenCacheMiss() {
+        this.tokenCacheMissCounter.increment();
+    }
+
+    public void trackTokenCacheExpiredEvictions(int count) {
+        this.tokenCacheExpiredEvictionCounter.increment(count);
+    }
+
+    public void trackTokenCacheSizeEvictions(int count) {
+        this.tokenCacheSizeEvictionCounter.increment(count);
+    }
 }
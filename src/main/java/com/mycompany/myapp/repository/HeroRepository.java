@@ -1,12 +1,71 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Hero;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data SQL repository for the Hero entity.
+ * <p>
+ * The {@code findAllBy*} methods taking a {@link Pageable} back keyset (seek) pagination: they are meant to be called
+ * with a first-page {@link Pageable} so no OFFSET and no {@code count(*)} query is issued, whatever the depth.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface HeroRepository extends JpaRepository<Hero, Long> {}
+public interface HeroRepository extends JpaRepository<Hero, Long>, JpaSpecificationExecutor<Hero> {
+    String HERO_PAGES_CACHE = "heroPages";
+
+    String STREAM_FETCH_SIZE = "1000";
+
+    List<Hero> findAllByNameIn(Collection<String> names);
+
+    List<Hero> findAllBy(Pageable pageable);
+
+    List<Hero> findAllByIdGreaterThan(Long id, Pageable pageable);
+
+    List<Hero> findAllByIdLessThan(Long id, Pageable pageable);
+
+    List<Hero> findAllByNameGreaterThan(String name, Pageable pageable);
+
+    List<Hero> findAllByNameLessThan(String name, Pageable pageable);
+
+    @Query("select hero.id from Hero hero order by hero.id")
+    List<Long> findIds(Pageable pageable);
+
+    /**
+     * Find the names of some heroes, read from the database rather than from the second-level cache.
+     *
+     * @param ids the ids of the heroes.
+     * @return the id and the name of each hero found.
+     */
+    @Query("select hero.id, hero.name from Hero hero where hero.id in :ids")
+    List<Object[]> findIdAndNameByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select hero.version from Hero hero where hero.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Stream all the heroes, ordered by id, without filling the second-level cache nor tracking them for dirty checking.
+     * <p>
+     * Must be consumed inside a transaction, and closed once done.
+     *
+     * @return the stream of heroes.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE, value = "MANUAL"),
+        }
+    )
+    @Query("select hero from Hero hero order by hero.id")
+    Stream<Hero> streamAllBy();
+}
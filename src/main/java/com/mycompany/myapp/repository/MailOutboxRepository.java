@@ -0,0 +1,50 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.MailOutboxMessage;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutboxMessage} entity.
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutboxMessage, Long> {
+    @Query(
+        "select m.id from MailOutboxMessage m where m.status in :statuses and m.nextAttemptAt <= :now order by m.nextAttemptAt"
+    )
+    List<Long> findDueIds(@Param("statuses") Collection<MailOutboxMessage.Status> statuses, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Claim the messages that are still due: a message claimed meanwhile by another sender has moved its next attempt
+     * time to the end of its claim, so it is not claimed twice.
+     *
+     * @return the number of messages claimed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        "update MailOutboxMessage m set m.status = :claimedStatus, m.claimedBy = :claim, m.nextAttemptAt = :claimedUntil " +
+        "where m.id in :ids and m.status in :statuses and m.nextAttemptAt <= :now"
+    )
+    int claim(
+        @Param("ids") Collection<Long> ids,
+        @Param("statuses") Collection<MailOutboxMessage.Status> statuses,
+        @Param("now") Instant now,
+        @Param("claimedStatus") MailOutboxMessage.Status claimedStatus,
+        @Param("claim") String claim,
+        @Param("claimedUntil") Instant claimedUntil
+    );
+
+    List<MailOutboxMessage> findAllByClaimedByAndStatusOrderById(String claimedBy, MailOutboxMessage.Status status);
+
+    long countByStatus(MailOutboxMessage.Status status);
+
+    Optional<MailOutboxMessage> findFirstByStatusOrderByCreatedDate(MailOutboxMessage.Status status);
+}
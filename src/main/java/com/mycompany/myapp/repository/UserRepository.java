@@ -2,12 +2,15 @@ package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -20,6 +23,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
+
+    /**
+     * Get the keys of the not activated users created before a date, ordered by id, starting after a given id: called with a
+     * first-page {@link Pageable}, this walks them chunk by chunk without OFFSET.
+     */
+    @Query(
+        "select user.id as id, user.login as login, user.email as email from User user" +
+        " where user.activated = false and user.activationKey is not null and user.createdDate < :createdBefore" +
+        " and user.id > :afterId" +
+        " order by user.id"
+    )
+    List<UserKeys> findNotActivatedUserKeys(
+        @Param("createdBefore") Instant createdBefore,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
     Optional<User> findOneByResetKey(String resetKey);
     Optional<User> findOneByEmailIgnoreCase(String email);
     Optional<User> findOneByLogin(String login);
@@ -32,5 +52,99 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
-    Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+    /**
+     * Get a page of the users, with only the columns shown to an admin: not the password hash and the keys, nor the
+     * authorities, see {@link #findAuthorityNamesByUserIdIn(Collection)}.
+     */
+    @Query(
+        value = "select user.id as id, user.login as login, user.firstName as firstName, user.lastName as lastName," +
+        " user.email as email, user.imageUrl as imageUrl, user.activated as activated, user.langKey as langKey," +
+        " user.createdBy as createdBy, user.createdDate as createdDate," +
+        " user.lastModifiedBy as lastModifiedBy, user.lastModifiedDate as lastModifiedDate" +
+        " from User user",
+        countQuery = "select count(user) from User user"
+    )
+    Page<AdminUserView> findAllAdminUserViews(Pageable pageable);
+
+    /**
+     * Get a page of the activated users, with only their public columns.
+     */
+    @Query(
+        value = "select user.id as id, user.login as login from User user where user.activated = true",
+        countQuery = "select count(user) from User user where user.activated = true"
+    )
+    Page<PublicUserView> findAllActivatedPublicUserViews(Pageable pageable);
+
+    /**
+     * Get the authorities of a page of users in one query, rather than one per user.
+     */
+    @Query(
+        "select user.id as userId, authority.name as authorityName from User user join user.authorities authority" +
+        " where user.id in :userIds"
+    )
+    List<UserAuthorityName> findAuthorityNamesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("select user.id from User user where user.activated = true order by user.lastModifiedDate desc")
+    List<Long> findActivatedUserIdsByLastModifiedDate(Pageable pageable);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByIdIn(Collection<Long> ids);
+
+    /**
+     * The columns of a {@link User} its cache entries are keyed by.
+     */
+    interface UserKeys {
+        Long getId();
+
+        String getLogin();
+
+        String getEmail();
+    }
+
+    /**
+     * The columns of a {@link User} shown to an admin.
+     */
+    interface AdminUserView {
+        Long getId();
+
+        String getLogin();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getEmail();
+
+        String getImageUrl();
+
+        boolean isActivated();
+
+        String getLangKey();
+
+        String getCreatedBy();
+
+        Instant getCreatedDate();
+
+        String getLastModifiedBy();
+
+        Instant getLastModifiedDate();
+    }
+
+    /**
+     * The public columns of a {@link User}.
+     */
+    interface PublicUserView {
+        Long getId();
+
+        String getLogin();
+    }
+
+    /**
+     * A row of the authorities of the users.
+     */
+    interface UserAuthorityName {
+        Long getUserId();
+
+        String getAuthorityName();
+    }
 }
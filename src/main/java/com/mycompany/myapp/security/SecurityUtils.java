@@ -1,5 +1,6 @@
 package com.mycompany.myapp.security;
 
+import com.mycompany.myapp.security.jwt.JWTAuthentication;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -29,6 +30,9 @@ public final class SecurityUtils {
     private static String extractPrincipal(Authentication authentication) {
         if (authentication == null) {
             return null;
+        } else if (authentication instanceof JWTAuthentication) {
+            // Does not decode the authorities of the token
+            return authentication.getName();
         } else if (authentication.getPrincipal() instanceof UserDetails) {
             UserDetails springSecurityUser = (UserDetails) authentication.getPrincipal();
             return springSecurityUser.getUsername();
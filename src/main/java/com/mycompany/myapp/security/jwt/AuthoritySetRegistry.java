@@ -0,0 +1,96 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Registry of the immutable authority lists decoded from the {@code auth} claim of the tokens.
+ * <p>
+ * Tokens only carry a handful of distinct {@code auth} claims, so the list of a claim is built once, the first time it is
+ * seen, and then shared by all the authentications of the tokens carrying it. The lists of the combinations of
+ * {@link AuthoritiesConstants} are built upfront.
+ */
+public final class AuthoritySetRegistry {
+
+    private static final char SEPARATOR = ',';
+
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
+    private final Map<String, GrantedAuthority> authoritiesByName = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    /**
+     * @param maxSize the maximum number of distinct claims kept, the lists of the other claims are built on every call.
+     */
+    public AuthoritySetRegistry(int maxSize) {
+        this.maxSize = maxSize;
+        get("");
+        get(AuthoritiesConstants.USER);
+        get(AuthoritiesConstants.ADMIN);
+        get(AuthoritiesConstants.ADMIN + SEPARATOR + AuthoritiesConstants.USER);
+        get(AuthoritiesConstants.USER + SEPARATOR + AuthoritiesConstants.ADMIN);
+    }
+
+    /**
+     * Get the authorities of an {@code auth} claim.
+     *
+     * @param claim the comma-separated authority names.
+     * @return the immutable list of the authorities, the same instance for equal claims.
+     */
+    public List<GrantedAuthority> get(String claim) {
+        List<GrantedAuthority> authorities = authoritiesByClaim.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = decode(claim);
+        if (authoritiesByClaim.size() < maxSize) {
+            List<GrantedAuthority> previous = authoritiesByClaim.putIfAbsent(claim, authorities);
+            if (previous != null) {
+                return previous;
+            }
+        }
+        return authorities;
+    }
+
+    int size() {
+        return authoritiesByClaim.size();
+    }
+
+    private List<GrantedAuthority> decode(String claim) {
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        int start = 0;
+        while (start <= claim.length()) {
+            int end = claim.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = claim.length();
+            }
+            String name = claim.substring(start, end);
+            if (!name.trim().isEmpty()) {
+                authorities.add(intern(name));
+            }
+            start = end + 1;
+        }
+        if (authorities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(authorities);
+    }
+
+    private GrantedAuthority intern(String name) {
+        GrantedAuthority authority = authoritiesByName.get(name);
+        if (authority == null) {
+            if (authoritiesByName.size() >= maxSize) {
+                return new SimpleGrantedAuthority(name);
+            }
+            authority = authoritiesByName.computeIfAbsent(name, SimpleGrantedAuthority::new);
+        }
+        return authority;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mycompany.myapp.security.jwt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * {@link Authentication} of a token whose signature has been verified.
+ * <p>
+ * Only the login is read upfront: the authorities and the {@link User} principal are decoded from the {@code auth} claim
+ * the first time they are needed, so requests that only need {@link #getName()} do not pay for them.
+ * <p>
+ * An authentication is used by a single request: the cached one of a token is handed out through {@link #copy()}, so
+ * {@link #setAuthenticated(boolean)} on one request does not revoke the token for the others.
+ */
+public final class JWTAuthentication implements Authentication {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String login;
+
+    private final String token;
+
+    private final String authoritiesClaim;
+
+    private final transient AuthoritySetRegistry authoritySetRegistry;
+
+    // Decoded lazily; a copy made before the first decoding decodes them again, which is idempotent
+    private transient volatile List<GrantedAuthority> authorities;
+
+    private transient volatile User principal;
+
+    private volatile boolean authenticated = true;
+
+    JWTAuthentication(String login, String token, String authoritiesClaim, AuthoritySetRegistry authoritySetRegistry) {
+        this.login = login;
+        this.token = token;
+        this.authoritiesClaim = authoritiesClaim;
+        this.authoritySetRegistry = authoritySetRegistry;
+    }
+
+    /**
+     * @return a new, authenticated, instance for the same token, sharing the authorities and principal decoded so far:
+     * both are immutable.
+     */
+    JWTAuthentication copy() {
+        JWTAuthentication copy = new JWTAuthentication(login, token, authoritiesClaim, authoritySetRegistry);
+        copy.authorities = authorities;
+        copy.principal = principal;
+        return copy;
+    }
+
+    @Override
+    public String getName() {
+        return login;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        List<GrantedAuthority> result = authorities;
+        if (result == null) {
+            AuthoritySetRegistry registry = authoritySetRegistry != null ? authoritySetRegistry : new AuthoritySetRegistry(0);
+            result = registry.get(authoritiesClaim);
+            authorities = result;
+        }
+        return result;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        User result = principal;
+        if (result == null) {
+            result = new User(login, "", getAuthorities());
+            principal = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return the token, as {@code SecurityUtils.getCurrentUserJWT()} expects it.
+     */
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("Cannot set this token to trusted, it is trusted once its signature has been verified");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JWTAuthentication)) {
+            return false;
+        }
+        return token.equals(((JWTAuthentication) o).token);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(token);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JWTAuthentication{" +
+            "login='" + login + '\'' +
+            ", authorities='" + authoritiesClaim + '\'' +
+            "}";
+    }
+}
@@ -4,9 +4,23 @@ import org.springframework.security.config.annotation.SecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.DefaultSecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
 
+    /**
+     * Requests permitted to all whose token is not parsed: the login, and the health probes.
+     * <p>
+     * {@code /management/health} itself is not skipped, as it shows the health details to the admins.
+     */
+    public static final RequestMatcher TOKEN_IGNORED_REQUESTS = new OrRequestMatcher(
+        new AntPathRequestMatcher("/api/authenticate", "POST"),
+        new AntPathRequestMatcher("/management/health/liveness"),
+        new AntPathRequestMatcher("/management/health/readiness")
+    );
+
     private final TokenProvider tokenProvider;
 
     public JWTConfigurer(TokenProvider tokenProvider) {
@@ -15,7 +29,7 @@ public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 
     @Override
     public void configure(HttpSecurity http) {
-        JWTFilter customFilter = new JWTFilter(tokenProvider);
+        JWTFilter customFilter = new JWTFilter(tokenProvider, TOKEN_IGNORED_REQUESTS);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
@@ -0,0 +1,141 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.mycompany.myapp.management.SecurityMetersService;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of the {@link JWTAuthentication} of already validated tokens.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, see {@link #key(String)}, so the cache does not keep the tokens
+ * themselves, and expire when their token does: a cached token is never accepted after its {@code exp} claim. Each hit
+ * returns a {@link JWTAuthentication#copy() copy} of the cached authentication, so requests do not share its state.
+ */
+class TokenAuthenticationCache {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final int maxSize;
+
+    private final SecurityMetersService securityMetersService;
+
+    TokenAuthenticationCache(int maxSize, SecurityMetersService securityMetersService) {
+        this.maxSize = maxSize;
+        this.securityMetersService = securityMetersService;
+    }
+
+    /**
+     * The key of a token, computed once by the caller for both {@link #get(String)} and, on a miss,
+     * {@link #put(String, JWTAuthentication, long)}.
+     *
+     * @param token the token.
+     * @return the Base64 SHA-256 digest of the token.
+     */
+    static String key(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Get the authentication of a token.
+     *
+     * @param key the key of the token.
+     * @return a copy of the cached authentication, or {@code null} if the token is not cached or has expired.
+     */
+    JWTAuthentication get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            securityMetersService.trackTokenCacheMiss();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, entry)) {
+                securityMetersService.trackTokenCacheExpiredEvictions(1);
+            }
+            securityMetersService.trackTokenCacheMiss();
+            return null;
+        }
+        securityMetersService.trackTokenCacheHit();
+        return entry.authentication.copy();
+    }
+
+    /**
+     * Cache the authentication of a validated token.
+     *
+     * @param key the key of the token.
+     * @param authentication its authentication.
+     * @param expiresAtMillis the expiration time of the token, in milliseconds since the epoch.
+     */
+    void put(String key, JWTAuthentication authentication, long expiresAtMillis) {
+        // Only one thread makes room, the others go on: the cache can briefly exceed its size by the number of threads
+        if (entries.size() >= maxSize && evictionLock.tryLock()) {
+            try {
+                makeRoom();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        entries.put(key, new Entry(authentication, expiresAtMillis));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove the expired entries and, if the cache is still full, a tenth of the remaining ones.
+     */
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+                expired++;
+            }
+        }
+        securityMetersService.trackTokenCacheExpiredEvictions(expired);
+        if (entries.size() >= maxSize) {
+            int evicted = 0;
+            int toEvict = Math.max(1, maxSize / 10);
+            iterator = entries.values().iterator();
+            while (iterator.hasNext() && evicted < toEvict) {
+                iterator.next();
+                iterator.remove();
+                evicted++;
+            }
+            securityMetersService.trackTokenCacheSizeEvictions(evicted);
+        }
+    }
+
+    private static final class Entry {
+
+        private final JWTAuthentication authentication;
+
+        private final long expiresAtMillis;
+
+        private Entry(JWTAuthentication authentication, long expiresAtMillis) {
+            this.authentication = authentication;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
+    }
+}
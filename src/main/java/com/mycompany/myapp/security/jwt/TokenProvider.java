@@ -11,11 +11,8 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import tech.jhipster.config.JHipsterProperties;
@@ -29,6 +26,10 @@ public class TokenProvider {
 
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
+    private static final int TOKEN_CACHE_MAX_SIZE = 10_000;
+
+    private static final int AUTHORITY_SETS_MAX_SIZE = 256;
+
     private final Key key;
 
     private final JwtParser jwtParser;
@@ -39,6 +40,10 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+
+    private final AuthoritySetRegistry authoritySetRegistry = new AuthoritySetRegistry(AUTHORITY_SETS_MAX_SIZE);
+
     public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
@@ -60,6 +65,7 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.tokenAuthenticationCache = new TokenAuthenticationCache(TOKEN_CACHE_MAX_SIZE, securityMetersService);
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -84,23 +90,47 @@ public class TokenProvider {
 
     public Authentication getAuthentication(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return createAuthentication(claims, token);
+    }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
+    /**
+     * Validate a token and get its authentication.
+     * <p>
+     * This is what {@link #validateToken(String)} followed by {@link #getAuthentication(String)} do, but the token is
+     * parsed and its signature verified only once: the authentication is then cached until the token expires.
+     *
+     * @param token the token.
+     * @return the authentication, or an empty {@link Optional} if the token is not valid.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        String key = TokenAuthenticationCache.key(token);
+        JWTAuthentication cached = tokenAuthenticationCache.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return Optional.empty();
+        }
+        JWTAuthentication authentication = createAuthentication(claims, token);
+        if (claims.getExpiration() != null) {
+            // The cache keeps its own copy: this one belongs to the request
+            tokenAuthenticationCache.put(key, authentication.copy(), claims.getExpiration().getTime());
+        }
+        return Optional.of(authentication);
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    private JWTAuthentication createAuthentication(Claims claims, String token) {
+        return new JWTAuthentication(claims.getSubject(), token, claims.get(AUTHORITIES_KEY).toString(), authoritySetRegistry);
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return parseClaims(authToken) != null;
+    }
 
-            return true;
+    private Claims parseClaims(String authToken) {
+        try {
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
@@ -121,6 +151,6 @@ public class TokenProvider {
             log.error("Token validation error {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 }
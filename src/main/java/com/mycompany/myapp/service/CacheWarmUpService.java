@@ -0,0 +1,218 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.HeroRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service loading the heroes and the users most likely to be read in the caches, once the application is started.
+ * <p>
+ * The ids to load are read first, then loaded in batches of {@code application.cache.warm-up.batch-size}, up to
+ * {@code application.cache.warm-up.parallelism} batches at the same time, each in its own read-only transaction: loading
+ * them puts them in the second-level cache, and the users are also put in {@link UserRepository#USERS_BY_LOGIN_CACHE}. The
+ * readiness group waits for the warm-up, see {@link #health()}.
+ */
+@Service
+public class CacheWarmUpService {
+
+    public static final String PROGRESS_METER_NAME = "cache.warmup.progress";
+    public static final String PROGRESS_METER_DESCRIPTION = "Indicates the ratio of the entities of the cache warm-up already loaded.";
+    public static final String DURATION_METER_NAME = "cache.warmup.duration";
+    public static final String DURATION_METER_DESCRIPTION = "Indicates the time taken by the cache warm-up.";
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final HeroRepository heroRepository;
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationProperties.Cache.WarmUp properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer durationTimer;
+
+    private final AtomicLong planned = new AtomicLong();
+
+    private final AtomicLong loaded = new AtomicLong();
+
+    private volatile long startedAtNanos;
+
+    private volatile boolean started;
+
+    private volatile boolean finished;
+
+    public CacheWarmUpService(
+        HeroRepository heroRepository,
+        UserRepository userRepository,
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.heroRepository = heroRepository;
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.properties = applicationProperties.getCache().getWarmUp();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.durationTimer = Timer.builder(DURATION_METER_NAME).description(DURATION_METER_DESCRIPTION).register(meterRegistry);
+        Gauge
+            .builder(PROGRESS_METER_NAME, this, CacheWarmUpService::getProgress)
+            .description(PROGRESS_METER_DESCRIPTION)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start the warm-up in the background once the application is started, so after the database migrations.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "cache-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Load the heroes and the users in the caches, and return once they are all loaded.
+     */
+    public void warmUp() {
+        startedAtNanos = System.nanoTime();
+        started = true;
+        finished = false;
+        loaded.set(0);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), newThreadFactory());
+        try {
+            List<Long> heroIds = readIds(() -> heroRepository.findIds(PageRequest.of(0, Math.max(1, properties.getHeroes()))));
+            List<Long> userIds = readIds(() ->
+                userRepository.findActivatedUserIdsByLastModifiedDate(PageRequest.of(0, Math.max(1, properties.getUsers())))
+            );
+            planned.set((long) heroIds.size() + userIds.size());
+            log.debug("Warming up the caches with {} heroes and {} users", heroIds.size(), userIds.size());
+
+            List<Future<?>> batches = new ArrayList<>();
+            submitBatches(executor, heroIds, this::loadHeroes, batches);
+            submitBatches(executor, userIds, this::loadUsers, batches);
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+            log.info("Warmed up the caches with {} entities in {} ms", loaded.get(), Duration.ofNanos(elapsedNanos()).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.warn("Cache warm-up stopped after {} entities: {}", loaded.get(), String.valueOf(cause));
+        } finally {
+            executor.shutdownNow();
+            durationTimer.record(Duration.ofNanos(elapsedNanos()));
+            finished = true;
+        }
+    }
+
+    private List<Long> readIds(Supplier<List<Long>> query) {
+        List<Long> ids = transactionTemplate.execute(status -> query.get());
+        return ids == null ? Collections.emptyList() : ids;
+    }
+
+    private void submitBatches(ExecutorService executor, List<Long> ids, Consumer<List<Long>> loader, List<Future<?>> batches) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            batches.add(executor.submit(() -> loader.accept(batch)));
+        }
+    }
+
+    private void loadHeroes(List<Long> ids) {
+        Integer count = transactionTemplate.execute(status -> heroRepository.findAllById(ids).size());
+        loaded.addAndGet(count == null ? 0 : count);
+    }
+
+    private void loadUsers(List<Long> ids) {
+        List<User> users = transactionTemplate.execute(status -> userRepository.findAllWithAuthoritiesByIdIn(ids));
+        if (users == null) {
+            return;
+        }
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        // The entries cached by UserRepository#findOneWithAuthoritiesByLogin since the ids were read are as fresh
+        users.forEach(user -> usersByLogin.putIfAbsent(user.getLogin(), user));
+        loaded.addAndGet(users.size());
+    }
+
+    /**
+     * The ratio of the entities to load that are loaded, 1 once the warm-up is finished.
+     */
+    public double getProgress() {
+        long plannedCount = planned.get();
+        if (finished) {
+            return 1;
+        }
+        return plannedCount == 0 ? 0 : Math.min(1, (double) loaded.get() / plannedCount);
+    }
+
+    /**
+     * The health of the warm-up: UP once the {@code application.cache.warm-up.threshold} is reached, the warm-up is
+     * finished, or has run for longer than {@code application.cache.warm-up.timeout}; OUT_OF_SERVICE before.
+     */
+    public Health health() {
+        if (!properties.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        boolean ready =
+            finished ||
+            (started && getProgress() >= properties.getThreshold()) ||
+            (started && elapsedNanos() >= properties.getTimeout().toNanos());
+        return (ready ? Health.up() : Health.outOfService())
+            .withDetail("planned", planned.get())
+            .withDetail("loaded", loaded.get())
+            .withDetail("finished", finished)
+            .build();
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startedAtNanos;
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,265 @@
+package com.mycompany.myapp.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable radix trie of the names of the heroes, for prefix suggestions.
+ * <p>
+ * The names are sorted by their key (the normalized name, see {@link HeroSearchIndex#normalize(String)}), so the names
+ * under a node of the trie are a range of the sorted array: a lookup walks the prefix down the trie, then returns the start
+ * of that range. The nodes are stored in five {@code int} arrays, their children next to each other sorted by first
+ * character, and the edge labels in a single {@code char} array, in the order of the nodes: there is no object per node.
+ */
+public final class HeroNameTrie {
+
+    private static final HeroNameTrie EMPTY = of(List.of());
+
+    private final String[] names;
+
+    private final char[] labels;
+
+    /**
+     * Start of the label of each node in {@link #labels}, plus the end of the last one: a label ends where the next starts.
+     */
+    private final int[] labelStart;
+
+    private final int[] firstChild;
+
+    private final int[] childCount;
+
+    private final int[] rangeStart;
+
+    private final int[] rangeEnd;
+
+    private final int nodeCount;
+
+    private HeroNameTrie(String[] names, char[] labels, Nodes nodes) {
+        this.names = names;
+        this.labels = labels;
+        this.nodeCount = nodes.count;
+        this.labelStart = Arrays.copyOf(nodes.labelStart, nodeCount + 1);
+        this.labelStart[nodeCount] = labels.length;
+        this.firstChild = Arrays.copyOf(nodes.firstChild, nodeCount);
+        this.childCount = Arrays.copyOf(nodes.childCount, nodeCount);
+        this.rangeStart = Arrays.copyOf(nodes.rangeStart, nodeCount);
+        this.rangeEnd = Arrays.copyOf(nodes.rangeEnd, nodeCount);
+    }
+
+    /**
+     * @return a trie without names.
+     */
+    public static HeroNameTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a trie.
+     *
+     * @param names the names of the heroes.
+     * @return the trie of the names.
+     */
+    public static HeroNameTrie of(Iterable<String> names) {
+        List<Entry> entries = new ArrayList<>();
+        for (String name : names) {
+            String key = HeroSearchIndex.normalize(name);
+            if (!key.isEmpty()) {
+                entries.add(new Entry(key, name));
+            }
+        }
+        entries.sort(Comparator.<Entry, String>comparing(entry -> entry.key).thenComparing(entry -> entry.name));
+        String[] keys = new String[entries.size()];
+        String[] sortedNames = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i).key;
+            sortedNames[i] = entries.get(i).name;
+        }
+
+        // A radix trie has at most one leaf and one branching node per key, plus the root
+        Nodes nodes = new Nodes(2 * keys.length + 1);
+        StringBuilder labels = new StringBuilder();
+        int root = nodes.add(0, 0, keys.length);
+        buildChildren(root, keys, 0, keys.length, 0, nodes, labels);
+        return new HeroNameTrie(sortedNames, labels.toString().toCharArray(), nodes);
+    }
+
+    /**
+     * Add the children of a node, whose keys are {@code keys[from, to)} and share their first {@code depth} characters.
+     */
+    private static void buildChildren(int node, String[] keys, int from, int to, int depth, Nodes nodes, StringBuilder labels) {
+        // Keys ending at this node sort first
+        int start = from;
+        while (start < to && keys[start].length() == depth) {
+            start++;
+        }
+        List<int[]> groups = new ArrayList<>();
+        for (int groupStart = start; groupStart < to;) {
+            char c = keys[groupStart].charAt(depth);
+            int groupEnd = groupStart + 1;
+            while (groupEnd < to && keys[groupEnd].charAt(depth) == c) {
+                groupEnd++;
+            }
+            groups.add(new int[] { groupStart, groupEnd });
+            groupStart = groupEnd;
+        }
+        if (groups.isEmpty()) {
+            return;
+        }
+        // The children are allocated together, so they can be binary searched
+        int first = nodes.count;
+        int[] labelEnds = new int[groups.size()];
+        for (int g = 0; g < groups.size(); g++) {
+            int[] group = groups.get(g);
+            // The keys are sorted, so the prefix shared by the group is the one of its first and last keys
+            labelEnds[g] = depth + commonPrefixLength(keys[group[0]], keys[group[1] - 1], depth);
+            nodes.add(labels.length(), group[0], group[1]);
+            labels.append(keys[group[0]], depth, labelEnds[g]);
+        }
+        nodes.firstChild[node] = first;
+        nodes.childCount[node] = groups.size();
+        for (int g = 0; g < groups.size(); g++) {
+            int[] group = groups.get(g);
+            buildChildren(first + g, keys, group[0], group[1], labelEnds[g], nodes, labels);
+        }
+    }
+
+    private static int commonPrefixLength(String a, String b, int from) {
+        int length = 0;
+        while (from + length < a.length() && from + length < b.length() && a.charAt(from + length) == b.charAt(from + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Suggest names for a prefix.
+     *
+     * @param prefix the prefix, normalized like the names.
+     * @param limit the maximum number of names to return.
+     * @return the names whose key starts with the prefix, in the order of their keys.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = HeroSearchIndex.normalize(prefix);
+        int node = find(key);
+        if (node < 0 || key.isEmpty()) {
+            return List.of();
+        }
+        int end = Math.min(rangeEnd[node], rangeStart[node] + limit);
+        return List.of(Arrays.copyOfRange(names, rangeStart[node], end));
+    }
+
+    /**
+     * Count the names for a prefix.
+     *
+     * @param prefix the prefix, normalized like the names.
+     * @return the number of names whose key starts with the prefix.
+     */
+    public int count(String prefix) {
+        int node = find(HeroSearchIndex.normalize(prefix));
+        return node < 0 ? 0 : rangeEnd[node] - rangeStart[node];
+    }
+
+    /**
+     * The node under which all the keys start with a key, or {@code -1}.
+     */
+    private int find(String key) {
+        int node = 0;
+        int depth = 0;
+        while (depth < key.length()) {
+            node = child(node, key.charAt(depth));
+            if (node < 0) {
+                return -1;
+            }
+            for (int i = labelStart[node]; i < labelStart[node + 1] && depth < key.length(); i++, depth++) {
+                if (labels[i] != key.charAt(depth)) {
+                    return -1;
+                }
+            }
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char first = labels[labelStart[middle]];
+            if (first < c) {
+                low = middle + 1;
+            } else if (first > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of names.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the number of nodes, root included.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return an estimate of the memory used by the trie, in bytes, not counting the names, shared with the rest of the
+     * application.
+     */
+    public long getEstimatedBytes() {
+        // Five int arrays of nodes, the labels, and a reference per name
+        return 5L * Integer.BYTES * nodeCount + (long) Character.BYTES * labels.length + 4L * names.length;
+    }
+
+    private static final class Entry {
+
+        private final String key;
+
+        private final String name;
+
+        private Entry(String key, String name) {
+            this.key = key;
+            this.name = name;
+        }
+    }
+
+    private static final class Nodes {
+
+        private final int[] labelStart;
+
+        private final int[] firstChild;
+
+        private final int[] childCount;
+
+        private final int[] rangeStart;
+
+        private final int[] rangeEnd;
+
+        private int count;
+
+        private Nodes(int capacity) {
+            labelStart = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            rangeStart = new int[capacity];
+            rangeEnd = new int[capacity];
+        }
+
+        private int add(int start, int from, int to) {
+            labelStart[count] = start;
+            rangeStart[count] = from;
+            rangeEnd[count] = to;
+            return count++;
+        }
+    }
+}
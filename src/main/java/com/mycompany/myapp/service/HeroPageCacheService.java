@@ -0,0 +1,416 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service caching the pages of {@link Hero} returned by {@code GET /api/heroes}.
+ * <p>
+ * Only the ids of a page are cached, in the {@link HeroRepository#HERO_PAGES_CACHE} region: the heroes themselves are
+ * resolved through the entity manager, so they come from the {@link Hero} second-level cache region, the others being
+ * loaded together in one query. Writes evict only the pages they can change, both immediately and once their transaction is
+ * committed: the pages and counts cached by this node are indexed by key, so an eviction does not read the whole region.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HeroPageCacheService {
+
+    public static final String PAGE_CACHE_METER_NAME = "cache.hero-pages.requests";
+    public static final String PAGE_CACHE_METER_DESCRIPTION = "Indicates the hit and miss count of the hero page cache.";
+    public static final String PAGE_CACHE_METER_RESULT_DIMENSION = "result";
+    public static final String PAGE_CACHE_EVICTIONS_METER_NAME = "cache.hero-pages.evictions";
+    public static final String PAGE_CACHE_EVICTIONS_METER_DESCRIPTION = "Indicates the count of hero pages evicted by writes.";
+
+    private static final String TOTAL_KEY = "total";
+
+    private static final String ID = "id";
+
+    private final Logger log = LoggerFactory.getLogger(HeroPageCacheService.class);
+
+    private final HeroRepository heroRepository;
+
+    private final EntityManager entityManager;
+
+    private final CacheManager cacheManager;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final Counter evictionCounter;
+
+    /**
+     * Incremented on every eviction, so a page read before a write is not cached after that write evicted it.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The pages cached by this node, by key. Put in the cache first, so an indexed key is in the cache unless it was evicted
+     * since, or expired: those are dropped from the index by the next eviction.
+     */
+    private final Map<Object, CachedPage> pages = new ConcurrentHashMap<>();
+
+    /**
+     * The counts of filtered heroes cached by this node, by key, indexed as the pages.
+     */
+    private final Map<Object, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public HeroPageCacheService(
+        HeroRepository heroRepository,
+        EntityManager entityManager,
+        CacheManager cacheManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.heroRepository = heroRepository;
+        this.entityManager = entityManager;
+        this.cacheManager = cacheManager;
+        this.hitCounter = pageCacheCounterForResultBuilder("hit").register(meterRegistry);
+        this.missCounter = pageCacheCounterForResultBuilder("miss").register(meterRegistry);
+        this.evictionCounter =
+            Counter.builder(PAGE_CACHE_EVICTIONS_METER_NAME).description(PAGE_CACHE_EVICTIONS_METER_DESCRIPTION).register(meterRegistry);
+    }
+
+    private Counter.Builder pageCacheCounterForResultBuilder(String result) {
+        return Counter
+            .builder(PAGE_CACHE_METER_NAME)
+            .description(PAGE_CACHE_METER_DESCRIPTION)
+            .tag(PAGE_CACHE_METER_RESULT_DIMENSION, result);
+    }
+
+    /**
+     * Get a page of heroes, from the cache if possible.
+     * <p>
+     * An unsorted {@link Pageable} is sorted by id, so the order of the heroes is stable and shares the cache entries of
+     * {@code sort=id,asc}.
+     *
+     * @param pageable the pagination information.
+     * @return the page of heroes.
+     */
+    public Page<Hero> findAll(Pageable pageable) {
+        return findAll(null, null, pageable);
+    }
+
+    /**
+     * Get a page of the heroes matching a specification, from the cache if possible.
+     * <p>
+     * The pages of filtered heroes are cached under the key of their criteria, and evicted by any write, as a write can
+     * make a hero match or stop matching them.
+     *
+     * @param criteriaKey the normalized key of the criteria the specification is built from.
+     * @param specification the specification the heroes match.
+     * @param pageable the pagination information.
+     * @return the page of heroes.
+     */
+    public Page<Hero> findAll(String criteriaKey, Specification<Hero> specification, Pageable pageable) {
+        Pageable normalized = normalize(pageable);
+        String key = toKey(criteriaKey, normalized);
+        Cache cache = getCache();
+        long readGeneration = generation.get();
+        CachedPage cachedPage = cache.get(key, CachedPage.class);
+        if (cachedPage != null) {
+            List<Hero> heroes = resolve(cachedPage.getIds());
+            if (heroes != null) {
+                hitCounter.increment();
+                return new PageImpl<>(heroes, normalized, getTotal(cache, criteriaKey, specification, readGeneration));
+            }
+        }
+        missCounter.increment();
+        Page<Hero> page = specification == null ? heroRepository.findAll(normalized) : heroRepository.findAll(specification, normalized);
+        if (readGeneration == generation.get()) {
+            Sort.Order order = normalized.getSort().iterator().next();
+            ArrayList<Long> ids = page.getContent().stream().map(Hero::getId).collect(Collectors.toCollection(ArrayList::new));
+            CachedPage pageToCache = new CachedPage(
+                ids,
+                normalized.getPageSize(),
+                order.getProperty(),
+                order.getDirection(),
+                criteriaKey != null
+            );
+            cache.put(key, pageToCache);
+            pages.put(key, pageToCache);
+            putTotal(cache, criteriaKey, page.getTotalElements());
+        }
+        return page;
+    }
+
+    /**
+     * Count the heroes, from the cache if possible.
+     *
+     * @return the number of heroes.
+     */
+    public long count() {
+        return getTotal(getCache(), null, null, generation.get());
+    }
+
+    /**
+     * Count the heroes matching a specification, from the cache if possible.
+     *
+     * @param criteriaKey the normalized key of the criteria the specification is built from.
+     * @param specification the specification the heroes match.
+     * @return the number of matching heroes.
+     */
+    public long count(String criteriaKey, Specification<Hero> specification) {
+        return getTotal(getCache(), criteriaKey, specification, generation.get());
+    }
+
+    /**
+     * Evict the pages a created hero can appear in, or shift: the pages sorted by id ending after it, the pages that are not
+     * full, and all the pages sorted on another property.
+     *
+     * @param hero the created hero.
+     */
+    public void evictOnCreate(Hero hero) {
+        Long id = hero.getId();
+        evict(true, page -> !page.isSortedById() || page.isPartial() || page.endsAfter(id));
+    }
+
+    /**
+     * Evict the pages an updated hero can move in or out of: the ids of the pages sorted by id do not change, their content is
+     * refreshed from the second-level cache.
+     *
+     * @param hero the updated hero.
+     */
+    public void evictOnUpdate(Hero hero) {
+        log.trace("Evicting the hero pages affected by the update of Hero {}", hero.getId());
+        evict(false, page -> !page.isSortedById());
+    }
+
+    /**
+     * Evict the pages a deleted hero was in, or shifts: the pages sorted by id ending after it, and all the pages sorted on
+     * another property.
+     *
+     * @param id the id of the deleted hero.
+     */
+    public void evictOnDelete(Long id) {
+        evict(true, page -> !page.isSortedById() || page.endsAfter(id) || page.getIds().contains(id));
+    }
+
+    /**
+     * Evict all the pages.
+     */
+    public void clear() {
+        evict(true, page -> true);
+    }
+
+    private void evict(boolean countChanged, Predicate<CachedPage> affected) {
+        evictNow(countChanged, affected);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evictNow(countChanged, affected);
+                    }
+                }
+            );
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictNow(boolean countChanged, Predicate<CachedPage> affected) {
+        generation.incrementAndGet();
+        javax.cache.Cache<Object, Object> nativeCache = (javax.cache.Cache<Object, Object>) getCache().getNativeCache();
+        Map<Object, CachedPage> evictedPages = new HashMap<>();
+        pages.forEach((key, page) -> {
+            if (page.isFiltered() || affected.test(page)) {
+                evictedPages.put(key, page);
+            } else if (!nativeCache.containsKey(key)) {
+                // Evicted by another node, or expired
+                pages.remove(key, page);
+            }
+        });
+        Map<Object, CachedCount> evictedCounts = new HashMap<>(counts);
+        Set<Object> keys = new HashSet<>(evictedPages.keySet());
+        keys.addAll(evictedCounts.keySet());
+        if (countChanged) {
+            keys.add(TOTAL_KEY);
+        }
+        nativeCache.removeAll(keys);
+        // Only the entries evicted here: a page cached again meanwhile is another entry, which stays indexed
+        evictedPages.forEach(pages::remove);
+        evictedCounts.forEach(counts::remove);
+        evictionCounter.increment(keys.size());
+        log.trace("Evicted {} hero pages", keys.size());
+    }
+
+    private long getTotal(Cache cache, String criteriaKey, Specification<Hero> specification, long readGeneration) {
+        String key = toTotalKey(criteriaKey);
+        if (criteriaKey == null) {
+            Long total = cache.get(key, Long.class);
+            if (total != null) {
+                return total;
+            }
+        } else {
+            CachedCount cachedCount = cache.get(key, CachedCount.class);
+            if (cachedCount != null) {
+                return cachedCount.getCount();
+            }
+        }
+        // Creates and deletes only evict the total, not the pages they do not shift
+        long total = specification == null ? heroRepository.count() : heroRepository.count(specification);
+        if (readGeneration == generation.get()) {
+            putTotal(cache, criteriaKey, total);
+        }
+        return total;
+    }
+
+    private void putTotal(Cache cache, String criteriaKey, long total) {
+        String key = toTotalKey(criteriaKey);
+        if (criteriaKey == null) {
+            cache.put(key, total);
+        } else {
+            CachedCount count = new CachedCount(total);
+            cache.put(key, count);
+            counts.put(key, count);
+        }
+    }
+
+    /**
+     * The heroes of a cached page: from the second-level cache region, and the others loaded with one query.
+     *
+     * @return the heroes, in the order of the ids, or {@code null} if one of them no longer exists.
+     */
+    private List<Hero> resolve(List<Long> ids) {
+        javax.persistence.Cache secondLevelCache = entityManager.getEntityManagerFactory().getCache();
+        Map<Long, Hero> heroesById = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            if (secondLevelCache.contains(Hero.class, id)) {
+                heroesById.put(id, entityManager.find(Hero.class, id));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            heroRepository.findAllById(missingIds).forEach(hero -> heroesById.put(hero.getId(), hero));
+        }
+        List<Hero> heroes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Hero hero = heroesById.get(id);
+            if (hero == null) {
+                // Deleted by a transaction whose eviction has not happened yet
+                return null;
+            }
+            heroes.add(hero);
+        }
+        return heroes;
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(HeroRepository.HERO_PAGES_CACHE));
+    }
+
+    private static Pageable normalize(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(ID);
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private static String toKey(String criteriaKey, Pageable pageable) {
+        String key = "page=" + pageable.getPageNumber() + ",size=" + pageable.getPageSize() + ",sort=" + pageable.getSort();
+        return criteriaKey == null ? key : "criteria=" + criteriaKey + ";" + key;
+    }
+
+    private static String toTotalKey(String criteriaKey) {
+        return criteriaKey == null ? TOTAL_KEY : "criteria=" + criteriaKey + ";" + TOTAL_KEY;
+    }
+
+    /**
+     * The ids of a cached page, with what is needed to know which writes affect it.
+     */
+    static class CachedPage implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ArrayList<Long> ids;
+
+        private final int pageSize;
+
+        private final String sortProperty;
+
+        private final Sort.Direction direction;
+
+        private final boolean filtered;
+
+        CachedPage(ArrayList<Long> ids, int pageSize, String sortProperty, Sort.Direction direction, boolean filtered) {
+            this.ids = ids;
+            this.pageSize = pageSize;
+            this.sortProperty = sortProperty;
+            this.direction = direction;
+            this.filtered = filtered;
+        }
+
+        List<Long> getIds() {
+            return ids;
+        }
+
+        boolean isSortedById() {
+            return ID.equals(sortProperty);
+        }
+
+        boolean isFiltered() {
+            return filtered;
+        }
+
+        boolean isPartial() {
+            return ids.size() < pageSize;
+        }
+
+        /**
+         * Whether a hero with the given id is sorted before the last hero of this page, when this page is sorted by id.
+         */
+        boolean endsAfter(Long id) {
+            if (ids.isEmpty()) {
+                return true;
+            }
+            Long lastId = ids.get(ids.size() - 1);
+            return direction.isAscending() ? id < lastId : id > lastId;
+        }
+    }
+
+    /**
+     * The number of heroes matching some criteria.
+     */
+    static class CachedCount implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long count;
+
+        CachedCount(long count) {
+            this.count = count;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
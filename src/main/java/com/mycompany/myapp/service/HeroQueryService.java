@@ -0,0 +1,296 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.*; // for static metamodels
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.service.criteria.HeroCriteria;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.RangeFilter;
+
+/**
+ * Service for executing complex queries for {@link Hero} entities in the database.
+ * The main input is a {@link HeroCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} of {@link Hero} or a count of them, cached per criteria by {@link HeroPageCacheService}.
+ * <p>
+ * Only the {@code id} (primary key) and {@code name} (unique) columns are indexed, so the criteria are checked before
+ * being run: the predicates that can seek an index ({@code id.equals}, {@code id.in}, the {@code id} ranges,
+ * {@code name.equals}, {@code name.in} and {@code name.startsWith}) are run as they are, the ones that can only scan
+ * ({@code name.contains}, {@code name.doesNotContain} and the negations) are only accepted next to a seekable one, which
+ * narrows the rows they are checked on. An {@code id} range only narrows them when bounded on both sides, to at most
+ * {@value #MAX_SEEK_RANGE} ids: {@code id.greaterThan=0} seeks, but to scan the whole table. The predicates that are
+ * always true or always false on these {@code NOT NULL} columns are rewritten away.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HeroQueryService extends QueryService<Hero> {
+
+    private static final String ENTITY_NAME = "hero";
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Maximum number of ids an {@code id} range may span to narrow the rows of a predicate that can only scan.
+     */
+    static final long MAX_SEEK_RANGE = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(HeroQueryService.class);
+
+    private final HeroPageCacheService heroPageCacheService;
+
+    public HeroQueryService(HeroPageCacheService heroPageCacheService) {
+        this.heroPageCacheService = heroPageCacheService;
+    }
+
+    /**
+     * Return a {@link Page} of {@link Hero} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     * @throws UnindexedCriteriaException if none of the filters can use an index.
+     */
+    public Page<Hero> findByCriteria(HeroCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        Optional<HeroCriteria> rewritten = rewrite(criteria);
+        if (rewritten.isEmpty()) {
+            return Page.empty(page);
+        }
+        String key = toKey(rewritten.get());
+        if (key.isEmpty()) {
+            return heroPageCacheService.findAll(page);
+        }
+        return heroPageCacheService.findAll(key, createSpecification(rewritten.get()), page);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     * @throws UnindexedCriteriaException if none of the filters can use an index.
+     */
+    public long countByCriteria(HeroCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        Optional<HeroCriteria> rewritten = rewrite(criteria);
+        if (rewritten.isEmpty()) {
+            return 0;
+        }
+        String key = toKey(rewritten.get());
+        if (key.isEmpty()) {
+            return heroPageCacheService.count();
+        }
+        return heroPageCacheService.count(key, createSpecification(rewritten.get()));
+    }
+
+    /**
+     * Rewrite the criteria into the ones the database can run with an index.
+     *
+     * @param criteria the criteria.
+     * @return the equivalent criteria, or empty if no hero can match them.
+     * @throws UnindexedCriteriaException if the criteria can only be run by scanning the table.
+     */
+    Optional<HeroCriteria> rewrite(HeroCriteria criteria) {
+        HeroCriteria rewritten = criteria.copy();
+        // Heroes have no relationship to join, so their rows are always distinct
+        rewritten.setDistinct(null);
+        HeroCriteria.NameFilter name = rewritten.getName();
+        if (name != null && name.getStartsWith() != null && name.getStartsWith().isEmpty()) {
+            name.setStartsWith(null);
+        }
+        if (name != null && name.getContains() != null && name.getContains().isEmpty()) {
+            name.setContains(null);
+        }
+        // id and name are NOT NULL: specified=true matches every hero, specified=false none
+        for (Filter<?> filter : new Filter<?>[] { rewritten.getId(), name }) {
+            if (filter != null && filter.getSpecified() != null) {
+                if (!filter.getSpecified()) {
+                    return Optional.empty();
+                }
+                filter.setSpecified(null);
+            }
+        }
+        List<String> scans = getScanPredicates(rewritten);
+        if (!scans.isEmpty() && !hasSeekPredicate(rewritten)) {
+            throw new UnindexedCriteriaException(
+                ENTITY_NAME,
+                String.join(", ", scans) +
+                " cannot use an index: add an id.equals, id.in, name.equals, name.in or name.startsWith filter, " +
+                "or an id range of at most " +
+                MAX_SEEK_RANGE +
+                " ids, or use /api/heroes/_search"
+            );
+        }
+        return Optional.of(rewritten);
+    }
+
+    private static boolean hasSeekPredicate(HeroCriteria criteria) {
+        RangeFilter<Long> id = criteria.getId();
+        HeroCriteria.NameFilter name = criteria.getName();
+        boolean idSeek = id != null && (id.getEquals() != null || id.getIn() != null || isNarrowRange(id));
+        boolean nameSeek = name != null && (name.getEquals() != null || name.getIn() != null || name.getStartsWith() != null);
+        return idSeek || nameSeek;
+    }
+
+    /**
+     * Whether an id range is bounded on both sides and spans at most {@value #MAX_SEEK_RANGE} ids.
+     */
+    private static boolean isNarrowRange(RangeFilter<Long> id) {
+        Long lower = max(id.getGreaterThan(), id.getGreaterThanOrEqual());
+        Long upper = min(id.getLessThan(), id.getLessThanOrEqual());
+        if (lower == null || upper == null) {
+            return false;
+        }
+        // Unsigned, so the width of a range from a negative id to a large one does not overflow
+        return upper < lower || Long.compareUnsigned(upper - lower, MAX_SEEK_RANGE) <= 0;
+    }
+
+    private static Long max(Long a, Long b) {
+        return a == null ? b : b == null ? a : Long.valueOf(Math.max(a, b));
+    }
+
+    private static Long min(Long a, Long b) {
+        return a == null ? b : b == null ? a : Long.valueOf(Math.min(a, b));
+    }
+
+    private static List<String> getScanPredicates(HeroCriteria criteria) {
+        List<String> scans = new ArrayList<>();
+        RangeFilter<Long> id = criteria.getId();
+        if (id != null && id.getNotEquals() != null) {
+            scans.add("id.notEquals");
+        }
+        if (id != null && id.getNotIn() != null) {
+            scans.add("id.notIn");
+        }
+        HeroCriteria.NameFilter name = criteria.getName();
+        if (name != null && name.getContains() != null) {
+            // A leading wildcard LIKE, on the upper-cased name
+            scans.add("name.contains");
+        }
+        if (name != null && name.getDoesNotContain() != null) {
+            scans.add("name.doesNotContain");
+        }
+        if (name != null && name.getNotEquals() != null) {
+            scans.add("name.notEquals");
+        }
+        if (name != null && name.getNotIn() != null) {
+            scans.add("name.notIn");
+        }
+        return scans;
+    }
+
+    /**
+     * The key of rewritten criteria: the filters in a fixed order, with their lists sorted and without duplicates, so the
+     * same criteria written differently share their cache entries.
+     *
+     * @param criteria the rewritten criteria.
+     * @return the key, empty if the criteria do not filter anything.
+     */
+    static String toKey(HeroCriteria criteria) {
+        List<String> parts = new ArrayList<>();
+        RangeFilter<Long> id = criteria.getId();
+        if (id != null) {
+            addPart(parts, "id.equals", id.getEquals());
+            addPart(parts, "id.in", sorted(id.getIn(), String::valueOf));
+            addPart(parts, "id.greaterThan", id.getGreaterThan());
+            addPart(parts, "id.greaterThanOrEqual", id.getGreaterThanOrEqual());
+            addPart(parts, "id.lessThan", id.getLessThan());
+            addPart(parts, "id.lessThanOrEqual", id.getLessThanOrEqual());
+            addPart(parts, "id.notEquals", id.getNotEquals());
+            addPart(parts, "id.notIn", sorted(id.getNotIn(), String::valueOf));
+        }
+        HeroCriteria.NameFilter name = criteria.getName();
+        if (name != null) {
+            addPart(parts, "name.equals", name.getEquals());
+            addPart(parts, "name.in", sorted(name.getIn(), QueryKey::encode));
+            addPart(parts, "name.startsWith", name.getStartsWith());
+            // Matched ignoring case
+            addPart(parts, "name.contains", name.getContains() == null ? null : name.getContains().toUpperCase());
+            addPart(parts, "name.doesNotContain", name.getDoesNotContain() == null ? null : name.getDoesNotContain().toUpperCase());
+            addPart(parts, "name.notEquals", name.getNotEquals());
+            addPart(parts, "name.notIn", sorted(name.getNotIn(), QueryKey::encode));
+        }
+        return String.join("&", parts);
+    }
+
+    private static void addPart(List<String> parts, String filter, Object value) {
+        if (value != null) {
+            parts.add(filter + "=" + (value instanceof QueryKey ? value : QueryKey.encode(String.valueOf(value))));
+        }
+    }
+
+    private static <X extends Comparable<? super X>> QueryKey sorted(List<X> values, Function<X, String> encoder) {
+        if (values == null) {
+            return null;
+        }
+        return new QueryKey(new TreeSet<>(values).stream().map(encoder).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Function to convert {@link HeroCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Hero> createSpecification(HeroCriteria criteria) {
+        Specification<Hero> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Hero_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Hero_.name));
+                if (criteria.getName().getStartsWith() != null) {
+                    specification = specification.and(startsWithSpecification(criteria.getName().getStartsWith()));
+                }
+            }
+        }
+        return specification;
+    }
+
+    /**
+     * A {@code LIKE 'prefix%'} on the name as it is stored, so the database can range scan the index of the name, unlike
+     * {@code name.contains} which upper-cases the name and has a leading wildcard.
+     */
+    private Specification<Hero> startsWithSpecification(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(root.get(Hero_.name), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * A part of a key already encoded.
+     */
+    private static final class QueryKey {
+
+        private final String value;
+
+        private QueryKey(String value) {
+            this.value = value;
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,824 @@
+package com.mycompany.myapp.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index of the names of the heroes.
+ * <p>
+ * Names are normalized (lower case, without accents, words separated by a single space) and indexed three ways:
+ * <ul>
+ *   <li>by word, in a sorted map, to find the names with a word starting with each word of the query;</li>
+ *   <li>by trigram of the whole name, to find the names containing the query anywhere;</li>
+ *   <li>by trigram of each distinct word, to find the words within a small edit distance of a word of the query.</li>
+ * </ul>
+ * Searches do not lock and may run while the index is updated: the posting lists are arrays, replaced rather than
+ * modified, except for the entries appended past the end of the views already published. Updates are serialized.
+ */
+public final class HeroSearchIndex {
+
+    /**
+     * Maximum number of heroes returned by a search: broader queries only return the first ones.
+     */
+    public static final int MAX_MATCHES = 10_000;
+
+    /**
+     * Number of matches past which a search does not look for the names containing the query, nor for the names with a
+     * typo.
+     */
+    public static final int FALLBACK_THRESHOLD = 1_000;
+
+    private static final int GRAM = 3;
+
+    private static final char WORD_BOUNDARY = '$';
+
+    private static final int MAX_VIEWS_PER_WORD = 64;
+
+    private static final long MAX_BITSET_SPAN = 1L << 24;
+
+    private final ConcurrentHashMap<Long, String> normalizedNames = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<String, Postings> words = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<String, Postings> nameTrigrams = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, WordList> wordTrigrams = new ConcurrentHashMap<>();
+
+    /**
+     * Index a hero, or re-index it if its name changed.
+     *
+     * @param id the id of the hero.
+     * @param name the name of the hero.
+     */
+    public synchronized void put(long id, String name) {
+        String normalized = normalize(name);
+        String previous = normalizedNames.get(id);
+        if (normalized.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        normalizedNames.put(id, normalized);
+        for (String word : splitWords(normalized)) {
+            words
+                .computeIfAbsent(
+                    word,
+                    key -> {
+                        trigrams(WORD_BOUNDARY + key + WORD_BOUNDARY).forEach(trigram ->
+                            wordTrigrams.computeIfAbsent(trigram, t -> new WordList()).add(key)
+                        );
+                        return new Postings();
+                    }
+                )
+                .add(id);
+        }
+        for (String trigram : trigrams(normalized)) {
+            nameTrigrams.computeIfAbsent(trigram, key -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Remove a hero from the index.
+     *
+     * @param id the id of the hero.
+     */
+    public synchronized void remove(long id) {
+        String previous = normalizedNames.remove(id);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+    }
+
+    private void unindex(long id, String normalized) {
+        for (String word : splitWords(normalized)) {
+            Postings postings = words.get(word);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                words.remove(word);
+                for (String trigram : trigrams(WORD_BOUNDARY + word + WORD_BOUNDARY)) {
+                    WordList trigramWords = wordTrigrams.get(trigram);
+                    if (trigramWords != null && trigramWords.remove(word) && trigramWords.isEmpty()) {
+                        wordTrigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+        for (String trigram : trigrams(normalized)) {
+            Postings postings = nameTrigrams.get(trigram);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                nameTrigrams.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * @return the number of heroes indexed.
+     */
+    public int size() {
+        return normalizedNames.size();
+    }
+
+    /**
+     * Search the heroes whose name matches a query, best matches first: the names where each word of the query starts a
+     * word, then the names containing the query, then the names where each word of the query starts a word or is within
+     * one edit (two for words of 8 characters or more) of a word. In each group, the names equal to the query come first,
+     * then the names starting with it, then the others.
+     * <p>
+     * The names containing the query, and then the names with a typo, are only searched while fewer than
+     * {@value #FALLBACK_THRESHOLD} heroes matched: they would only come after all of them, and searching them is what
+     * makes the broad queries slow.
+     *
+     * @param query the query.
+     * @return the ids of the first {@value #MAX_MATCHES} matching heroes, and the number of matching heroes.
+     */
+    public Matches search(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Matches.NONE;
+        }
+        String[] queryWords = splitWords(normalized);
+        Set<Long> matches = new LinkedHashSet<>();
+
+        List<WordMatch> prefixMatches = new ArrayList<>();
+        for (String queryWord : queryWords) {
+            prefixMatches.add(prefixMatch(queryWord));
+        }
+        long total = addRanked(matches, intersect(prefixMatches, false, matches), normalized);
+
+        if (normalized.length() >= GRAM && total < FALLBACK_THRESHOLD) {
+            total += addRanked(matches, containing(normalized, matches), normalized);
+        }
+
+        if (total < FALLBACK_THRESHOLD) {
+            List<WordMatch> fuzzyMatches = new ArrayList<>();
+            boolean anySimilar = false;
+            for (String queryWord : queryWords) {
+                WordMatch fuzzyMatch = prefixMatch(queryWord);
+                for (String similar : similarWords(queryWord)) {
+                    Postings postings = words.get(similar);
+                    if (postings != null && !similar.startsWith(queryWord)) {
+                        fuzzyMatch.add(postings.view);
+                        anySimilar = true;
+                    }
+                }
+                fuzzyMatches.add(fuzzyMatch);
+            }
+            if (anySimilar) {
+                total += addRanked(matches, intersect(fuzzyMatches, true, matches), normalized);
+            }
+        }
+        return new Matches(List.copyOf(matches), total);
+    }
+
+    private WordMatch prefixMatch(String queryWord) {
+        WordMatch match = new WordMatch(queryWord);
+        for (Postings postings : words.subMap(queryWord, true, queryWord + Character.MAX_VALUE, true).values()) {
+            match.add(postings.view);
+        }
+        return match;
+    }
+
+    /**
+     * The heroes matched by all the words of the query and not already found: the ids of the most selective word are the
+     * candidates, looked up in the posting lists of the others, or checked against the names for the broad ones. All of
+     * them are counted, the first ones are kept, up to {@value #MAX_MATCHES} with the ones already found.
+     */
+    private Group intersect(List<WordMatch> wordMatches, boolean fuzzy, Set<Long> found) {
+        WordMatch driver = wordMatches
+            .stream()
+            .min(Comparator.<WordMatch, Boolean>comparing(match -> match.broad).thenComparingLong(match -> match.total))
+            .orElseThrow();
+        if (wordMatches.size() > 1 && driver.total > 0) {
+            long from = Long.MAX_VALUE;
+            long to = Long.MIN_VALUE;
+            for (Postings.View view : driver.views) {
+                if (view.size > 0) {
+                    from = Math.min(from, view.ids[0]);
+                    to = Math.max(to, view.ids[view.size - 1]);
+                }
+            }
+            for (WordMatch match : wordMatches) {
+                // Probing a bitset beats binary searches in several posting lists, or reading the names for a broad word,
+                // unless it costs more to fill
+                if (match != driver && match.total <= driver.total * 16) {
+                    match.fillBitset(from, to);
+                }
+            }
+        }
+        Group group = new Group(MAX_MATCHES - found.size());
+        DistinctIds candidates = new DistinctIds(driver.views, driver.total);
+        while (candidates.hasNext()) {
+            if (group.isFull() && wordMatches.size() == 1 && found.isEmpty()) {
+                // All the other candidates match too
+                group.total += candidates.countRemaining();
+                break;
+            }
+            long id = candidates.next();
+            if (matchesAll(wordMatches, driver, id, fuzzy) && (found.isEmpty() || !found.contains(id))) {
+                group.add(id);
+            }
+        }
+        return group;
+    }
+
+    private boolean matchesAll(List<WordMatch> wordMatches, WordMatch driver, long id, boolean fuzzy) {
+        String[] nameWords = null;
+        for (WordMatch match : wordMatches) {
+            if (match == driver) {
+                continue;
+            }
+            if (match.bits != null || !match.broad) {
+                if (!match.contains(id)) {
+                    return false;
+                }
+                continue;
+            }
+            if (nameWords == null) {
+                String normalized = normalizedNames.get(id);
+                if (normalized == null) {
+                    return false;
+                }
+                nameWords = splitWords(normalized);
+            }
+            if (!matchesWord(nameWords, match.queryWord, fuzzy)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesWord(String[] nameWords, String queryWord, boolean fuzzy) {
+        int distance = maxDistance(queryWord);
+        for (String nameWord : nameWords) {
+            if (nameWord.startsWith(queryWord) || (fuzzy && editDistance(queryWord, nameWord, distance) <= distance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add a group of matches, ranked.
+     *
+     * @return the number of heroes of the group, including the ones past {@value #MAX_MATCHES}.
+     */
+    private long addRanked(Set<Long> matches, Group group, String normalizedQuery) {
+        List<Long> startingWithQuery = new ArrayList<>();
+        List<Long> others = new ArrayList<>();
+        for (Long id : group.ids) {
+            String normalized = normalizedNames.get(id);
+            if (normalized == null) {
+                continue;
+            }
+            if (normalized.equals(normalizedQuery)) {
+                matches.add(id);
+            } else if (normalized.startsWith(normalizedQuery)) {
+                startingWithQuery.add(id);
+            } else {
+                others.add(id);
+            }
+        }
+        matches.addAll(startingWithQuery);
+        matches.addAll(others);
+        return group.total;
+    }
+
+    private Group containing(String normalizedQuery, Set<Long> found) {
+        Group group = new Group(MAX_MATCHES - found.size());
+        List<Postings.View> views = new ArrayList<>();
+        for (String trigram : trigrams(normalizedQuery)) {
+            Postings postings = nameTrigrams.get(trigram);
+            if (postings == null) {
+                return group;
+            }
+            views.add(postings.view);
+        }
+        views.sort(Comparator.comparingInt(view -> view.size));
+        Postings.View smallest = views.get(0);
+        // The candidates come in id order, so each other list is only walked forward, from where the previous one stopped
+        int[] positions = new int[views.size()];
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            if (containsAll(views, positions, id) && !found.contains(id)) {
+                // Trigrams can match in a different order, so the candidate is checked
+                String normalized = normalizedNames.get(id);
+                if (normalized != null && normalized.contains(normalizedQuery)) {
+                    group.add(id);
+                }
+            }
+        }
+        return group;
+    }
+
+    private static boolean containsAll(List<Postings.View> views, int[] positions, long id) {
+        for (int v = 1; v < views.size(); v++) {
+            Postings.View view = views.get(v);
+            positions[v] = view.seek(id, positions[v]);
+            if (positions[v] == view.size || view.ids[positions[v]] != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The indexed words within the maximum edit distance of a word, found through the trigrams they share: an edit changes
+     * at most {@value #GRAM} trigrams, so a word within {@code d} edits shares all but {@code 3 * d} of them.
+     */
+    private List<String> similarWords(String word) {
+        int distance = maxDistance(word);
+        List<String> wordGrams = trigrams(WORD_BOUNDARY + word + WORD_BOUNDARY);
+        int minShared = wordGrams.size() - GRAM * distance;
+        if (distance == 0 || minShared <= 0) {
+            return List.of();
+        }
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : wordGrams) {
+            WordList trigramWords = wordTrigrams.get(trigram);
+            if (trigramWords != null) {
+                WordList.View view = trigramWords.view;
+                for (int i = 0; i < view.size; i++) {
+                    shared.merge(view.words[i], 1, Integer::sum);
+                }
+            }
+        }
+        List<String> similar = new ArrayList<>();
+        shared.forEach((candidate, count) -> {
+            if (count >= minShared && editDistance(word, candidate, distance) <= distance) {
+                similar.add(candidate);
+            }
+        });
+        similar.sort(Comparator.naturalOrder());
+        return similar;
+    }
+
+    private static int maxDistance(String word) {
+        if (word.length() >= 8) {
+            return 2;
+        }
+        return word.length() >= 4 ? 1 : 0;
+    }
+
+    /**
+     * The Levenshtein distance between two words, or {@code max + 1} as soon as it is known to be greater than {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    /**
+     * Normalize a text for the index: lower case, without accents, with its words separated by a single space.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean separator = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                separator = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                separator = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String[] splitWords(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static List<String> trigrams(String text) {
+        List<String> trigrams = new ArrayList<>(Math.max(0, text.length() - GRAM + 1));
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+
+    /**
+     * The posting lists of the indexed words matched by a word of the query. A word matching more than
+     * {@value #MAX_VIEWS_PER_WORD} indexed words is broad: unless it drives the search, it is checked against the names
+     * rather than looked up in its posting lists.
+     */
+    private static final class WordMatch {
+
+        private final String queryWord;
+
+        private final List<Postings.View> views = new ArrayList<>();
+
+        private long total;
+
+        private boolean broad;
+
+        private long[] bits;
+
+        private long bitsFrom;
+
+        private WordMatch(String queryWord) {
+            this.queryWord = queryWord;
+        }
+
+        private void add(Postings.View view) {
+            views.add(view);
+            total += view.size;
+            broad = views.size() > MAX_VIEWS_PER_WORD;
+        }
+
+        /**
+         * Index the ids of the posting lists in {@code [from, to]} in a bitset, for {@link #contains(long)}.
+         */
+        private void fillBitset(long from, long to) {
+            if (to - from >= MAX_BITSET_SPAN) {
+                return;
+            }
+            bits = new long[(int) ((to - from) >>> 6) + 1];
+            bitsFrom = from;
+            for (Postings.View view : views) {
+                int start = Arrays.binarySearch(view.ids, 0, view.size, from);
+                for (int i = start >= 0 ? start : -start - 1; i < view.size && view.ids[i] <= to; i++) {
+                    long bit = view.ids[i] - from;
+                    bits[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        private boolean contains(long id) {
+            if (bits != null) {
+                long bit = id - bitsFrom;
+                return bit >= 0 && (bit >>> 6) < bits.length && (bits[(int) (bit >>> 6)] & (1L << bit)) != 0;
+            }
+            for (Postings.View view : views) {
+                if (view.contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The ids of a search, and the number of heroes it matched, which can exceed the number of ids.
+     */
+    public static final class Matches {
+
+        private static final Matches NONE = new Matches(List.of(), 0);
+
+        private final List<Long> ids;
+
+        private final long total;
+
+        private Matches(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        /**
+         * @return the ids of the matching heroes, best matches first, at most {@value #MAX_MATCHES}.
+         */
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * The matches of a group of a search, in id order: all counted, the first ones kept.
+     */
+    private static final class Group {
+
+        private final List<Long> ids = new ArrayList<>();
+
+        private final int limit;
+
+        private long total;
+
+        private Group(int limit) {
+            this.limit = limit;
+        }
+
+        private void add(long id) {
+            total++;
+            if (ids.size() < limit) {
+                ids.add(id);
+            }
+        }
+
+        private boolean isFull() {
+            return ids.size() >= limit;
+        }
+    }
+
+    /**
+     * The distinct ids of several posting lists, in order: a name with two words starting with the same query word is in
+     * the posting lists of both. The lists are merged through a bitset when their ids are dense enough, through a heap of
+     * their heads otherwise.
+     */
+    private static final class DistinctIds {
+
+        private final List<Postings.View> views;
+
+        private int position;
+
+        private long[] bits;
+
+        private long bitsFrom;
+
+        private int word;
+
+        private PriorityQueue<int[]> heads;
+
+        private long next;
+
+        private boolean hasNext;
+
+        private long last = Long.MIN_VALUE;
+
+        private boolean started;
+
+        private DistinctIds(List<Postings.View> views, long total) {
+            this.views = views;
+            if (views.size() > 1) {
+                long from = Long.MAX_VALUE;
+                long to = Long.MIN_VALUE;
+                for (Postings.View view : views) {
+                    if (view.size > 0) {
+                        from = Math.min(from, view.ids[0]);
+                        to = Math.max(to, view.ids[view.size - 1]);
+                    }
+                }
+                if (from <= to && to - from < MAX_BITSET_SPAN && (to - from) >>> 6 <= total * 4) {
+                    bits = new long[(int) ((to - from) >>> 6) + 1];
+                    bitsFrom = from;
+                    for (Postings.View view : views) {
+                        for (int i = 0; i < view.size; i++) {
+                            long bit = view.ids[i] - from;
+                            bits[(int) (bit >>> 6)] |= 1L << bit;
+                        }
+                    }
+                } else {
+                    heads = new PriorityQueue<>(views.size(), Comparator.comparingLong(head -> views.get(head[0]).ids[head[1]]));
+                    for (int v = 0; v < views.size(); v++) {
+                        if (views.get(v).size > 0) {
+                            heads.add(new int[] { v, 0 });
+                        }
+                    }
+                }
+            }
+            advance();
+        }
+
+        private boolean hasNext() {
+            return hasNext;
+        }
+
+        private long next() {
+            long id = next;
+            advance();
+            return id;
+        }
+
+        /**
+         * Count the remaining ids, without reading them one by one from a bitset.
+         */
+        private long countRemaining() {
+            if (!hasNext) {
+                return 0;
+            }
+            long count = 1;
+            if (bits != null) {
+                for (int i = word; i < bits.length; i++) {
+                    count += Long.bitCount(bits[i]);
+                }
+            } else {
+                while (advanceAndCount()) {
+                    count++;
+                }
+            }
+            hasNext = false;
+            return count;
+        }
+
+        private boolean advanceAndCount() {
+            advance();
+            return hasNext;
+        }
+
+        private void advance() {
+            if (bits != null) {
+                while (word < bits.length && bits[word] == 0) {
+                    word++;
+                }
+                hasNext = word < bits.length;
+                if (hasNext) {
+                    long lowest = Long.lowestOneBit(bits[word]);
+                    bits[word] ^= lowest;
+                    next = bitsFrom + ((long) word << 6) + Long.numberOfTrailingZeros(lowest);
+                }
+                return;
+            }
+            if (heads == null) {
+                // At most one posting list, without duplicates
+                Postings.View view = views.isEmpty() ? Postings.View.EMPTY : views.get(0);
+                hasNext = position < view.size;
+                if (hasNext) {
+                    next = view.ids[position++];
+                }
+                return;
+            }
+            hasNext = false;
+            while (!heads.isEmpty()) {
+                int[] head = heads.poll();
+                Postings.View view = views.get(head[0]);
+                long id = view.ids[head[1]];
+                if (++head[1] < view.size) {
+                    heads.add(head);
+                }
+                if (!started || id != last) {
+                    started = true;
+                    last = id;
+                    next = id;
+                    hasNext = true;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorted list of hero ids. Readers get an immutable view; ids greater than the last one are appended in place, past the
+     * size of the views already published, so rebuilding the index in id order does not copy the lists.
+     */
+    static final class Postings {
+
+        private volatile View view = View.EMPTY;
+
+        synchronized void add(long id) {
+            View current = view;
+            int index = Arrays.binarySearch(current.ids, 0, current.size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertion = -index - 1;
+            if (insertion == current.size && current.size < current.ids.length) {
+                current.ids[current.size] = id;
+                view = new View(current.ids, current.size + 1);
+                return;
+            }
+            long[] ids = new long[insertion == current.size ? Math.max(4, current.size * 2) : current.size + 1];
+            System.arraycopy(current.ids, 0, ids, 0, insertion);
+            ids[insertion] = id;
+            System.arraycopy(current.ids, insertion, ids, insertion + 1, current.size - insertion);
+            view = new View(ids, current.size + 1);
+        }
+
+        synchronized boolean remove(long id) {
+            View current = view;
+            int index = Arrays.binarySearch(current.ids, 0, current.size, id);
+            if (index < 0) {
+                return false;
+            }
+            long[] ids = new long[current.size - 1];
+            System.arraycopy(current.ids, 0, ids, 0, index);
+            System.arraycopy(current.ids, index + 1, ids, index, current.size - index - 1);
+            view = new View(ids, ids.length);
+            return true;
+        }
+
+        boolean isEmpty() {
+            return view.size == 0;
+        }
+
+        static final class View {
+
+            private static final View EMPTY = new View(new long[0], 0);
+
+            private final long[] ids;
+
+            private final int size;
+
+            private View(long[] ids, int size) {
+                this.ids = ids;
+                this.size = size;
+            }
+
+            boolean contains(long id) {
+                return Arrays.binarySearch(ids, 0, size, id) >= 0;
+            }
+
+            /**
+             * The position of the first id not less than {@code id}, searched from {@code from} with steps doubling
+             * before the binary search: the cost depends on how far the id is, not on the size of the list.
+             */
+            int seek(long id, int from) {
+                int step = 1;
+                int to = from;
+                while (to < size && ids[to] < id) {
+                    from = to + 1;
+                    to += step;
+                    step <<= 1;
+                }
+                int index = Arrays.binarySearch(ids, from, Math.min(to + 1, size), id);
+                return index >= 0 ? index : -index - 1;
+            }
+        }
+    }
+
+    /**
+     * Unordered list of distinct words, published like {@link Postings}.
+     */
+    static final class WordList {
+
+        private volatile View view = View.EMPTY;
+
+        synchronized void add(String word) {
+            View current = view;
+            if (current.size < current.words.length) {
+                current.words[current.size] = word;
+                view = new View(current.words, current.size + 1);
+                return;
+            }
+            String[] words = Arrays.copyOf(current.words, Math.max(4, current.size * 2));
+            words[current.size] = word;
+            view = new View(words, current.size + 1);
+        }
+
+        synchronized boolean remove(String word) {
+            View current = view;
+            for (int index = 0; index < current.size; index++) {
+                if (current.words[index].equals(word)) {
+                    String[] words = new String[current.size - 1];
+                    System.arraycopy(current.words, 0, words, 0, index);
+                    System.arraycopy(current.words, index + 1, words, index, current.size - index - 1);
+                    view = new View(words, words.length);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isEmpty() {
+            return view.size == 0;
+        }
+
+        static final class View {
+
+            private static final View EMPTY = new View(new String[0], 0);
+
+            private final String[] words;
+
+            private final int size;
+
+            private View(String[] words, int size) {
+                this.words = words;
+                this.size = size;
+            }
+        }
+    }
+}
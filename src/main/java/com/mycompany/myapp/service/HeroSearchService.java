@@ -0,0 +1,207 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching the heroes by name, through a {@link HeroSearchIndex} held in memory.
+ * <p>
+ * The index is built from a scan of all the heroes once the application is started, then kept up to date with the heroes
+ * created, updated and deleted by committed transactions, see {@link #indexed(Long, String)} and {@link #deleted(Long)}.
+ * Until the first build is finished, searches only find the heroes written since the start. The heroes written by the
+ * other nodes of a cluster are only indexed once they tell this node, see {@link #addWriteListener(Consumer)}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class HeroSearchService {
+
+    public static final String SEARCH_METER_NAME = "heroes.search";
+    public static final String SEARCH_METER_DESCRIPTION = "Indicates the time taken to search the hero index.";
+    public static final String INDEX_SIZE_METER_NAME = "heroes.search.index.size";
+    public static final String INDEX_SIZE_METER_DESCRIPTION = "Indicates the count of heroes in the search index.";
+
+    private final Logger log = LoggerFactory.getLogger(HeroSearchService.class);
+
+    private final HeroRepository heroRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer searchTimer;
+
+    private final List<Consumer<Long>> writeListeners = new CopyOnWriteArrayList<>();
+
+    private volatile HeroSearchIndex index = new HeroSearchIndex();
+
+    /**
+     * The index being rebuilt, if any, with the ids written since the rebuild started: the scan may have read them before.
+     */
+    private volatile Rebuild rebuild;
+
+    public HeroSearchService(
+        HeroRepository heroRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.heroRepository = heroRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.searchTimer =
+            Timer.builder(SEARCH_METER_NAME).description(SEARCH_METER_DESCRIPTION).publishPercentileHistogram().register(meterRegistry);
+        Gauge
+            .builder(INDEX_SIZE_METER_NAME, this, service -> service.index.size())
+            .description(INDEX_SIZE_METER_DESCRIPTION)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Build the index in the background once the application is started, so after the database migrations.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::rebuild, "hero-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Build a new index from a scan of all the heroes, then replace the current one.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Rebuild current = new Rebuild();
+        rebuild = current;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Hero> heroes = heroRepository.streamAllBy()) {
+                    heroes.forEach(hero -> {
+                        // Checked and indexed atomically: a write in between would be overwritten by the name read before it
+                        synchronized (current) {
+                            if (!current.written.contains(hero.getId())) {
+                                current.index.put(hero.getId(), hero.getName());
+                            }
+                        }
+                        entityManager.detach(hero);
+                    });
+                }
+            });
+            index = current.index;
+            log.info("Indexed {} heroes for search in {} ms", current.index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Cannot build the hero search index: {}", String.valueOf(e));
+        } finally {
+            rebuild = null;
+        }
+    }
+
+    /**
+     * Index a hero created or updated by a committed transaction.
+     *
+     * @param id the id of the hero.
+     * @param name the name of the hero.
+     */
+    public void indexed(Long id, String name) {
+        Rebuild current = rebuild;
+        if (current != null) {
+            synchronized (current) {
+                current.written.add(id);
+                current.index.put(id, name);
+            }
+        }
+        index.put(id, name);
+        written(id);
+    }
+
+    /**
+     * Remove from the index a hero deleted by a committed transaction.
+     *
+     * @param id the id of the hero.
+     */
+    public void deleted(Long id) {
+        Rebuild current = rebuild;
+        if (current != null) {
+            synchronized (current) {
+                current.written.add(id);
+                current.index.remove(id);
+            }
+        }
+        index.remove(id);
+        written(id);
+    }
+
+    private void written(Long id) {
+        for (Consumer<Long> listener : writeListeners) {
+            listener.accept(id);
+        }
+    }
+
+    /**
+     * Be told of the id of each hero indexed or removed, such as to tell the other nodes of the cluster.
+     *
+     * @param listener the listener, called on the thread of the write.
+     */
+    public void addWriteListener(Consumer<Long> listener) {
+        writeListeners.add(listener);
+    }
+
+    /**
+     * Search the heroes by name: by the start of its words, then anywhere in it, then with a typo or two.
+     *
+     * @param query the query.
+     * @param pageable the page to return, its sort is ignored: heroes are sorted by relevance.
+     * @return the page of matching heroes, with the number of all of them: only the first
+     * {@value HeroSearchIndex#MAX_MATCHES} can be paged through.
+     */
+    public Page<Hero> search(String query, Pageable pageable) {
+        log.debug("Request to search Heroes for : {}", query);
+        HeroSearchIndex.Matches matches = searchTimer.record(() -> index.search(query));
+        List<Long> ids = matches.getIds();
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Hero> heroes = new ArrayList<>(to - from);
+        for (Long id : ids.subList(from, to)) {
+            // Served by the second-level cache; a hero deleted since the search is skipped
+            Hero hero = entityManager.find(Hero.class, id);
+            if (hero != null) {
+                heroes.add(hero);
+            }
+        }
+        return new PageImpl<>(heroes, pageable, matches.getTotal());
+    }
+
+    private static final class Rebuild {
+
+        private final HeroSearchIndex index = new HeroSearchIndex();
+
+        /**
+         * Guarded by the rebuild itself.
+         */
+        private final Set<Long> written = new HashSet<>();
+    }
+}
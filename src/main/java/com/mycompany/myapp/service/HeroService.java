@@ -0,0 +1,452 @@
+package com.mycompany.myapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import com.mycompany.myapp.service.dto.HeroBatchResultDTO;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service Implementation for managing {@link Hero}.
+ * <p>
+ * The read methods run in read-only transactions. An update is a single conditional {@code UPDATE ... WHERE id = ? AND
+ * version = ?}, without reading the hero first: an update made on another version than the current one updates no row,
+ * and fails with an {@link ObjectOptimisticLockingFailureException}.
+ */
+@Service
+@Transactional
+public class HeroService {
+
+    private final Logger log = LoggerFactory.getLogger(HeroService.class);
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Number of batch items looked up and flushed together: a multiple of {@code hibernate.jdbc.batch_size}, and small
+     * enough to keep the persistence context and the {@code IN} clauses bounded.
+     */
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    /**
+     * Compares the letters of the names as the default {@code utf8mb4_0900_ai_ci} collation of MySQL does: ignoring case
+     * and accents, and expanding the ligatures, such as {@code ß} to {@code ss}. Synchronized, as a collator is not thread
+     * safe.
+     */
+    private static final Collator NAME_COLLATOR = nameCollator();
+
+    private static final String UPDATE_HERO = "update hero set name = :name, version = version + 1 where id = :id and version = :version";
+
+    private final HeroRepository heroRepository;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final HeroPageCacheService heroPageCacheService;
+
+    private final HeroSearchService heroSearchService;
+
+    private final HeroSuggestService heroSuggestService;
+
+    private final ObjectWriter heroWriter;
+
+    public HeroService(
+        HeroRepository heroRepository,
+        EntityManager entityManager,
+        Validator validator,
+        HeroPageCacheService heroPageCacheService,
+        HeroSearchService heroSearchService,
+        HeroSuggestService heroSuggestService,
+        ObjectMapper objectMapper
+    ) {
+        this.heroRepository = heroRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.heroPageCacheService = heroPageCacheService;
+        this.heroSearchService = heroSearchService;
+        this.heroSuggestService = heroSuggestService;
+        this.heroWriter = objectMapper.writerFor(Hero.class);
+    }
+
+    /**
+     * Create a hero.
+     *
+     * @param hero the hero to create.
+     * @return the persisted hero.
+     */
+    public Hero save(Hero hero) {
+        log.debug("Request to save Hero : {}", hero);
+        Hero result = heroRepository.save(hero);
+        heroPageCacheService.evictOnCreate(result);
+        return result;
+    }
+
+    /**
+     * Update a hero, if it is still at the version the update was made on.
+     *
+     * @param hero the hero to update.
+     * @param version the version of the hero the update was made on.
+     * @return the updated hero, at its new version, or empty if there is no hero with that id.
+     * @throws ObjectOptimisticLockingFailureException if the hero is at another version.
+     */
+    public Optional<Hero> update(Hero hero, long version) {
+        log.debug("Request to update Hero : {} at version {}", hero, version);
+        int updated = entityManager
+            .createNativeQuery(UPDATE_HERO)
+            .unwrap(NativeQuery.class)
+            // No query space of an entity: rather than the whole Hero region, only this hero is evicted, below
+            .addSynchronizedQuerySpace("")
+            .setParameter("name", hero.getName())
+            .setParameter("id", hero.getId())
+            .setParameter("version", version)
+            .executeUpdate();
+        if (updated == 0) {
+            // Only read on a conflict, to tell it from an unknown hero
+            if (!heroRepository.existsById(hero.getId())) {
+                return Optional.empty();
+            }
+            throw new ObjectOptimisticLockingFailureException(Hero.class, hero.getId());
+        }
+        Hero result = new Hero().id(hero.getId()).name(hero.getName());
+        result.setVersion(version + 1);
+        updated(result);
+        return Optional.of(result);
+    }
+
+    /**
+     * Update a hero at its current version, read in the same transaction as the update, from the primary database.
+     *
+     * @param hero the hero to update.
+     * @param versionMatches whether the update can be made on the current version of the hero.
+     * @return the updated hero, at its new version, or empty if there is no hero with that id.
+     * @throws ObjectOptimisticLockingFailureException if the current version does not match, or if the hero was updated
+     * concurrently.
+     */
+    public Optional<Hero> update(Hero hero, LongPredicate versionMatches) {
+        return findMatchingVersion(hero.getId(), versionMatches).flatMap(version -> update(hero, version));
+    }
+
+    /**
+     * Partially update a hero, if it is still at the version the update was made on.
+     *
+     * @param hero the fields of the hero to update, the {@code null} ones are left unchanged.
+     * @param version the version of the hero the update was made on.
+     * @return the updated hero, at its new version, or empty if there is no hero with that id.
+     * @throws ObjectOptimisticLockingFailureException if the hero is at another version.
+     * @throws ConstraintViolationException if the updated hero is not valid.
+     */
+    public Optional<Hero> partialUpdate(Hero hero, long version) {
+        log.debug("Request to partially update Hero : {} at version {}", hero, version);
+        if (hero.getName() == null) {
+            // Nothing to update
+            return findOne(hero.getId())
+                .map(existingHero -> {
+                    if (existingHero.getVersion() != version) {
+                        throw new ObjectOptimisticLockingFailureException(Hero.class, hero.getId());
+                    }
+                    return existingHero;
+                });
+        }
+        // Bypassed by the UPDATE statement, so checked here
+        Set<ConstraintViolation<Hero>> violations = validator.validate(hero);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return update(hero, version);
+    }
+
+    /**
+     * Partially update a hero at its current version, read in the same transaction as the update, from the primary
+     * database.
+     *
+     * @param hero the fields of the hero to update, the {@code null} ones are left unchanged.
+     * @param versionMatches whether the update can be made on the current version of the hero.
+     * @return the updated hero, at its new version, or empty if there is no hero with that id.
+     * @throws ObjectOptimisticLockingFailureException if the current version does not match, or if the hero was updated
+     * concurrently.
+     * @throws ConstraintViolationException if the updated hero is not valid.
+     */
+    public Optional<Hero> partialUpdate(Hero hero, LongPredicate versionMatches) {
+        return findMatchingVersion(hero.getId(), versionMatches).flatMap(version -> partialUpdate(hero, version));
+    }
+
+    private Optional<Long> findMatchingVersion(Long id, LongPredicate versionMatches) {
+        Optional<Long> version = heroRepository.findVersionById(id);
+        if (version.isPresent() && !versionMatches.test(version.get())) {
+            throw new ObjectOptimisticLockingFailureException(Hero.class, id);
+        }
+        return version;
+    }
+
+    /**
+     * Make the caches and the search indexes forget the previous version of an updated hero: the {@code UPDATE} statement
+     * is not seen by Hibernate. The hero is evicted now, and again once the transaction is committed, in case a concurrent
+     * transaction cached its previous version meanwhile.
+     */
+    private void updated(Hero hero) {
+        Long id = hero.getId();
+        // A hero already loaded in this persistence context would be stale
+        entityManager.detach(entityManager.getReference(Hero.class, id));
+        evictFromSecondLevelCache(id);
+        heroPageCacheService.evictOnUpdate(hero);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evictFromSecondLevelCache(id);
+                        heroSearchService.indexed(id, hero.getName());
+                        heroSuggestService.indexed(id, hero.getName());
+                    }
+                }
+            );
+        }
+    }
+
+    private void evictFromSecondLevelCache(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Hero.class, id);
+    }
+
+    /**
+     * Get a hero.
+     *
+     * @param id the id of the hero.
+     * @return the hero.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Hero> findOne(Long id) {
+        log.debug("Request to get Hero : {}", id);
+        return heroRepository.findById(id);
+    }
+
+    /**
+     * Get the current names of some heroes, from the primary database: the other nodes of the cluster tell of the heroes
+     * they wrote as soon as committed, a replica could still miss them.
+     *
+     * @param ids the ids of the heroes.
+     * @return the names of the heroes found, by id.
+     */
+    public Map<Long, String> findNames(Collection<Long> ids) {
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] idAndName : heroRepository.findIdAndNameByIdIn(ids)) {
+            names.put((Long) idAndName[0], (String) idAndName[1]);
+        }
+        return names;
+    }
+
+    /**
+     * Delete a hero.
+     *
+     * @param id the id of the hero.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete Hero : {}", id);
+        heroRepository.deleteById(id);
+        heroPageCacheService.evictOnDelete(id);
+    }
+
+    /**
+     * Create or update a batch of heroes.
+     * <p>
+     * Heroes without an id are created, heroes with an id are updated. Invalid heroes, heroes whose name is already used
+     * (in the database or earlier in the batch) and updates of unknown heroes are rejected, without failing the others.
+     * The persistence context is flushed and cleared every {@value #BATCH_CHUNK_SIZE} heroes, so the inserts and updates
+     * go out as JDBC batches.
+     * <p>
+     * Names are compared as the case and accent insensitive collation of the unique index on MySQL does, see
+     * {@link #nameKey(String)}: two names it considers equal must be rejected here, as a violation at the flush would fail
+     * the whole batch.
+     *
+     * @param heroes the heroes to save.
+     * @return the outcome of each hero, in the order of the batch.
+     */
+    public List<HeroBatchResultDTO> saveAll(List<Hero> heroes) {
+        log.debug("Request to save a batch of {} Heroes", heroes.size());
+        List<HeroBatchResultDTO> results = new ArrayList<>(heroes.size());
+        Set<String> batchNames = new HashSet<>();
+        for (int from = 0; from < heroes.size(); from += BATCH_CHUNK_SIZE) {
+            List<Hero> chunk = heroes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, heroes.size()));
+            saveChunk(chunk, from, batchNames, results);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        heroPageCacheService.clear();
+        return results;
+    }
+
+    private void saveChunk(List<Hero> chunk, int offset, Set<String> batchNames, List<HeroBatchResultDTO> results) {
+        boolean[] valid = new boolean[chunk.size()];
+        Set<String> names = new HashSet<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Hero hero = chunk.get(i);
+            valid[i] = hero != null && validator.validate(hero).isEmpty();
+            if (valid[i]) {
+                // Looked up as is: the database compares them with its collation
+                names.add(hero.getName());
+                if (hero.getId() != null) {
+                    ids.add(hero.getId());
+                }
+            }
+        }
+        Map<String, Long> existingIdsByName = new HashMap<>();
+        heroRepository.findAllByNameIn(names).forEach(existing -> existingIdsByName.put(nameKey(existing.getName()), existing.getId()));
+        Map<Long, Hero> existingHeroesById = heroRepository
+            .findAllById(ids)
+            .stream()
+            .collect(Collectors.toMap(Hero::getId, Function.identity()));
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Hero hero = chunk.get(i);
+            int index = offset + i;
+            if (!valid[i]) {
+                results.add(rejected(index, hero, "invalid"));
+                continue;
+            }
+            String nameKey = nameKey(hero.getName());
+            Long nameOwnerId = existingIdsByName.get(nameKey);
+            if (batchNames.contains(nameKey)) {
+                results.add(rejected(index, hero, "nameduplicate"));
+            } else if (hero.getId() == null) {
+                if (nameOwnerId != null) {
+                    results.add(rejected(index, hero, "nameexists"));
+                } else {
+                    heroRepository.save(hero);
+                    // Only the names of the saved heroes are taken: a rejected hero leaves its name to the next ones
+                    batchNames.add(nameKey);
+                    results.add(new HeroBatchResultDTO(index, hero.getId(), hero.getName(), HeroBatchResultDTO.Status.CREATED, null));
+                }
+            } else {
+                Hero existingHero = existingHeroesById.get(hero.getId());
+                if (existingHero == null) {
+                    results.add(rejected(index, hero, "idnotfound"));
+                } else if (nameOwnerId != null && !nameOwnerId.equals(hero.getId())) {
+                    results.add(rejected(index, hero, "nameexists"));
+                } else {
+                    existingHero.setName(hero.getName());
+                    batchNames.add(nameKey);
+                    results.add(new HeroBatchResultDTO(index, hero.getId(), hero.getName(), HeroBatchResultDTO.Status.UPDATED, null));
+                }
+            }
+        }
+    }
+
+    private HeroBatchResultDTO rejected(int index, Hero hero, String errorKey) {
+        return hero == null
+            ? new HeroBatchResultDTO(index, null, null, HeroBatchResultDTO.Status.REJECTED, errorKey)
+            : new HeroBatchResultDTO(index, hero.getId(), hero.getName(), HeroBatchResultDTO.Status.REJECTED, errorKey);
+    }
+
+    private static Collator nameCollator() {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        collator.setDecomposition(Collator.FULL_DECOMPOSITION);
+        return collator;
+    }
+
+    /**
+     * The key under which the unique index of the names files a name, with the default {@code utf8mb4_0900_ai_ci}
+     * collation of MySQL: {@code "Héro"}, {@code "hero"} and {@code "HERO"} are the same name, as are {@code "Straße"} and
+     * {@code "strasse"}. The collation is {@code NO PAD} and does not ignore the spaces and punctuation, which the collator
+     * does: they are kept as they are, so {@code "Héro "} and {@code "Spider Man"} are other names than {@code "hero"}
+     * and {@code "Spider-Man"}.
+     */
+    static String nameKey(String name) {
+        // Each character kept as is follows a quote, and each run of letters is the hex of its collation key in double quotes
+        StringBuilder key = new StringBuilder(name.length() * 4);
+        int index = 0;
+        while (index < name.length()) {
+            int end = index;
+            while (end < name.length() && isCollated(name.codePointAt(end))) {
+                end += Character.charCount(name.codePointAt(end));
+            }
+            if (end == index) {
+                int codePoint = name.codePointAt(index);
+                key.append('\'').appendCodePoint(codePoint);
+                index += Character.charCount(codePoint);
+                continue;
+            }
+            byte[] collationKey;
+            synchronized (NAME_COLLATOR) {
+                collationKey = NAME_COLLATOR.getCollationKey(name.substring(index, end)).toByteArray();
+            }
+            key.append('"');
+            for (byte b : collationKey) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            key.append('"');
+            index = end;
+        }
+        return key.toString();
+    }
+
+    private static boolean isCollated(int codePoint) {
+        int type = Character.getType(codePoint);
+        return (
+            Character.isLetterOrDigit(codePoint) ||
+            type == Character.NON_SPACING_MARK ||
+            type == Character.COMBINING_SPACING_MARK ||
+            type == Character.ENCLOSING_MARK
+        );
+    }
+
+    /**
+     * Write all the heroes as newline-delimited JSON.
+     * <p>
+     * Heroes are read from a database cursor and detached once written, so the memory used does not depend on the number
+     * of heroes.
+     *
+     * @param outputStream the stream to write to, it is flushed but not closed.
+     * @return the number of heroes written.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Transactional(readOnly = true)
+    public long exportAsNdjson(OutputStream outputStream) throws IOException {
+        log.debug("Request to export all Heroes");
+        long count = 0;
+        BufferedOutputStream out = new BufferedOutputStream(outputStream, EXPORT_BUFFER_SIZE);
+        try (Stream<Hero> heroes = heroRepository.streamAllBy()) {
+            Iterator<Hero> iterator = heroes.iterator();
+            while (iterator.hasNext()) {
+                Hero hero = iterator.next();
+                out.write(heroWriter.writeValueAsBytes(hero));
+                out.write('\n');
+                entityManager.detach(hero);
+                count++;
+            }
+        }
+        out.flush();
+        log.debug("Exported {} Heroes", count);
+        return count;
+    }
+}
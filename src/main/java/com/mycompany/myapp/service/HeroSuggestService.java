@@ -0,0 +1,219 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service suggesting hero names for a prefix, from a {@link HeroNameTrie} held in memory.
+ * <p>
+ * The trie is immutable: the heroes created, updated and deleted by committed transactions (see
+ * {@link #indexed(Long, String)} and {@link #deleted(Long)}) only schedule a rebuild in the background,
+ * {@value #REBUILD_DELAY_MILLIS} ms later so a burst of writes makes a single rebuild, and the new trie replaces the current
+ * one atomically. Suggestions can lag behind the writes by that delay plus the time of a rebuild.
+ */
+@Service
+public class HeroSuggestService {
+
+    public static final String NAMES_METER_NAME = "heroes.suggest.trie.names";
+    public static final String NAMES_METER_DESCRIPTION = "Indicates the count of hero names in the suggestion trie.";
+    public static final String NODES_METER_NAME = "heroes.suggest.trie.nodes";
+    public static final String NODES_METER_DESCRIPTION = "Indicates the count of nodes of the suggestion trie.";
+    public static final String MEMORY_METER_NAME = "heroes.suggest.trie.memory";
+    public static final String MEMORY_METER_DESCRIPTION = "Indicates the estimated memory used by the suggestion trie.";
+    public static final String REBUILD_METER_NAME = "heroes.suggest.trie.rebuild";
+    public static final String REBUILD_METER_DESCRIPTION = "Indicates the time taken to rebuild the suggestion trie.";
+
+    /**
+     * Maximum number of names suggested at once.
+     */
+    public static final int MAX_SUGGESTIONS = 50;
+
+    static final long REBUILD_DELAY_MILLIS = 500;
+
+    private final Logger log = LoggerFactory.getLogger(HeroSuggestService.class);
+
+    private final HeroRepository heroRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer rebuildTimer;
+
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hero-suggest-trie");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The names the trie is rebuilt from.
+     */
+    private final ConcurrentHashMap<Long, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * The heroes deleted while the names are loaded: the scan may still read them. Guarded by itself.
+     */
+    private final Set<Long> deletedWhileLoading = new HashSet<>();
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile boolean loading;
+
+    private volatile HeroNameTrie trie = HeroNameTrie.empty();
+
+    public HeroSuggestService(
+        HeroRepository heroRepository,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.heroRepository = heroRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.rebuildTimer = Timer.builder(REBUILD_METER_NAME).description(REBUILD_METER_DESCRIPTION).register(meterRegistry);
+        Gauge
+            .builder(NAMES_METER_NAME, this, service -> service.trie.size())
+            .description(NAMES_METER_DESCRIPTION)
+            .register(meterRegistry);
+        Gauge
+            .builder(NODES_METER_NAME, this, service -> service.trie.getNodeCount())
+            .description(NODES_METER_DESCRIPTION)
+            .register(meterRegistry);
+        Gauge
+            .builder(MEMORY_METER_NAME, this, service -> service.trie.getEstimatedBytes())
+            .description(MEMORY_METER_DESCRIPTION)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Load the names in the background once the application is started, so after the database migrations.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildExecutor.execute(this::load);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Load the names of all the heroes from the database, then rebuild the trie.
+     */
+    public void load() {
+        loading = true;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Hero> heroes = heroRepository.streamAllBy()) {
+                    heroes.forEach(hero -> {
+                        // The heroes written since the scan started are already up to date; checked and added atomically,
+                        // so a hero deleted in between is not added back
+                        synchronized (deletedWhileLoading) {
+                            if (!deletedWhileLoading.contains(hero.getId())) {
+                                names.putIfAbsent(hero.getId(), hero.getName());
+                            }
+                        }
+                        entityManager.detach(hero);
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot load the hero names to suggest: {}", String.valueOf(e));
+        } finally {
+            synchronized (deletedWhileLoading) {
+                loading = false;
+                deletedWhileLoading.clear();
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Record a hero created or updated by a committed transaction, and schedule a rebuild.
+     *
+     * @param id the id of the hero.
+     * @param name the name of the hero.
+     */
+    public void indexed(Long id, String name) {
+        String previous = names.put(id, name);
+        if (!name.equals(previous)) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Forget a hero deleted by a committed transaction, and schedule a rebuild.
+     *
+     * @param id the id of the hero.
+     */
+    public void deleted(Long id) {
+        boolean removed;
+        synchronized (deletedWhileLoading) {
+            if (loading) {
+                deletedWhileLoading.add(id);
+            }
+            removed = names.remove(id) != null;
+        }
+        if (removed) {
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(this::rebuild, REBUILD_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Build a new trie from the current names, then replace the current one.
+     */
+    public synchronized void rebuild() {
+        // Cleared first: a write from now on schedules another rebuild
+        rebuildScheduled.set(false);
+        long start = System.nanoTime();
+        HeroNameTrie rebuilt = HeroNameTrie.of(new ArrayList<>(names.values()));
+        trie = rebuilt;
+        rebuildTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        log.debug("Rebuilt the hero name suggestions with {} names and {} nodes", rebuilt.size(), rebuilt.getNodeCount());
+    }
+
+    /**
+     * Suggest hero names for a prefix.
+     *
+     * @param prefix the prefix of the names, matched ignoring case, accents and punctuation.
+     * @param limit the maximum number of names, up to {@value #MAX_SUGGESTIONS}.
+     * @return the matching names, sorted.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        return trie.suggest(prefix, Math.max(0, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+}
@@ -0,0 +1,299 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.MailOutboxMessage;
+import com.mycompany.myapp.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service sending the emails of the outbox.
+ * <p>
+ * Due messages are sent in batches, each batch over a single SMTP connection, and deleted once sent. A message that
+ * fails is retried with an exponential backoff, and marked as failed after {@code application.mail.outbox.max-attempts}
+ * attempts. No transaction is held while talking to the SMTP server: each batch is first claimed, with a conditional
+ * update, for {@code application.mail.outbox.claim-timeout}, so several instances can send the outbox without sending a
+ * message twice. A message can still be sent twice if the application stops after sending it, or if its claim expires
+ * before it is sent: delivery is at least once.
+ * <p>
+ * The due messages and the backlog are read in read-only transactions, which may run on a replica: a message a lagging
+ * replica still lists once sent is not claimed again, the claim only updates the messages still due.
+ */
+@Service
+public class MailOutboxSender {
+
+    public static final String MESSAGES_METER_NAME = "mail.outbox.messages";
+    public static final String MESSAGES_METER_DESCRIPTION = "Indicates the count of outbox messages sent, retried or failed.";
+    public static final String MESSAGES_METER_RESULT_DIMENSION = "result";
+    public static final String BACKLOG_METER_NAME = "mail.outbox.backlog";
+    public static final String BACKLOG_METER_DESCRIPTION = "Indicates the count of outbox messages waiting to be sent.";
+    public static final String OLDEST_AGE_METER_NAME = "mail.outbox.oldest.age";
+    public static final String OLDEST_AGE_METER_DESCRIPTION = "Indicates how long the oldest outbox message has been waiting.";
+    public static final String BATCH_METER_NAME = "mail.outbox.batch";
+    public static final String BATCH_METER_DESCRIPTION = "Indicates the time taken to send a batch of outbox messages.";
+
+    /**
+     * The due messages that may be claimed: the pending ones, and the ones whose claim has expired.
+     */
+    private static final List<MailOutboxMessage.Status> CLAIMABLE_STATUSES = List.of(
+        MailOutboxMessage.Status.PENDING,
+        MailOutboxMessage.Status.SENDING
+    );
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxSender.class);
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail.Outbox outboxProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter failedCounter;
+
+    private final Timer batchTimer;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    private final AtomicLong oldestCreatedMillis = new AtomicLong();
+
+    public MailOutboxSender(
+        MailOutboxRepository mailOutboxRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.outboxProperties = applicationProperties.getMail().getOutbox();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+
+        this.sentCounter = messagesCounterForResultBuilder("sent").register(meterRegistry);
+        this.retriedCounter = messagesCounterForResultBuilder("retried").register(meterRegistry);
+        this.failedCounter = messagesCounterForResultBuilder("failed").register(meterRegistry);
+        this.batchTimer = Timer.builder(BATCH_METER_NAME).description(BATCH_METER_DESCRIPTION).register(meterRegistry);
+        Gauge.builder(BACKLOG_METER_NAME, backlog, AtomicLong::get).description(BACKLOG_METER_DESCRIPTION).register(meterRegistry);
+        Gauge
+            .builder(OLDEST_AGE_METER_NAME, oldestCreatedMillis, MailOutboxSender::ageInSeconds)
+            .description(OLDEST_AGE_METER_DESCRIPTION)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    private Counter.Builder messagesCounterForResultBuilder(String result) {
+        return Counter.builder(MESSAGES_METER_NAME).description(MESSAGES_METER_DESCRIPTION).tag(MESSAGES_METER_RESULT_DIMENSION, result);
+    }
+
+    private static double ageInSeconds(AtomicLong createdMillis) {
+        long created = createdMillis.get();
+        return created == 0 ? 0 : Math.max(0, System.currentTimeMillis() - created) / 1000.0;
+    }
+
+    /**
+     * Send the due messages of the outbox, batch after batch until none is left.
+     */
+    @Scheduled(
+        initialDelayString = "${application.mail.outbox.poll-interval:PT5S}",
+        fixedDelayString = "${application.mail.outbox.poll-interval:PT5S}"
+    )
+    public void sendPending() {
+        int batchSize = outboxProperties.getBatchSize();
+        int count;
+        do {
+            count = sendBatch(batchSize);
+        } while (count == batchSize);
+        refreshBacklog();
+    }
+
+    private int sendBatch(int batchSize) {
+        // Found first without writing, so an empty outbox does not divert the reads of this node to the primary
+        List<Long> dueIds = readOnlyTransactionTemplate.execute(status ->
+            mailOutboxRepository.findDueIds(CLAIMABLE_STATUSES, Instant.now(), PageRequest.of(0, batchSize))
+        );
+        if (dueIds == null || dueIds.isEmpty()) {
+            return 0;
+        }
+        String claim = UUID.randomUUID().toString();
+        List<MailOutboxMessage> batch = transactionTemplate.execute(status -> claimBatch(claim, dueIds));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<MailOutboxMessage, Exception> failures = new HashMap<>();
+        Map<MimeMessage, MailOutboxMessage> mimeMessages = new LinkedHashMap<>();
+        for (MailOutboxMessage message : batch) {
+            try {
+                mimeMessages.put(createMimeMessage(message), message);
+            } catch (MessagingException e) {
+                failures.put(message, e);
+            }
+        }
+        if (!mimeMessages.isEmpty()) {
+            failures.putAll(send(mimeMessages));
+        }
+
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            // Only the messages still claimed are updated: another sender may have taken over the ones whose claim expired
+            List<MailOutboxMessage> claimed = mailOutboxRepository.findAllByClaimedByAndStatusOrderById(
+                claim,
+                MailOutboxMessage.Status.SENDING
+            );
+            for (MailOutboxMessage message : claimed) {
+                Exception failure = failures.get(message);
+                if (failure == null) {
+                    mailOutboxRepository.delete(message);
+                    sentCounter.increment();
+                } else {
+                    mailOutboxRepository.save(recordFailure(message, failure, now));
+                }
+            }
+        });
+        log.debug("Sent {} of a batch of {} emails", batch.size() - failures.size(), batch.size());
+        return batch.size();
+    }
+
+    /**
+     * Claim due messages, until the claim timeout.
+     *
+     * @return the messages claimed, fewer than the due ones if other senders claimed some of them meanwhile.
+     */
+    private List<MailOutboxMessage> claimBatch(String claim, List<Long> dueIds) {
+        Instant now = Instant.now();
+        mailOutboxRepository.claim(
+            dueIds,
+            CLAIMABLE_STATUSES,
+            now,
+            MailOutboxMessage.Status.SENDING,
+            claim,
+            now.plus(outboxProperties.getClaimTimeout())
+        );
+        return mailOutboxRepository.findAllByClaimedByAndStatusOrderById(claim, MailOutboxMessage.Status.SENDING);
+    }
+
+    /**
+     * Send messages over a single connection.
+     *
+     * @return the failure of each message that could not be sent.
+     */
+    private Map<MailOutboxMessage, Exception> send(Map<MimeMessage, MailOutboxMessage> mimeMessages) {
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(mimeMessages.keySet().toArray(new MimeMessage[0]));
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            Map<MailOutboxMessage, Exception> failures = new HashMap<>();
+            if (e.getFailedMessages().isEmpty()) {
+                mimeMessages.values().forEach(message -> failures.put(message, e));
+            } else {
+                e.getFailedMessages().forEach((mimeMessage, failure) -> failures.put(mimeMessages.get(mimeMessage), failure));
+            }
+            return failures;
+        } catch (MailException e) {
+            Map<MailOutboxMessage, Exception> failures = new HashMap<>();
+            mimeMessages.values().forEach(message -> failures.put(message, e));
+            return failures;
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private MimeMessage createMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), message.isHtml());
+        return mimeMessage;
+    }
+
+    private MailOutboxMessage recordFailure(MailOutboxMessage message, Exception failure, Instant now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setClaimedBy(null);
+        message.setLastError(abbreviate(String.valueOf(failure.getMessage())));
+        if (attempts >= outboxProperties.getMaxAttempts()) {
+            log.warn("Email could not be sent to user '{}', giving up after {} attempts", message.getRecipient(), attempts, failure);
+            message.setStatus(MailOutboxMessage.Status.FAILED);
+            failedCounter.increment();
+        } else {
+            Duration backoff = backoff(attempts);
+            log.info("Email could not be sent to user '{}', retrying in {}: {}", message.getRecipient(), backoff, failure.getMessage());
+            message.setStatus(MailOutboxMessage.Status.PENDING);
+            message.setNextAttemptAt(now.plus(backoff));
+            retriedCounter.increment();
+        }
+        return message;
+    }
+
+    /**
+     * The delay before the next attempt: the initial backoff, doubled for each previous failed attempt, up to the max backoff.
+     */
+    Duration backoff(int attempts) {
+        Duration maxBackoff = outboxProperties.getMaxBackoff();
+        Duration backoff = outboxProperties.getInitialBackoff();
+        for (int i = 1; i < attempts && backoff.compareTo(maxBackoff) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff;
+    }
+
+    private void refreshBacklog() {
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            backlog.set(mailOutboxRepository.countByStatus(MailOutboxMessage.Status.PENDING));
+            oldestCreatedMillis.set(
+                mailOutboxRepository
+                    .findFirstByStatusOrderByCreatedDate(MailOutboxMessage.Status.PENDING)
+                    .map(message -> message.getCreatedDate().toEpochMilli())
+                    .orElse(0L)
+            );
+        });
+    }
+
+    private static String abbreviate(String error) {
+        int maxLength = MailOutboxMessage.LAST_ERROR_MAX_LENGTH;
+        return error.length() <= maxLength ? error : error.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,218 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the Thymeleaf mail templates.
+ * <p>
+ * Templates are rendered from a {@link MailUserView} rather than from the {@link User} entity, in a fixed-size context.
+ * The mail templates are parsed once the application is ready, so the first emails do not pay for it when the template
+ * cache is enabled, and the subjects are cached per title key and language.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    public static final String RENDER_METER_NAME = "mail.render";
+    public static final String RENDER_METER_DESCRIPTION = "Indicates the time taken to render a mail template.";
+    public static final String RENDER_METER_TEMPLATE_DIMENSION = "template";
+
+    static final List<String> MAIL_TEMPLATES = Arrays.asList("mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail");
+
+    private static final int SUBJECT_CACHE_MAX_SIZE = 256;
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MessageSource messageSource;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, String> subjects = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        JHipsterProperties jHipsterProperties,
+        MessageSource messageSource,
+        SpringTemplateEngine templateEngine,
+        MeterRegistry meterRegistry
+    ) {
+        this.jHipsterProperties = jHipsterProperties;
+        this.messageSource = messageSource;
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Parse the mail templates, and resolve their subjects in the default language.
+     * <p>
+     * The renders of the warm-up are not timed: they include the parsing, which is what the emails must not pay for.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        MailUserView view = new MailUserView("warm-up", "", "");
+        for (String templateName : MAIL_TEMPLATES) {
+            process(templateName, view, Constants.DEFAULT_LANGUAGE);
+        }
+        getSubject("email.activation.title", Constants.DEFAULT_LANGUAGE);
+        getSubject("email.reset.title", Constants.DEFAULT_LANGUAGE);
+        log.debug("Warmed up {} mail templates", MAIL_TEMPLATES.size());
+    }
+
+    /**
+     * Render a mail template.
+     *
+     * @param templateName the name of the template.
+     * @param user the user the email is sent to.
+     * @param langKey the language to render the template in.
+     * @return the rendered content.
+     */
+    public String render(String templateName, MailUserView user, String langKey) {
+        Timer timer = renderTimers.computeIfAbsent(templateName, this::renderTimer);
+        long start = System.nanoTime();
+        try {
+            return process(templateName, user, langKey);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String process(String templateName, MailUserView user, String langKey) {
+        MailContext context = new MailContext(Locale.forLanguageTag(langKey), user, jHipsterProperties.getMail().getBaseUrl());
+        return templateEngine.process(templateName, context);
+    }
+
+    /**
+     * Get the subject of an email.
+     *
+     * @param titleKey the message key of the subject.
+     * @param langKey the language of the subject.
+     * @return the subject.
+     */
+    public String getSubject(String titleKey, String langKey) {
+        String key = titleKey + '|' + langKey;
+        String subject = subjects.get(key);
+        if (subject == null) {
+            subject = messageSource.getMessage(titleKey, null, Locale.forLanguageTag(langKey));
+            if (subjects.size() < SUBJECT_CACHE_MAX_SIZE) {
+                subjects.put(key, subject);
+            }
+        }
+        return subject;
+    }
+
+    private Timer renderTimer(String templateName) {
+        return Timer
+            .builder(RENDER_METER_NAME)
+            .description(RENDER_METER_DESCRIPTION)
+            .tag(RENDER_METER_TEMPLATE_DIMENSION, templateName)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * What the mail templates can read of a user.
+     */
+    public static final class MailUserView {
+
+        private final String login;
+
+        private final String activationKey;
+
+        private final String resetKey;
+
+        public MailUserView(String login, String activationKey, String resetKey) {
+            this.login = login;
+            this.activationKey = activationKey;
+            this.resetKey = resetKey;
+        }
+
+        public static MailUserView of(User user) {
+            return new MailUserView(user.getLogin(), user.getActivationKey(), user.getResetKey());
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public String getActivationKey() {
+            return activationKey;
+        }
+
+        public String getResetKey() {
+            return resetKey;
+        }
+    }
+
+    /**
+     * A template context holding only the two variables of the mail templates.
+     */
+    private static final class MailContext implements IContext {
+
+        private static final Set<String> VARIABLE_NAMES = Set.of(USER, BASE_URL);
+
+        private final Locale locale;
+
+        private final MailUserView user;
+
+        private final String baseUrl;
+
+        private MailContext(Locale locale, MailUserView user, String baseUrl) {
+            this.locale = locale;
+            this.user = user;
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public Locale getLocale() {
+            return locale;
+        }
+
+        @Override
+        public boolean containsVariable(String name) {
+            return VARIABLE_NAMES.contains(name);
+        }
+
+        @Override
+        public Set<String> getVariableNames() {
+            return VARIABLE_NAMES;
+        }
+
+        @Override
+        public Object getVariable(String name) {
+            if (USER.equals(name)) {
+                return user;
+            }
+            if (BASE_URL.equals(name)) {
+                return baseUrl;
+            }
+            return null;
+        }
+    }
+}
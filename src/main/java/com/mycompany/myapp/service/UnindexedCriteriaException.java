@@ -0,0 +1,21 @@
+package com.mycompany.myapp.service;
+
+/**
+ * Thrown when filtering criteria would make the database scan a whole table, because none of their predicates can use an
+ * index.
+ */
+public class UnindexedCriteriaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityName;
+
+    public UnindexedCriteriaException(String entityName, String message) {
+        super(message);
+        this.entityName = entityName;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+}
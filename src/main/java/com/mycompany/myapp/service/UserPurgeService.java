@@ -0,0 +1,162 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service deleting the users who did not activate their account in time.
+ * <p>
+ * Users are walked by id, and deleted {@value #CHUNK_SIZE} at a time with one {@code DELETE ... WHERE ... IN} statement per
+ * table, each chunk in its own transaction: {@code jhi_user} is never locked for longer than a chunk, whatever the number of
+ * users to delete. The user caches are evicted once per chunk, after its transaction is committed.
+ */
+@Service
+public class UserPurgeService {
+
+    public static final String DELETED_METER_NAME = "users.purge.deleted";
+    public static final String DELETED_METER_DESCRIPTION = "Indicates the count of not activated users deleted.";
+    public static final String RUN_DELETED_METER_NAME = "users.purge.run.deleted";
+    public static final String RUN_DELETED_METER_DESCRIPTION = "Indicates the count of users deleted by the current or last purge.";
+    public static final String CHUNK_METER_NAME = "users.purge.chunk";
+    public static final String CHUNK_METER_DESCRIPTION = "Indicates the time taken to delete a chunk of not activated users.";
+
+    /**
+     * Number of users deleted per transaction, small enough to keep the locks short and the {@code IN} clauses bounded.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    private static final String USER_AUTHORITY_TABLE = "jhi_user_authority";
+
+    private static final String DELETE_USER_AUTHORITIES = "delete from " + USER_AUTHORITY_TABLE + " where user_id in (:ids)";
+
+    private static final String DELETE_USERS = "delete from jhi_user where id in (:ids)";
+
+    private final Logger log = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private final UserRepository userRepository;
+
+    private final EntityManager entityManager;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter deletedCounter;
+
+    private final Timer chunkTimer;
+
+    private final AtomicLong runDeleted = new AtomicLong();
+
+    public UserPurgeService(
+        UserRepository userRepository,
+        EntityManager entityManager,
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.deletedCounter = Counter.builder(DELETED_METER_NAME).description(DELETED_METER_DESCRIPTION).register(meterRegistry);
+        this.chunkTimer = Timer.builder(CHUNK_METER_NAME).description(CHUNK_METER_DESCRIPTION).register(meterRegistry);
+        Gauge
+            .builder(RUN_DELETED_METER_NAME, runDeleted, AtomicLong::get)
+            .description(RUN_DELETED_METER_DESCRIPTION)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Delete the not activated users, with an activation key, created before a date.
+     * <p>
+     * Called outside a transaction, each chunk is committed on its own; inside one, the chunks join it.
+     *
+     * @param createdBefore the creation date before which users are deleted.
+     * @return the number of users deleted.
+     */
+    public long purgeNotActivatedUsers(Instant createdBefore) {
+        runDeleted.set(0);
+        long afterId = Long.MIN_VALUE;
+        List<UserRepository.UserKeys> chunk;
+        do {
+            long from = afterId;
+            chunk = chunkTimer.record(() -> transactionTemplate.execute(status -> deleteChunk(createdBefore, from)));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            evictUserCaches(chunk);
+            deletedCounter.increment(chunk.size());
+            afterId = chunk.get(chunk.size() - 1).getId();
+            log.debug("Deleted {} not activated users, {} in total", chunk.size(), runDeleted.addAndGet(chunk.size()));
+        } while (chunk.size() == CHUNK_SIZE);
+        long deleted = runDeleted.get();
+        if (deleted > 0) {
+            log.info("Deleted {} users not activated since {}", deleted, createdBefore);
+        }
+        return deleted;
+    }
+
+    private List<UserRepository.UserKeys> deleteChunk(Instant createdBefore, long afterId) {
+        List<UserRepository.UserKeys> chunk = userRepository.findNotActivatedUserKeys(
+            createdBefore,
+            afterId,
+            PageRequest.of(0, CHUNK_SIZE)
+        );
+        if (!chunk.isEmpty()) {
+            List<Long> ids = chunk.stream().map(UserRepository.UserKeys::getId).collect(Collectors.toList());
+            // The query spaces restrict the second-level cache invalidation to the users and their authorities
+            entityManager
+                .createNativeQuery(DELETE_USER_AUTHORITIES)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(USER_AUTHORITY_TABLE)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+            entityManager
+                .createNativeQuery(DELETE_USERS)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(User.class)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+        }
+        return chunk;
+    }
+
+    private void evictUserCaches(List<UserRepository.UserKeys> chunk) {
+        Set<Object> logins = new HashSet<>();
+        Set<Object> emails = new HashSet<>();
+        for (UserRepository.UserKeys user : chunk) {
+            logins.add(user.getLogin());
+            if (user.getEmail() != null) {
+                emails.add(user.getEmail());
+            }
+        }
+        nativeCache(UserRepository.USERS_BY_LOGIN_CACHE).removeAll(logins);
+        nativeCache(UserRepository.USERS_BY_EMAIL_CACHE).removeAll(emails);
+    }
+
+    @SuppressWarnings("unchecked")
+    private javax.cache.Cache<Object, Object> nativeCache(String name) {
+        return (javax.cache.Cache<Object, Object>) Objects.requireNonNull(cacheManager.getCache(name)).getNativeCache();
+    }
+}
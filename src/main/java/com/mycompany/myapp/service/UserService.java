@@ -21,6 +21,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -41,16 +42,20 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final UserPurgeService userPurgeService;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        UserPurgeService userPurgeService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.userPurgeService = userPurgeService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -273,12 +278,21 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(AdminUserDTO::new);
+        // The columns of the page, then the authorities of all its users in one query: no entity is loaded
+        Page<UserRepository.AdminUserView> page = userRepository.findAllAdminUserViews(pageable);
+        Map<Long, Set<String>> authoritiesByUserId = new HashMap<>();
+        if (page.hasContent()) {
+            List<Long> userIds = page.map(UserRepository.AdminUserView::getId).getContent();
+            for (UserRepository.UserAuthorityName authority : userRepository.findAuthorityNamesByUserIdIn(userIds)) {
+                authoritiesByUserId.computeIfAbsent(authority.getUserId(), id -> new HashSet<>()).add(authority.getAuthorityName());
+            }
+        }
+        return page.map(user -> new AdminUserDTO(user, authoritiesByUserId.getOrDefault(user.getId(), new HashSet<>())));
     }
 
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
-        return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
+        return userRepository.findAllActivatedPublicUserViews(pageable).map(UserDTO::new);
     }
 
     @Transactional(readOnly = true)
@@ -294,17 +308,13 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). Users are deleted in chunks, each in its own transaction, see
+     * {@link UserPurgeService}.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
-            });
+        userPurgeService.purgeNotActivatedUsers(Instant.now().minus(3, ChronoUnit.DAYS));
     }
 
     /**
@@ -0,0 +1,162 @@
+package com.mycompany.myapp.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.mycompany.myapp.domain.Hero} entity. This class is used
+ * in {@link com.mycompany.myapp.web.rest.HeroResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /heroes?id.greaterThan=5&name.startsWith=Spider&name.contains=man}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+public class HeroCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering the name of a hero, which can also be matched on its start.
+     */
+    public static class NameFilter extends StringFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private String startsWith;
+
+        public NameFilter() {}
+
+        public NameFilter(NameFilter filter) {
+            super(filter);
+            this.startsWith = filter.startsWith;
+        }
+
+        @Override
+        public NameFilter copy() {
+            return new NameFilter(this);
+        }
+
+        public String getStartsWith() {
+            return startsWith;
+        }
+
+        public NameFilter setStartsWith(String startsWith) {
+            this.startsWith = startsWith;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            if (!super.equals(o)) {
+                return false;
+            }
+            final NameFilter that = (NameFilter) o;
+            return Objects.equals(startsWith, that.startsWith);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(super.hashCode(), startsWith);
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + (startsWith != null ? "[startsWith=" + startsWith + "]" : "");
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private NameFilter name;
+
+    private Boolean distinct;
+
+    public HeroCriteria() {}
+
+    public HeroCriteria(HeroCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public HeroCriteria copy() {
+        return new HeroCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public NameFilter getName() {
+        return name;
+    }
+
+    public NameFilter name() {
+        if (name == null) {
+            name = new NameFilter();
+        }
+        return name;
+    }
+
+    public void setName(NameFilter name) {
+        this.name = name;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final HeroCriteria that = (HeroCriteria) o;
+        return Objects.equals(id, that.id) && Objects.equals(name, that.name) && Objects.equals(distinct, that.distinct);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HeroCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (name != null ? "name=" + name + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Criteria to filter the entities on, bound from the request parameters.
+ */
+package com.mycompany.myapp.service.criteria;
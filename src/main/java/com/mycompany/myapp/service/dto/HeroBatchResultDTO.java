@@ -0,0 +1,90 @@
+package com.mycompany.myapp.service.dto;
+
+/**
+ * A DTO representing the outcome of one item of a hero batch.
+ */
+public class HeroBatchResultDTO {
+
+    /**
+     * What happened to a batch item.
+     */
+    public enum Status {
+        CREATED,
+        UPDATED,
+        REJECTED,
+    }
+
+    private int index;
+
+    private Long id;
+
+    private String name;
+
+    private Status status;
+
+    private String errorKey;
+
+    public HeroBatchResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public HeroBatchResultDTO(int index, Long id, String name, Status status, String errorKey) {
+        this.index = index;
+        this.id = id;
+        this.name = name;
+        this.status = status;
+        this.errorKey = errorKey;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getErrorKey() {
+        return errorKey;
+    }
+
+    public void setErrorKey(String errorKey) {
+        this.errorKey = errorKey;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HeroBatchResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", name='" + name + '\'' +
+            ", status=" + status +
+            ", errorKey='" + errorKey + '\'' +
+            "}";
+    }
+}
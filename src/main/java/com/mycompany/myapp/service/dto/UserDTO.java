@@ -1,6 +1,7 @@
 package com.mycompany.myapp.service.dto;
 
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
 
 /**
  * A DTO representing a user, with only the public attributes.
@@ -21,6 +22,11 @@ public class UserDTO {
         this.login = user.getLogin();
     }
 
+    public UserDTO(UserRepository.PublicUserView user) {
+        this.id = user.getId();
+        this.login = user.getLogin();
+    }
+
     public Long getId() {
         return id;
     }
@@ -8,6 +8,7 @@ import com.mycompany.myapp.service.UserService;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
 import com.mycompany.myapp.service.dto.PasswordChangeDTO;
 import com.mycompany.myapp.web.rest.errors.*;
+import com.mycompany.myapp.web.rest.util.ETagUtil;
 import com.mycompany.myapp.web.rest.vm.KeyAndPasswordVM;
 import com.mycompany.myapp.web.rest.vm.ManagedUserVM;
 import java.util.*;
@@ -17,6 +18,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -94,15 +96,15 @@ public class AccountResource {
     /**
      * {@code GET  /account} : get the current user.
      *
-     * @return the current user.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the current user in body,
+     * or with status {@code 304 (Not Modified)} if the user has the {@code If-None-Match} ETag.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
-    public AdminUserDTO getAccount() {
-        return userService
-            .getUserWithAuthorities()
-            .map(AdminUserDTO::new)
-            .orElseThrow(() -> new AccountResourceException("User could not be found"));
+    public ResponseEntity<AdminUserDTO> getAccount() {
+        User user = userService.getUserWithAuthorities().orElseThrow(() -> new AccountResourceException("User could not be found"));
+        // The version changes with the user and its authorities: a matching If-None-Match gets a 304 (Not Modified)
+        return ResponseEntity.ok().eTag(ETagUtil.forVersion(user.getId(), user.getVersion())).body(new AdminUserDTO(user));
     }
 
     /**
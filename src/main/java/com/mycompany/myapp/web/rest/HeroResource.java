@@ -2,23 +2,41 @@ package com.mycompany.myapp.web.rest;
 
 import com.mycompany.myapp.domain.Hero;
 import com.mycompany.myapp.repository.HeroRepository;
+import com.mycompany.myapp.service.HeroQueryService;
+import com.mycompany.myapp.service.HeroSearchIndex;
+import com.mycompany.myapp.service.HeroSearchService;
+import com.mycompany.myapp.service.HeroService;
+import com.mycompany.myapp.service.HeroSuggestService;
+import com.mycompany.myapp.service.criteria.HeroCriteria;
+import com.mycompany.myapp.service.dto.HeroBatchResultDTO;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.errors.PreconditionFailedAlertException;
+import com.mycompany.myapp.web.rest.util.ETagUtil;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
@@ -30,7 +48,6 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class HeroResource {
 
     private final Logger log = LoggerFactory.getLogger(HeroResource.class);
@@ -42,8 +59,26 @@ public class HeroResource {
 
     private final HeroRepository heroRepository;
 
-    public HeroResource(HeroRepository heroRepository) {
+    private final HeroService heroService;
+
+    private final HeroSearchService heroSearchService;
+
+    private final HeroSuggestService heroSuggestService;
+
+    private final HeroQueryService heroQueryService;
+
+    public HeroResource(
+        HeroRepository heroRepository,
+        HeroService heroService,
+        HeroSearchService heroSearchService,
+        HeroSuggestService heroSuggestService,
+        HeroQueryService heroQueryService
+    ) {
         this.heroRepository = heroRepository;
+        this.heroService = heroService;
+        this.heroSearchService = heroSearchService;
+        this.heroSuggestService = heroSuggestService;
+        this.heroQueryService = heroQueryService;
     }
 
     /**
@@ -59,26 +94,50 @@ public class HeroResource {
         if (hero.getId() != null) {
             throw new BadRequestAlertException("A new hero cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        Hero result = heroRepository.save(hero);
+        Hero result = heroService.save(hero);
         return ResponseEntity
             .created(new URI("/api/heroes/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /heroes/batch} : Create or update a batch of heroes.
+     * <p>
+     * Heroes without an id are created, heroes with an id are updated. Each hero is validated on its own, so a rejected
+     * hero does not fail the rest of the batch.
+     *
+     * @param heroes the heroes to create or update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each hero, in the order of the batch.
+     */
+    @PostMapping("/heroes/batch")
+    public ResponseEntity<List<HeroBatchResultDTO>> saveHeroes(@NotNull @RequestBody List<Hero> heroes) {
+        log.debug("REST request to save a batch of {} Heroes", heroes.size());
+        return ResponseEntity.ok().body(heroService.saveAll(heroes));
+    }
+
     /**
      * {@code PUT  /heroes/:id} : Updates an existing hero.
+     * <p>
+     * With an {@code If-Match} ETag, the hero is updated in a single statement, only if it is still at that version.
+     * Without, the update overwrites the current version of the hero, read in the same transaction.
      *
      * @param id the id of the hero to save.
+     * @param ifMatch the {@code ETag} of the hero the update was made on, if the update must not overwrite a newer one.
      * @param hero the hero to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated hero,
      * or with status {@code 400 (Bad Request)} if the hero is not valid,
+     * or with status {@code 409 (Conflict)} if the hero was updated concurrently,
+     * or with status {@code 412 (Precondition Failed)} if the hero was updated since the {@code If-Match} ETag was read,
      * or with status {@code 500 (Internal Server Error)} if the hero couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/heroes/{id}")
-    public ResponseEntity<Hero> updateHero(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Hero hero)
-        throws URISyntaxException {
+    public ResponseEntity<Hero> updateHero(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody Hero hero
+    ) throws URISyntaxException {
         log.debug("REST request to update Hero : {}, {}", id, hero);
         if (hero.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -87,31 +146,40 @@ public class HeroResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!heroRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Hero result = heroRepository.save(hero);
+        OptionalLong version = getExpectedVersion(ifMatch);
+        Hero result = ifMatched(
+            ifMatch,
+            () -> version.isPresent() ? heroService.update(hero, version.getAsLong()) : heroService.update(hero, matching(ifMatch))
+        )
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, hero.getId().toString()))
+            .eTag(ETagUtil.forVersion(result.getVersion()))
             .body(result);
     }
 
     /**
      * {@code PATCH  /heroes/:id} : Partial updates given fields of an existing hero, field will ignore if it is null
+     * <p>
+     * With an {@code If-Match} ETag, the hero is updated in a single statement, only if it is still at that version.
+     * Without, the update overwrites the current version of the hero, read in the same transaction.
      *
      * @param id the id of the hero to save.
+     * @param ifMatch the {@code ETag} of the hero the update was made on, if the update must not overwrite a newer one.
      * @param hero the hero to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated hero,
      * or with status {@code 400 (Bad Request)} if the hero is not valid,
      * or with status {@code 404 (Not Found)} if the hero is not found,
+     * or with status {@code 409 (Conflict)} if the hero was updated concurrently,
+     * or with status {@code 412 (Precondition Failed)} if the hero was updated since the {@code If-Match} ETag was read,
      * or with status {@code 500 (Internal Server Error)} if the hero couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/heroes/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Hero> partialUpdateHero(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody Hero hero
     ) throws URISyntaxException {
         log.debug("REST request to partial update Hero partially : {}, {}", id, hero);
@@ -122,52 +190,246 @@ public class HeroResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!heroRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        OptionalLong version = getExpectedVersion(ifMatch);
+        Optional<Hero> result = ifMatched(
+            ifMatch,
+            () ->
+                version.isPresent()
+                    ? heroService.partialUpdate(hero, version.getAsLong())
+                    : heroService.partialUpdate(hero, matching(ifMatch))
+        );
 
-        Optional<Hero> result = heroRepository
-            .findById(hero.getId())
-            .map(existingHero -> {
-                if (hero.getName() != null) {
-                    existingHero.setName(hero.getName());
-                }
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, hero.getId().toString());
+        result.ifPresent(updated -> headers.setETag(ETagUtil.forVersion(updated.getVersion())));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
 
-                return existingHero;
-            })
-            .map(heroRepository::save);
+    /**
+     * The version of the hero an update was made on, if the {@code If-Match} ETag has a single one: the update then takes
+     * a single statement. Otherwise the update reads the current version first, in the same transaction.
+     */
+    private static OptionalLong getExpectedVersion(String ifMatch) {
+        return ifMatch != null ? ETagUtil.parseVersion(ifMatch) : OptionalLong.empty();
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, hero.getId().toString())
-        );
+    /**
+     * Whether the current version of a hero can be updated: always without an {@code If-Match} ETag.
+     */
+    private static LongPredicate matching(String ifMatch) {
+        return version -> ifMatch == null || ETagUtil.matches(ifMatch, ETagUtil.forVersion(version));
+    }
+
+    /**
+     * Run an update: a conflict is a {@code 412 (Precondition Failed)} when the version comes from the client, and a
+     * {@code 409 (Conflict)} when it was read by the update.
+     */
+    private Optional<Hero> ifMatched(String ifMatch, Supplier<Optional<Hero>> update) {
+        try {
+            return update.get();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (ifMatch != null) {
+                throw versionMismatch();
+            }
+            throw e;
+        }
+    }
+
+    private PreconditionFailedAlertException versionMismatch() {
+        return new PreconditionFailedAlertException("The hero was updated since it was read", ENTITY_NAME, "versionmismatch");
     }
 
     /**
      * {@code GET  /heroes} : get all the heroes.
+     * <p>
+     * Filters that cannot use an index, such as {@code name.contains}, are only accepted along with an {@code id.equals},
+     * {@code id.in}, {@code name.equals}, {@code name.in} or {@code name.startsWith} filter, or an id range bounded on both
+     * sides.
      *
+     * @param criteria the criteria which the requested entities should match.
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of heroes in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of heroes in body,
+     * or with status {@code 304 (Not Modified)} if the page has the {@code If-None-Match} ETag,
+     * or with status {@code 400 (Bad Request)} if the criteria cannot use an index.
      */
     @GetMapping("/heroes")
-    public ResponseEntity<List<Hero>> getAllHeroes(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
-        log.debug("REST request to get a page of Heroes");
-        Page<Hero> page = heroRepository.findAll(pageable);
+    public ResponseEntity<List<Hero>> getAllHeroes(
+        HeroCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get Heroes by criteria: {}", criteria);
+        Page<Hero> page = heroQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(ETagUtil.forCollection(page.getContent(), Hero::getId, Hero::getVersion, page.getTotalElements()));
+        // A matching If-None-Match gets a 304 (Not Modified), without the heroes being serialized
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /heroes/count} : count all the heroes.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body,
+     * or with status {@code 400 (Bad Request)} if the criteria cannot use an index.
+     */
+    @GetMapping("/heroes/count")
+    public ResponseEntity<Long> countHeroes(HeroCriteria criteria) {
+        log.debug("REST request to count Heroes by criteria: {}", criteria);
+        return ResponseEntity.ok().body(heroQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /heroes?cursor=} : get a page of heroes using keyset pagination.
+     * <p>
+     * Pass an empty {@code cursor} to get the first page, then follow the {@code next} link. Only sorting on {@code id} or
+     * {@code name} is supported: both are unique and indexed, so seeking on them keeps the latency flat whatever the depth.
+     *
+     * @param cursor the continuation token returned with the previous page, empty for the first page.
+     * @param withCount whether to compute the {@code X-Total-Count} header, which costs an extra {@code count(*)} query.
+     * @param pageable the pagination information, only its size and sort are used.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of heroes in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the sort is not valid.
+     */
+    @GetMapping(value = "/heroes", params = KeysetPaginationUtil.CURSOR_PARAM)
+    public ResponseEntity<List<Hero>> getAllHeroesByCursor(
+        @RequestParam(KeysetPaginationUtil.CURSOR_PARAM) String cursor,
+        @RequestParam(value = "withCount", defaultValue = "false") boolean withCount,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a keyset page of Heroes");
+        Sort.Order order = getKeysetOrder(pageable.getSort());
+        int size = pageable.getPageSize();
+        // Fetch one extra row to know whether there is a next page, without counting
+        Pageable seek = PageRequest.of(0, size + 1, Sort.by(order));
+        List<Hero> heroes = cursor.isEmpty() ? heroRepository.findAllBy(seek) : seekHeroes(order, cursor, seek);
+        String nextCursor = null;
+        if (heroes.size() > size) {
+            heroes = heroes.subList(0, size);
+            Hero last = heroes.get(size - 1);
+            nextCursor = KeysetPaginationUtil.encodeCursor(order, isNameOrder(order) ? last.getName() : last.getId().toString());
+        }
+        Long total = withCount ? heroRepository.count() : null;
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            nextCursor,
+            total
+        );
+        return ResponseEntity.ok().headers(headers).body(heroes);
+    }
+
+    private Sort.Order getKeysetOrder(Sort sort) {
+        if (sort.stream().count() > 1) {
+            // The cursor only holds the key of one order, it cannot seek on a secondary one
+            throw new BadRequestAlertException("Keyset pagination can only be sorted by a single property", ENTITY_NAME, "sortinvalid");
+        }
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+        if (!"id".equals(order.getProperty()) && !"name".equals(order.getProperty())) {
+            throw new BadRequestAlertException("Keyset pagination can only be sorted by id or name", ENTITY_NAME, "sortinvalid");
+        }
+        return new Sort.Order(order.getDirection(), order.getProperty());
+    }
+
+    private boolean isNameOrder(Sort.Order order) {
+        return "name".equals(order.getProperty());
+    }
+
+    private List<Hero> seekHeroes(Sort.Order order, String cursor, Pageable seek) {
+        KeysetPaginationUtil.Cursor decoded;
+        try {
+            decoded = KeysetPaginationUtil.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        Sort.Order cursorOrder = decoded.getOrder();
+        if (!order.getProperty().equals(cursorOrder.getProperty()) || order.getDirection() != cursorOrder.getDirection()) {
+            throw new BadRequestAlertException("The cursor does not match the requested sort", ENTITY_NAME, "cursorinvalid");
+        }
+        String lastKey = decoded.getLastKey();
+        if (isNameOrder(order)) {
+            return order.isAscending()
+                ? heroRepository.findAllByNameGreaterThan(lastKey, seek)
+                : heroRepository.findAllByNameLessThan(lastKey, seek);
+        }
+        Long lastId;
+        try {
+            lastId = Long.valueOf(lastKey);
+        } catch (NumberFormatException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+        return order.isAscending() ? heroRepository.findAllByIdGreaterThan(lastId, seek) : heroRepository.findAllByIdLessThan(lastId, seek);
+    }
+
+    /**
+     * {@code GET  /heroes/_search?q=} : search the heroes by name.
+     * <p>
+     * Heroes whose name has words starting with the words of the query come first, then heroes whose name contains the
+     * query, then heroes whose name is within a typo or two of it. The {@code X-Total-Count} header counts all the matching
+     * heroes, but only the first {@value HeroSearchIndex#MAX_MATCHES} can be paged through.
+     *
+     * @param query the query.
+     * @param pageable the pagination information, its sort is ignored.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching heroes in body.
+     */
+    @GetMapping("/heroes/_search")
+    public ResponseEntity<List<Hero>> searchHeroes(
+        @RequestParam("q") String query,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search a page of Heroes for query {}", query);
+        Page<Hero> page = heroSearchService.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /heroes/_suggest?prefix=} : suggest hero names as the user types.
+     * <p>
+     * Served from a trie held in memory, without a transaction, and rebuilt shortly after the heroes change: a name may be
+     * missing for a moment after its hero is created or renamed.
+     *
+     * @param prefix the start of the names, matched ignoring case, accents and punctuation.
+     * @param limit the maximum number of names, up to {@value HeroSuggestService#MAX_SUGGESTIONS}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the sorted list of names in body.
+     */
+    @GetMapping("/heroes/_suggest")
+    public ResponseEntity<List<String>> suggestHeroNames(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        log.debug("REST request to suggest Hero names for prefix {}", prefix);
+        return ResponseEntity.ok(heroSuggestService.suggest(prefix, limit));
+    }
+
+    /**
+     * {@code GET  /heroes/export} : export all the heroes as newline-delimited JSON.
+     * <p>
+     * The heroes are streamed from the database straight to the response body, one JSON object per line.
+     *
+     * @param response the response to write the heroes to, with status {@code 200 (OK)}.
+     * @throws IOException if writing the response fails.
+     */
+    @GetMapping(value = "/heroes/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportHeroes(HttpServletResponse response) throws IOException {
+        log.debug("REST request to export all Heroes");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        heroService.exportAsNdjson(response.getOutputStream());
+    }
+
     /**
      * {@code GET  /heroes/:id} : get the "id" hero.
      *
      * @param id the id of the hero to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the hero, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the hero,
+     * or with status {@code 304 (Not Modified)} if the hero has the {@code If-None-Match} ETag,
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/heroes/{id}")
     public ResponseEntity<Hero> getHero(@PathVariable Long id) {
         log.debug("REST request to get Hero : {}", id);
-        Optional<Hero> hero = heroRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(hero);
+        Optional<Hero> hero = heroService.findOne(id);
+        HttpHeaders headers = hero.map(found -> ETagUtil.createETagHeaders(ETagUtil.forVersion(found.getVersion()))).orElse(null);
+        // A matching If-None-Match gets a 304 (Not Modified), without the hero being serialized
+        return ResponseUtil.wrapOrNotFound(hero, headers);
     }
 
     /**
@@ -179,7 +441,7 @@ public class HeroResource {
     @DeleteMapping("/heroes/{id}")
     public ResponseEntity<Void> deleteHero(@PathVariable Long id) {
         log.debug("REST request to delete Hero : {}", id);
-        heroRepository.deleteById(id);
+        heroService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
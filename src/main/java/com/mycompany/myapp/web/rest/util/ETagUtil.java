@@ -0,0 +1,127 @@
+package com.mycompany.myapp.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Utility class for the entity tags of versioned entities.
+ * <p>
+ * The tags are strong: they change with the version of the entity, incremented on every update, so a
+ * {@code GET} with a matching {@code If-None-Match} gets a {@code 304 (Not Modified)} without its body being serialized,
+ * and a write with an {@code If-Match} that does not match fails with a {@code 412 (Precondition Failed)}.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private static final int COLLECTION_TAG_BYTES = 16;
+
+    private ETagUtil() {}
+
+    /**
+     * The entity tag of a version of an entity.
+     *
+     * @param version the version of the entity.
+     * @return the quoted entity tag.
+     */
+    public static String forVersion(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The entity tag of a version of an entity whose URL does not identify it, such as the current user.
+     *
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @return the quoted entity tag.
+     */
+    public static String forVersion(Object id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * The entity tag of a page of entities: a digest of their ids and versions, in order, and of the total number of
+     * entities, so it changes when an entity of the page is updated or when the page is shifted.
+     *
+     * @param entities the entities of the page.
+     * @param id the function returning the id of an entity.
+     * @param version the function returning the version of an entity.
+     * @param total the total number of entities.
+     * @param <T> the type of the entities.
+     * @return the quoted entity tag.
+     */
+    public static <T> String forCollection(Collection<T> entities, Function<T, ?> id, ToLongFunction<T> version, long total) {
+        MessageDigest digest = sha256();
+        StringBuilder state = new StringBuilder().append(total);
+        for (T entity : entities) {
+            state.append(';').append(id.apply(entity)).append(':').append(version.applyAsLong(entity));
+        }
+        byte[] hash = Arrays.copyOf(digest.digest(state.toString().getBytes(StandardCharsets.UTF_8)), COLLECTION_TAG_BYTES);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+    }
+
+    /**
+     * Whether an {@code If-Match} header matches the current entity tag of an entity, using the strong comparison.
+     *
+     * @param ifMatch the value of the {@code If-Match} header: {@code *}, or a comma separated list of entity tags.
+     * @param eTag the current entity tag of the entity.
+     * @return whether the entity can be written.
+     */
+    public static boolean matches(String ifMatch, String eTag) {
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            // Weak tags never match strongly
+            if (ANY.equals(trimmed) || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an {@code If-Match} header holds, when it is the single entity tag of a version.
+     *
+     * @param ifMatch the value of the {@code If-Match} header.
+     * @return the version, or empty if the header is {@code *}, a list, a weak tag, or not the tag of a version.
+     */
+    public static OptionalLong parseVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(tag.substring(1, tag.length() - 1)));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Generate the headers of a response carrying an entity tag.
+     *
+     * @param eTag the quoted entity tag.
+     * @return {@link HttpHeaders} with {@code ETag}.
+     */
+    public static HttpHeaders createETagHeaders(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return headers;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform implements SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
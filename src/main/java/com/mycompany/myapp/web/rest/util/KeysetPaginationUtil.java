@@ -0,0 +1,115 @@
+package com.mycompany.myapp.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Base64;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * This is the counterpart of {@link tech.jhipster.web.util.PaginationUtil} for endpoints that seek on an indexed key
+ * instead of using OFFSET/LIMIT. The continuation token is opaque to clients: it is the URL-safe Base64 encoding of the
+ * sort property, the sort direction and the last key of the previous page.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+    private static final String HEADER_X_NEXT_CURSOR = "X-Next-Cursor";
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+    private static final String CURSOR_SEPARATOR = ",";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode a continuation token.
+     *
+     * @param order the sort order the page was read with.
+     * @param lastKey the sort key of the last element of the page.
+     * @return the opaque continuation token.
+     */
+    public static String encodeCursor(Sort.Order order, String lastKey) {
+        String raw = order.getProperty() + CURSOR_SEPARATOR + order.getDirection().name() + CURSOR_SEPARATOR + lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token.
+     *
+     * @param token the opaque continuation token.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static Cursor decodeCursor(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split(CURSOR_SEPARATOR, 3);
+        if (parts.length != 3 || parts[0].isEmpty() || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new Cursor(new Sort.Order(Sort.Direction.valueOf(parts[1]), parts[0]), parts[2]);
+    }
+
+    /**
+     * Generate keyset pagination headers.
+     *
+     * @param uriBuilder a {@link UriComponentsBuilder} for the current request.
+     * @param nextCursor the continuation token of the next page, or {@code null} if this is the last page.
+     * @param total the total number of elements, or {@code null} if it was not requested.
+     * @return {@link HttpHeaders} with {@code Link}, {@code X-Next-Cursor} and optionally {@code X-Total-Count}.
+     */
+    public static HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, String nextCursor, Long total) {
+        HttpHeaders headers = new HttpHeaders();
+        if (total != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(total));
+        }
+        StringBuilder link = new StringBuilder();
+        if (nextCursor != null) {
+            headers.add(HEADER_X_NEXT_CURSOR, nextCursor);
+            link.append(prepareLinkWithCursor(uriBuilder, nextCursor, "next")).append(",");
+        }
+        link.append(prepareLinkWithCursor(uriBuilder, "", "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLinkWithCursor(UriComponentsBuilder uriBuilder, String cursor, String relType) {
+        return MessageFormat.format(HEADER_LINK_FORMAT, preparePageUri(uriBuilder, cursor), relType);
+    }
+
+    private static String preparePageUri(UriComponentsBuilder uriBuilder, String cursor) {
+        return uriBuilder
+            .cloneBuilder()
+            .replaceQueryParam("page")
+            .replaceQueryParam(CURSOR_PARAM, cursor)
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+    }
+
+    /**
+     * A decoded continuation token.
+     */
+    public static final class Cursor {
+
+        private final Sort.Order order;
+
+        private final String lastKey;
+
+        private Cursor(Sort.Order order, String lastKey) {
+            this.order = order;
+            this.lastKey = lastKey;
+        }
+
+        public Sort.Order getOrder() {
+            return order;
+        }
+
+        public String getLastKey() {
+            return lastKey;
+        }
+    }
+}
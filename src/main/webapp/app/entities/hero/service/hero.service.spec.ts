@@ -71,6 +71,21 @@ describe('Hero Service', () => {
       expect(expectedResult).toMatchObject(expected);
     });
 
+    it('should update a Hero only if it is still at the version it was read at', () => {
+      service.find(123).subscribe();
+      httpMock.expectOne({ method: 'GET' }).flush({ id: 123, name: 'AAAAAAA' }, { headers: { ETag: '"4"' } });
+
+      service.update({ id: 123, name: 'BBBBBB' }).subscribe();
+
+      const req = httpMock.expectOne({ method: 'PUT' });
+      expect(req.request.headers.get('If-Match')).toEqual('"4"');
+      req.flush({ id: 123, name: 'BBBBBB' }, { headers: { ETag: '"5"' } });
+
+      service.partialUpdate({ id: 123, name: 'CCCCCC' }).subscribe();
+
+      expect(httpMock.expectOne({ method: 'PATCH' }).request.headers.get('If-Match')).toEqual('"5"');
+    });
+
     it('should partial update a Hero', () => {
       const patchObject = Object.assign(
         {
@@ -109,6 +124,18 @@ describe('Hero Service', () => {
       expect(expectedResult).toContainEqual(expected);
     });
 
+    it('should suggest Hero names', () => {
+      let suggestions: string[] | null = null;
+
+      service.suggest('sp', 5).subscribe(names => (suggestions = names));
+
+      const req = httpMock.expectOne(request => request.method === 'GET' && request.url.endsWith('/_suggest'));
+      expect(req.request.params.get('prefix')).toEqual('sp');
+      expect(req.request.params.get('limit')).toEqual('5');
+      req.flush(['Spider', 'Spider-Man']);
+      expect(suggestions).toEqual(['Spider', 'Spider-Man']);
+    });
+
     it('should delete a Hero', () => {
       service.delete(123).subscribe(resp => (expectedResult = resp.ok));
 
@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpResponse } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpResponse } from '@angular/common/http';
 import { Observable } from 'rxjs';
+import { tap } from 'rxjs/operators';
 
 import { isPresent } from 'app/core/util/operators';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
@@ -13,6 +14,8 @@ export type EntityArrayResponseType = HttpResponse<IHero[]>;
 @Injectable({ providedIn: 'root' })
 export class HeroService {
   protected resourceUrl = this.applicationConfigService.getEndpointFor('api/heroes');
+  // The ETag of each hero when last read or written, sent back as If-Match so an update cannot overwrite a newer version
+  protected eTags = new Map<number, string>();
 
   constructor(protected http: HttpClient, protected applicationConfigService: ApplicationConfigService) {}
 
@@ -21,15 +24,21 @@ export class HeroService {
   }
 
   update(hero: IHero): Observable<EntityResponseType> {
-    return this.http.put<IHero>(`${this.resourceUrl}/${getHeroIdentifier(hero) as number}`, hero, { observe: 'response' });
+    const id = getHeroIdentifier(hero) as number;
+    return this.http
+      .put<IHero>(`${this.resourceUrl}/${id}`, hero, { headers: this.ifMatch(id), observe: 'response' })
+      .pipe(tap(res => this.keepETag(id, res)));
   }
 
   partialUpdate(hero: IHero): Observable<EntityResponseType> {
-    return this.http.patch<IHero>(`${this.resourceUrl}/${getHeroIdentifier(hero) as number}`, hero, { observe: 'response' });
+    const id = getHeroIdentifier(hero) as number;
+    return this.http
+      .patch<IHero>(`${this.resourceUrl}/${id}`, hero, { headers: this.ifMatch(id), observe: 'response' })
+      .pipe(tap(res => this.keepETag(id, res)));
   }
 
   find(id: number): Observable<EntityResponseType> {
-    return this.http.get<IHero>(`${this.resourceUrl}/${id}`, { observe: 'response' });
+    return this.http.get<IHero>(`${this.resourceUrl}/${id}`, { observe: 'response' }).pipe(tap(res => this.keepETag(id, res)));
   }
 
   query(req?: any): Observable<EntityArrayResponseType> {
@@ -37,8 +46,13 @@ export class HeroService {
     return this.http.get<IHero[]>(this.resourceUrl, { params: options, observe: 'response' });
   }
 
+  suggest(prefix: string, limit?: number): Observable<string[]> {
+    const options = createRequestOption(limit === undefined ? { prefix } : { prefix, limit });
+    return this.http.get<string[]>(`${this.resourceUrl}/_suggest`, { params: options });
+  }
+
   delete(id: number): Observable<HttpResponse<{}>> {
-    return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
+    return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' }).pipe(tap(() => this.eTags.delete(id)));
   }
 
   addHeroToCollectionIfMissing(heroCollection: IHero[], ...heroesToCheck: (IHero | null | undefined)[]): IHero[] {
@@ -57,4 +71,16 @@ export class HeroService {
     }
     return heroCollection;
   }
+
+  protected ifMatch(id: number): HttpHeaders {
+    const eTag = this.eTags.get(id);
+    return eTag ? new HttpHeaders({ 'If-Match': eTag }) : new HttpHeaders();
+  }
+
+  protected keepETag(id: number, res: HttpResponse<unknown>): void {
+    const eTag = res.headers.get('ETag');
+    if (eTag) {
+      this.eTags.set(id, eTag);
+    }
+  }
 }
@@ -0,0 +1,119 @@
+package com.mycompany.myapp.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Method;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.mock.env.MockEnvironment;
+
+class LoggingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProceedingJoinPoint joinPoint;
+
+    private MethodSignature signature;
+
+    private Sample sample;
+
+    private Method method;
+
+    @BeforeEach
+    public void setup() throws Throwable {
+        meterRegistry = new SimpleMeterRegistry();
+        sample = new Sample();
+        method = Sample.class.getMethod("call");
+
+        signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getName()).thenReturn(method.getName());
+        when(signature.getDeclaringTypeName()).thenReturn(Sample.class.getName());
+        when(signature.getDeclaringType()).thenReturn(Sample.class);
+
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getThis()).thenReturn(sample);
+        when(joinPoint.getTarget()).thenReturn(sample);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[0]);
+        when(joinPoint.proceed()).thenReturn("result");
+    }
+
+    @Test
+    void testLooksUpTheJoinPointOnce() throws Throwable {
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment());
+
+        assertThat(invoke(loggingAspect)).isEqualTo("result");
+        assertThat(invoke(loggingAspect)).isEqualTo("result");
+
+        verify(signature, times(1)).getDeclaringTypeName();
+        verify(signature, never()).getMethod();
+        assertThat(meterRegistry.find(LoggingAspect.METHOD_TIMER_METER_NAME).timer()).isNull();
+    }
+
+    @Test
+    void testTimesTheSampledCalls() throws Throwable {
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), meterRegistry, 1, false);
+
+        invoke(loggingAspect);
+        invoke(loggingAspect);
+
+        assertThat(
+            meterRegistry
+                .get(LoggingAspect.METHOD_TIMER_METER_NAME)
+                .tag(LoggingAspect.METHOD_TIMER_LAYER_DIMENSION, "other")
+                .tag(LoggingAspect.METHOD_TIMER_CLASS_DIMENSION, "Sample")
+                .tag(LoggingAspect.METHOD_TIMER_METHOD_DIMENSION, "call")
+                .timer()
+                .count()
+        )
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testDoesNotTimeWithoutSampling() throws Throwable {
+        LoggingAspect loggingAspect = new LoggingAspect(new MockEnvironment(), meterRegistry, 0, false);
+
+        invoke(loggingAspect);
+
+        assertThat(meterRegistry.find(LoggingAspect.METHOD_TIMER_METER_NAME).timer()).isNull();
+    }
+
+    @Test
+    void testPublishesAPercentileHistogramOnlyWhenEnabled() throws Throwable {
+        invoke(new LoggingAspect(new MockEnvironment(), meterRegistry, 1, false));
+        assertThat(meterRegistry.get(LoggingAspect.METHOD_TIMER_METER_NAME).timer().takeSnapshot().histogramCounts()).isEmpty();
+
+        SimpleMeterRegistry histogramRegistry = new SimpleMeterRegistry();
+        invoke(new LoggingAspect(new MockEnvironment(), histogramRegistry, 1, true));
+        assertThat(histogramRegistry.get(LoggingAspect.METHOD_TIMER_METER_NAME).timer().takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    /**
+     * Call the advice as Spring AOP does, with the invocation exposed.
+     */
+    private Object invoke(LoggingAspect loggingAspect) throws Throwable {
+        ProxyMethodInvocation invocation = mock(ProxyMethodInvocation.class);
+        when(invocation.getProxy()).thenReturn(sample);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenAnswer(call -> loggingAspect.logAround(joinPoint));
+        return ExposeInvocationInterceptor.INSTANCE.invoke(invocation);
+    }
+
+    public static class Sample {
+
+        public String call() {
+            return "result";
+        }
+    }
+}
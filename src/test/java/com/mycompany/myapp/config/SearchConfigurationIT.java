@@ -0,0 +1,80 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.cache.CacheInvalidation;
+import com.mycompany.myapp.config.cache.LoopbackCacheInvalidationTransport;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import com.mycompany.myapp.service.HeroSearchService;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link SearchConfiguration}, with the writes of another node of the cluster made behind the back
+ * of Hibernate, and its invalidations sent on the loopback bus.
+ */
+@IntegrationTest
+class SearchConfigurationIT {
+
+    @Autowired
+    private LoopbackCacheInvalidationTransport transport;
+
+    @Autowired
+    private HeroRepository heroRepository;
+
+    @Autowired
+    private HeroSearchService heroSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LoopbackCacheInvalidationTransport nodeB;
+
+    private String suffix;
+
+    private Hero hero;
+
+    @BeforeEach
+    void setUp() {
+        nodeB = transport.getBus().connect();
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        // Not transactional: only the committed heroes are indexed
+        hero = heroRepository.saveAndFlush(new Hero().name("Local " + suffix));
+    }
+
+    @AfterEach
+    void tearDown() {
+        heroRepository.findById(hero.getId()).ifPresent(heroRepository::delete);
+    }
+
+    @Test
+    void testHeroesRenamedByAnotherNodeAreReindexed() {
+        jdbcTemplate.update("update hero set name = ? where id = ?", "Remote " + suffix, hero.getId());
+
+        nodeB.send(CacheInvalidation.ofKeys("node-b", SearchConfiguration.HERO_NAMES_INVALIDATION, List.of(hero.getId())));
+
+        assertThat(searchIds("remote " + suffix)).containsExactly(hero.getId());
+        assertThat(searchIds("local " + suffix)).isEmpty();
+    }
+
+    @Test
+    void testHeroesDeletedByAnotherNodeAreRemoved() {
+        jdbcTemplate.update("delete from hero where id = ?", hero.getId());
+
+        nodeB.send(CacheInvalidation.ofKeys("node-b", SearchConfiguration.HERO_NAMES_INVALIDATION, List.of(hero.getId())));
+
+        assertThat(searchIds("local " + suffix)).isEmpty();
+    }
+
+    private List<Long> searchIds(String query) {
+        return heroSearchService.search(query, PageRequest.of(0, 10)).map(Hero::getId).getContent();
+    }
+}
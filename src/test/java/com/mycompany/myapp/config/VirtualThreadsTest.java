@@ -0,0 +1,27 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link VirtualThreads}.
+ */
+class VirtualThreadsTest {
+
+    @Test
+    void testThreadFactoryMatchesTheJavaRuntime() throws Exception {
+        Optional<ThreadFactory> threadFactory = VirtualThreads.threadFactory("test-");
+
+        if (Runtime.version().feature() < 21) {
+            assertThat(threadFactory).isEmpty();
+            return;
+        }
+        assertThat(threadFactory).isPresent();
+        Thread thread = threadFactory.get().newThread(() -> {});
+        assertThat(thread.getName()).isEqualTo("test-0");
+        assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+    }
+}
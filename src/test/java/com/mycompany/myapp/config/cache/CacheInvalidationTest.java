@@ -0,0 +1,52 @@
+package com.mycompany.myapp.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CacheInvalidation}.
+ */
+class CacheInvalidationTest {
+
+    @Test
+    void testKeysAreDecodedWithTheirType() {
+        byte[] bytes = CacheInvalidation.ofKeys("node", "cache", List.of("johndoe", 1L, 2)).toBytes();
+
+        CacheInvalidation invalidation = CacheInvalidation.fromBytes(bytes, bytes.length);
+
+        assertThat(invalidation.getOrigin()).isEqualTo("node");
+        assertThat(invalidation.getCacheName()).isEqualTo("cache");
+        assertThat(invalidation.isAll()).isFalse();
+        assertThat(invalidation.getKeys()).containsExactly("johndoe", 1L, 2);
+    }
+
+    @Test
+    void testWholeCacheInvalidationIsDecoded() {
+        byte[] bytes = CacheInvalidation.ofAll("node", "cache").toBytes();
+
+        CacheInvalidation invalidation = CacheInvalidation.fromBytes(bytes, bytes.length);
+
+        assertThat(invalidation.isAll()).isTrue();
+        assertThat(invalidation.getKeys()).isEmpty();
+    }
+
+    @Test
+    void testOnlyStringAndIntegralKeysArePortable() {
+        assertThat(CacheInvalidation.isPortable("johndoe@localhost")).isTrue();
+        assertThat(CacheInvalidation.isPortable(1L)).isTrue();
+        assertThat(CacheInvalidation.isPortable("two\nlines")).isFalse();
+        assertThat(CacheInvalidation.isPortable(UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    void testGarbageIsRejected() {
+        byte[] bytes = "node\ncache\nX1".getBytes(StandardCharsets.UTF_8);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> CacheInvalidation.fromBytes(bytes, bytes.length));
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.myapp.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link CacheRegionMetrics}.
+ */
+@IntegrationTest
+class CacheRegionMetricsIT {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Test
+    void testRegionsWithoutConfigurationOnlyHaveTheDefaultHeapTier() {
+        double heapCapacity = meterRegistry
+            .get(CacheRegionMetrics.TIER_CAPACITY_METER_NAME)
+            .tags(CacheRegionMetrics.CACHE_DIMENSION, UserRepository.USERS_BY_LOGIN_CACHE, CacheRegionMetrics.TIER_DIMENSION, "heap")
+            .gauge()
+            .value();
+
+        assertThat(heapCapacity).isEqualTo(jHipsterProperties.getCache().getEhcache().getMaxEntries());
+        assertThat(
+            meterRegistry
+                .find(CacheRegionMetrics.TIER_CAPACITY_METER_NAME)
+                .tags(CacheRegionMetrics.CACHE_DIMENSION, UserRepository.USERS_BY_LOGIN_CACHE, CacheRegionMetrics.TIER_DIMENSION, "offheap")
+                .gauge()
+        )
+            .isNull();
+    }
+
+    @Test
+    void testTierEntriesFollowThePutsAndEvictions() {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        double entries = tierStatistic(CacheRegionMetrics.TIER_ENTRIES_METER_NAME, UserRepository.USERS_BY_EMAIL_CACHE);
+
+        cache.put("cache-region-tiers@localhost", "user");
+
+        assertThat(tierStatistic(CacheRegionMetrics.TIER_ENTRIES_METER_NAME, UserRepository.USERS_BY_EMAIL_CACHE)).isEqualTo(entries + 1);
+
+        cache.evict("cache-region-tiers@localhost");
+
+        assertThat(tierStatistic(CacheRegionMetrics.TIER_ENTRIES_METER_NAME, UserRepository.USERS_BY_EMAIL_CACHE)).isEqualTo(entries);
+    }
+
+    private double tierStatistic(String meterName, String cacheName) {
+        return meterRegistry
+            .get(meterName)
+            .tags(CacheRegionMetrics.CACHE_DIMENSION, cacheName, CacheRegionMetrics.TIER_DIMENSION, "heap")
+            .gauge()
+            .value();
+    }
+
+    @Test
+    void testHitRatioIsReadFromTheRegionStatistics() {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        cache.put("cache-region-metrics@localhost", "user");
+        cache.get("cache-region-metrics@localhost");
+        cache.evict("cache-region-metrics@localhost");
+
+        double hitRatio = meterRegistry
+            .get(CacheRegionMetrics.HIT_RATIO_METER_NAME)
+            .tag(CacheRegionMetrics.CACHE_DIMENSION, UserRepository.USERS_BY_EMAIL_CACHE)
+            .gauge()
+            .value();
+
+        assertThat(hitRatio).isGreaterThan(0).isLessThanOrEqualTo(1);
+    }
+}
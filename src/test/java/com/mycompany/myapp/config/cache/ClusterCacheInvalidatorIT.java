@@ -0,0 +1,101 @@
+package com.mycompany.myapp.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.UUID;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link ClusterCacheInvalidator}, with the second-level cache of the application as node A and a
+ * cache manager of its own, on the same loopback bus, as node B.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+class ClusterCacheInvalidatorIT {
+
+    private static final String HERO_REGION = Hero.class.getName();
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private LoopbackCacheInvalidationTransport transport;
+
+    @Autowired
+    private HeroRepository heroRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private CacheManager nodeB;
+
+    private ClusterCacheInvalidator invalidatorB;
+
+    private Long heroId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        nodeB =
+            provider.getCacheManager(
+                URI.create("urn:cluster-cache-invalidator-it:b:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader())
+            );
+        nodeB.createCache(HERO_REGION, new MutableConfiguration<Object, Object>());
+        invalidatorB = new ClusterCacheInvalidator(nodeB, transport.getBus().connect(), null, new SimpleMeterRegistry(), Runnable::run);
+        invalidatorB.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        invalidatorB.stop();
+        nodeB.close();
+        if (heroId != null) {
+            transactionTemplate.executeWithoutResult(status -> heroRepository.deleteById(heroId));
+        }
+    }
+
+    @Test
+    void testHeroUpdatedOnNodeAIsRemovedFromNodeB() throws InterruptedException {
+        heroId = transactionTemplate.execute(status -> heroRepository.saveAndFlush(new Hero().name("Cluster hero")).getId());
+        Cache<Object, Object> heroRegionB = nodeB.getCache(HERO_REGION);
+        heroRegionB.put(heroId, "the hero read by node B");
+
+        transactionTemplate.executeWithoutResult(status -> heroRepository.findById(heroId).orElseThrow().setName("Updated cluster hero"));
+
+        assertThat(awaitRemoval(heroRegionB, heroId)).isTrue();
+    }
+
+    /**
+     * Wait for the invalidation, sent by node A from its own thread.
+     */
+    private static boolean awaitRemoval(Cache<Object, Object> cache, Object key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (cache.containsKey(key)) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,176 @@
+package com.mycompany.myapp.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ClusterCacheInvalidator}, with two nodes on a loopback bus.
+ */
+class ClusterCacheInvalidatorTest {
+
+    private static final String CACHE_NAME = "usersByLogin";
+
+    private static final String INDEX_NAME = "heroNames";
+
+    private CacheManager nodeA;
+
+    private CacheManager nodeB;
+
+    private MeterRegistry meterRegistryA;
+
+    private MeterRegistry meterRegistryB;
+
+    private ClusterCacheInvalidator invalidatorA;
+
+    private ClusterCacheInvalidator invalidatorB;
+
+    @BeforeEach
+    void setUp() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        nodeA = createCacheManager(provider, "a");
+        nodeB = createCacheManager(provider, "b");
+        meterRegistryA = new SimpleMeterRegistry();
+        meterRegistryB = new SimpleMeterRegistry();
+
+        LoopbackCacheInvalidationTransport.Bus bus = new LoopbackCacheInvalidationTransport.Bus();
+        // Sending from the calling thread, so each removal has reached the other node when it returns
+        invalidatorA = new ClusterCacheInvalidator(nodeA, bus.connect(), null, meterRegistryA, Runnable::run);
+        invalidatorB = new ClusterCacheInvalidator(nodeB, bus.connect(), null, meterRegistryB, Runnable::run);
+        invalidatorA.start();
+        invalidatorB.start();
+    }
+
+    private CacheManager createCacheManager(EhcacheCachingProvider provider, String node) {
+        CacheManager cacheManager = provider.getCacheManager(
+            URI.create("urn:cluster-cache-invalidator-test:" + node + ":" + UUID.randomUUID()),
+            new DefaultConfiguration(getClass().getClassLoader())
+        );
+        cacheManager.createCache(CACHE_NAME, new MutableConfiguration<Object, Object>());
+        return cacheManager;
+    }
+
+    @AfterEach
+    void tearDown() {
+        invalidatorA.stop();
+        invalidatorB.stop();
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void testRemovedKeysAreRemovedFromTheOtherNodes() {
+        putOnBothNodes("johndoe", "user");
+        putOnBothNodes("janedoe", "user");
+
+        cache(nodeA).remove("johndoe");
+
+        assertThat(cache(nodeB).containsKey("johndoe")).isFalse();
+        assertThat(cache(nodeB).containsKey("janedoe")).isTrue();
+        assertThat(keysCount(meterRegistryA, "sent")).isEqualTo(1);
+        assertThat(keysCount(meterRegistryB, "received")).isEqualTo(1);
+    }
+
+    @Test
+    void testRemoteInvalidationsAreNotSentBack() {
+        putOnBothNodes(1L, "hero");
+        putOnBothNodes(2L, "hero");
+
+        cache(nodeA).removeAll(Set.of(1L, 2L));
+
+        assertThat(cache(nodeB).containsKey(1L)).isFalse();
+        assertThat(cache(nodeB).containsKey(2L)).isFalse();
+        assertThat(keysCount(meterRegistryB, "sent")).isZero();
+        assertThat(keysCount(meterRegistryA, "received")).isZero();
+    }
+
+    @Test
+    void testNonPortableKeysInvalidateTheWholeCache() {
+        UUID key = UUID.randomUUID();
+        putOnBothNodes(key, "value");
+        putOnBothNodes("johndoe", "user");
+
+        cache(nodeA).remove(key);
+
+        assertThat(cache(nodeB).iterator().hasNext()).isFalse();
+        assertThat(cache(nodeA).containsKey("johndoe")).isTrue();
+    }
+
+    @Test
+    void testUpdatedKeysAreRemovedFromTheOtherNodes() {
+        putOnBothNodes("johndoe", "user");
+
+        cache(nodeA).put("johndoe", "updated user");
+
+        assertThat(cache(nodeB).containsKey("johndoe")).isFalse();
+        assertThat(keysCount(meterRegistryA, "sent")).isEqualTo(1);
+    }
+
+    @Test
+    void testNewKeysAreNotSent() {
+        cache(nodeB).put("johndoe", "user");
+
+        cache(nodeA).put("johndoe", "user");
+
+        assertThat(cache(nodeB).get("johndoe")).isEqualTo("user");
+        assertThat(keysCount(meterRegistryA, "sent")).isZero();
+    }
+
+    @Test
+    void testInvalidationsOfANameAreGivenToItsListeners() {
+        List<CacheInvalidation> receivedByA = new ArrayList<>();
+        List<CacheInvalidation> receivedByB = new ArrayList<>();
+        invalidatorA.addListener(INDEX_NAME, receivedByA::add);
+        invalidatorB.addListener(INDEX_NAME, receivedByB::add);
+
+        invalidatorA.invalidate(INDEX_NAME, 42L);
+
+        assertThat(receivedByA).isEmpty();
+        assertThat(receivedByB).singleElement().satisfies(invalidation -> assertThat(invalidation.getKeys()).containsExactly(42L));
+        assertThat(keysCount(meterRegistryB, "received")).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidationsSentWhileApplyingTheOnesOfAnotherNodeAreDropped() {
+        List<CacheInvalidation> receivedByA = new ArrayList<>();
+        invalidatorA.addListener(INDEX_NAME, receivedByA::add);
+        invalidatorB.addListener(INDEX_NAME, invalidation -> invalidatorB.invalidate(INDEX_NAME, 42L));
+
+        invalidatorA.invalidate(INDEX_NAME, 42L);
+
+        assertThat(receivedByA).isEmpty();
+        assertThat(keysCount(meterRegistryB, "sent")).isZero();
+    }
+
+    private void putOnBothNodes(Object key, Object value) {
+        cache(nodeA).put(key, value);
+        cache(nodeB).put(key, value);
+    }
+
+    private static Cache<Object, Object> cache(CacheManager cacheManager) {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private static double keysCount(MeterRegistry meterRegistry, String direction) {
+        return meterRegistry
+            .get(ClusterCacheInvalidator.KEYS_METER_NAME)
+            .tag(ClusterCacheInvalidator.KEYS_METER_DIRECTION_DIMENSION, direction)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,25 @@
+package com.mycompany.myapp.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link UdpCacheInvalidationTransport}.
+ */
+class UdpCacheInvalidationTransportTest {
+
+    @Test
+    void testOnlyAcceptsTheDatagramsOfThePeers() {
+        UdpCacheInvalidationTransport transport = new UdpCacheInvalidationTransport(
+            45588,
+            List.of(UdpCacheInvalidationTransport.parsePeer("127.0.0.1:45589"))
+        );
+
+        assertThat(transport.isPeer(new InetSocketAddress("127.0.0.1", 45589))).isTrue();
+        assertThat(transport.isPeer(new InetSocketAddress("127.0.0.1", 45590))).isFalse();
+        assertThat(transport.isPeer(new InetSocketAddress("127.0.0.2", 45589))).isFalse();
+    }
+}
@@ -0,0 +1,129 @@
+package com.mycompany.myapp.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Unit tests for {@link InstrumentedDataSource} and {@link ConnectionLeakDetector}.
+ */
+class InstrumentedDataSourceTest {
+
+    private MeterRegistry meterRegistry;
+
+    private JdbcDataSource database;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:instrumented-" + UUID.randomUUID());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldTimeConnectionsByEndpoint() throws Exception {
+        InstrumentedDataSource dataSource = instrument(Duration.ZERO);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/heroes/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/heroes/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        // Closed twice, held once
+        connection.close();
+
+        assertThat(count(InstrumentedDataSource.WAIT_METER_NAME, "GET /api/heroes/{id}")).isEqualTo(1);
+        assertThat(count(InstrumentedDataSource.HOLD_METER_NAME, "GET /api/heroes/{id}")).isEqualTo(1);
+        assertThat(dataSource.getWaits().drain()).hasSize(1);
+    }
+
+    @Test
+    void shouldTagConnectionsOutsideOfAMappedRequest() throws Exception {
+        InstrumentedDataSource dataSource = instrument(Duration.ZERO);
+        dataSource.getConnection().close();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/heroes")));
+        dataSource.getConnection().close();
+
+        assertThat(count(InstrumentedDataSource.HOLD_METER_NAME, InstrumentedDataSource.NO_ENDPOINT)).isEqualTo(1);
+        assertThat(count(InstrumentedDataSource.HOLD_METER_NAME, InstrumentedDataSource.UNMAPPED_ENDPOINT)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReportConnectionsHeldPastTheThresholdOnce() throws Exception {
+        ConnectionLeakDetector leakDetector = new ConnectionLeakDetector(Duration.ofNanos(1), meterRegistry);
+        InstrumentedDataSource dataSource = new InstrumentedDataSource("test", database, meterRegistry, leakDetector);
+
+        Connection connection = dataSource.getConnection();
+        Thread.sleep(1);
+
+        assertThat(leakDetector.detectLeaks()).isEqualTo(1);
+        assertThat(leakDetector.detectLeaks()).isZero();
+        assertThat(
+            meterRegistry
+                .get(ConnectionLeakDetector.LEAKS_METER_NAME)
+                .tags("pool", "test", "endpoint", InstrumentedDataSource.NO_ENDPOINT)
+                .counter()
+                .count()
+        )
+            .isEqualTo(1);
+
+        connection.close();
+        assertThat(leakDetector.detectLeaks()).isZero();
+    }
+
+    @Test
+    void shouldNotFollowConnectionsWhenTheDetectionIsOff() throws Exception {
+        ConnectionLeakDetector leakDetector = new ConnectionLeakDetector(Duration.ZERO, meterRegistry);
+        InstrumentedDataSource dataSource = new InstrumentedDataSource("test", database, meterRegistry, leakDetector);
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(leakDetector.detectLeaks()).isZero();
+        }
+        assertThat(meterRegistry.find(ConnectionLeakDetector.LEAKS_METER_NAME).counter()).isNull();
+    }
+
+    @Test
+    void shouldAttributeLeaksToTheFirstMethodOfTheApplication() {
+        StackTraceElement[] stack = {
+            frame(InstrumentedDataSource.class.getName(), "getConnection"),
+            frame("org.hibernate.engine.jdbc.internal.LogicalConnectionManagedImpl", "acquireConnectionIfNeeded"),
+            frame("com.mycompany.myapp.aop.logging.LoggingAspect", "logAround"),
+            frame("com.mycompany.myapp.service.HeroService$$EnhancerBySpringCGLIB$$1", "update"),
+            frame("com.mycompany.myapp.service.HeroService", "update"),
+            frame("com.mycompany.myapp.web.rest.HeroResource", "updateHero"),
+        };
+
+        assertThat(ConnectionLeakDetector.site(stack)).isEqualTo("HeroService.update");
+        assertThat(ConnectionLeakDetector.site(new StackTraceElement[] { stack[1] })).isEqualTo(ConnectionLeakDetector.UNKNOWN_SITE);
+    }
+
+    private InstrumentedDataSource instrument(Duration leakDetectionThreshold) {
+        ConnectionLeakDetector leakDetector = new ConnectionLeakDetector(leakDetectionThreshold, meterRegistry);
+        return new InstrumentedDataSource("test", database, meterRegistry, leakDetector);
+    }
+
+    private long count(String meterName, String endpoint) {
+        return meterRegistry.get(meterName).tags("pool", "test", "endpoint", endpoint).timer().count();
+    }
+
+    private static StackTraceElement frame(String className, String methodName) {
+        return new StackTraceElement(className, methodName, null, -1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.mycompany.myapp.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PoolSizeController}, with a Hikari pool on an H2 in-memory database.
+ */
+class PoolSizeControllerTest {
+
+    private MeterRegistry meterRegistry;
+
+    private HikariDataSource pool;
+
+    private InstrumentedDataSource instrumented;
+
+    private PoolSizeController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new HikariDataSource();
+        pool.setPoolName("test");
+        pool.setJdbcUrl("jdbc:h2:mem:pool-" + UUID.randomUUID());
+        pool.setMaximumPoolSize(30);
+        instrumented = new InstrumentedDataSource("test", pool, meterRegistry, new ConnectionLeakDetector(Duration.ZERO, meterRegistry));
+        controller = new PoolSizeController(5, 20, Duration.ofMillis(10), 0.95, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        controller.close();
+        pool.close();
+    }
+
+    @Test
+    void shouldStartWithinTheBounds() {
+        controller.register(pool, instrumented);
+
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(pool.getMinimumIdle()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldGrowWhenWaitingAndShrinkWhenIdle() throws Exception {
+        pool.setMaximumPoolSize(8);
+        controller.register(pool, instrumented);
+        try (Connection connection = instrumented.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+        instrumented.getWaits().drain();
+
+        recordWaits(PoolSizeController.MIN_WAITS, 50);
+        controller.adjust();
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(10);
+
+        controller.adjust();
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(9);
+
+        assertThat(resizes("up")).isEqualTo(1);
+        assertThat(resizes("down")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotGrowOnAFewSlowWaits() throws Exception {
+        pool.setMaximumPoolSize(8);
+        controller.register(pool, instrumented);
+        instrumented.getConnection().close();
+
+        recordWaits(PoolSizeController.MIN_WAITS - 1, 50);
+        controller.adjust();
+
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldStayWithinTheBounds() throws Exception {
+        pool.setMaximumPoolSize(19);
+        controller.register(pool, instrumented);
+        instrumented.getConnection().close();
+
+        recordWaits(PoolSizeController.MIN_WAITS, 50);
+        controller.adjust();
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(20);
+
+        pool.setMaximumPoolSize(5);
+        controller.adjust();
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldRejectInvalidBounds() {
+        assertThatThrownBy(() -> new PoolSizeController(10, 5, Duration.ofMillis(10), 0.95, meterRegistry))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void recordWaits(int count, long millis) {
+        for (int i = 0; i < count; i++) {
+            instrumented.getWaits().record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    private double resizes(String direction) {
+        return meterRegistry
+            .get(PoolSizeController.RESIZES_METER_NAME)
+            .tags("pool", "test", PoolSizeController.DIRECTION_DIMENSION, direction)
+            .counter()
+            .count();
+    }
+}
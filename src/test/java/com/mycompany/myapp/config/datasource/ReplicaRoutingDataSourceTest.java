@@ -0,0 +1,248 @@
+package com.mycompany.myapp.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.config.cache.CacheInvalidation;
+import com.mycompany.myapp.config.cache.ClusterCacheInvalidator;
+import com.mycompany.myapp.config.cache.LoopbackCacheInvalidationTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.sql.DataSource;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Unit tests for {@link ReplicaRoutingDataSource}, with a primary and a replica in two H2 in-memory databases.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "select seconds from replica_lag";
+
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    private SwitchableDataSource replicaDataSource;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        primary = new JdbcTemplate(createDatabase("primary"));
+        replicaDataSource = new SwitchableDataSource(createDatabase("replica"));
+        replica = new JdbcTemplate(replicaDataSource.getTargetDataSource());
+        replica.execute("create table replica_lag (seconds double)");
+        replica.update("insert into replica_lag values (0)");
+
+        routingDataSource =
+            new ReplicaRoutingDataSource(
+                "primary",
+                primary.getDataSource(),
+                Map.of("replica", replicaDataSource),
+                Duration.ofSeconds(10),
+                LAG_QUERY,
+                meterRegistry
+            );
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    private static DataSource createDatabase(String node) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + node + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("create table node (name varchar(20))");
+        template.update("insert into node values (?)", node);
+        return dataSource;
+    }
+
+    @AfterEach
+    void tearDown() {
+        routingDataSource.close();
+        primary.execute("shutdown");
+        replica.execute("shutdown");
+    }
+
+    private String readNode(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private double connections(String pool, String transaction) {
+        return meterRegistry
+            .get(ReplicaRoutingDataSource.CONNECTIONS_METER_NAME)
+            .tags(ReplicaRoutingDataSource.POOL_DIMENSION, pool, ReplicaRoutingDataSource.TRANSACTION_DIMENSION, transaction)
+            .counter()
+            .count();
+    }
+
+    private double fallbacks(String reason) {
+        return meterRegistry
+            .get(ReplicaRoutingDataSource.FALLBACKS_METER_NAME)
+            .tag(ReplicaRoutingDataSource.REASON_DIMENSION, reason)
+            .counter()
+            .count();
+    }
+
+    @Test
+    void testReadOnlyTransactionsGoToTheReplica() {
+        assertThat(readNode(true)).isEqualTo("replica");
+        assertThat(readNode(true)).isEqualTo("replica");
+        assertThat(connections("replica", "read-only")).isEqualTo(2);
+        assertThat(connections("primary", "read-only")).isZero();
+
+        // Outside of a transaction
+        double readWriteConnections = connections("primary", "read-write");
+        assertThat(jdbcTemplate.queryForObject("select name from node", String.class)).isEqualTo("primary");
+        assertThat(connections("primary", "read-write")).isEqualTo(readWriteConnections + 1);
+        // Which does not pin the reads to the primary
+        assertThat(readNode(true)).isEqualTo("replica");
+    }
+
+    private void write(boolean commit) {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                jdbcTemplate.update("insert into node values (?)", "written");
+                if (!commit) {
+                    status.setRollbackOnly();
+                }
+            });
+    }
+
+    @Test
+    void testReadWriteTransactionsGoToThePrimaryAndPinTheReadsToIt() {
+        assertThat(readNode(false)).isEqualTo("primary");
+        write(true);
+
+        // The replica may not have the write yet
+        assertThat(readNode(true)).isEqualTo("primary");
+        assertThat(fallbacks("recent-write")).isEqualTo(1);
+        assertThat(connections("primary", "read-only")).isEqualTo(1);
+        assertThat(connections("replica", "read-only")).isZero();
+    }
+
+    @Test
+    void testReadWriteTransactionsWithoutACommittedWriteDoNotPinTheReads() {
+        assertThat(readNode(false)).isEqualTo("primary");
+        write(false);
+
+        assertThat(readNode(true)).isEqualTo("replica");
+        assertThat(fallbacks("recent-write")).isZero();
+    }
+
+    @Test
+    void testInvalidationsOfTheOtherNodesPinTheReadsToThePrimary() {
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+            URI.create("urn:replica-routing-data-source-test:" + UUID.randomUUID()),
+            new DefaultConfiguration(getClass().getClassLoader())
+        );
+        cacheManager.createCache("usersByLogin", new MutableConfiguration<Object, Object>());
+        LoopbackCacheInvalidationTransport.Bus bus = new LoopbackCacheInvalidationTransport.Bus();
+        ClusterCacheInvalidator invalidator = new ClusterCacheInvalidator(cacheManager, bus.connect(), routingDataSource, meterRegistry);
+        invalidator.start();
+        try {
+            assertThat(readNode(true)).isEqualTo("replica");
+
+            // Another node updated a user, which the replica may not have yet
+            bus.connect().send(CacheInvalidation.ofKeys("node-b", "usersByLogin", List.of("johndoe")));
+
+            assertThat(readNode(true)).isEqualTo("primary");
+            assertThat(fallbacks("recent-write")).isEqualTo(1);
+        } finally {
+            invalidator.stop();
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    void testLaggingReplicaIsSkipped() {
+        replica.update("update replica_lag set seconds = 60");
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getReplicaAvailability()).containsEntry("replica", false);
+        assertThat(meterRegistry.get(ReplicaRoutingDataSource.LAG_METER_NAME).gauge().value()).isEqualTo(60);
+        assertThat(readNode(true)).isEqualTo("primary");
+        assertThat(fallbacks("no-replica")).isEqualTo(1);
+
+        // The replication is stopped
+        replica.update("update replica_lag set seconds = null");
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getReplicaAvailability()).containsEntry("replica", false);
+        assertThat(readNode(true)).isEqualTo("primary");
+
+        replica.update("update replica_lag set seconds = 0.5");
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getReplicaAvailability()).containsEntry("replica", true);
+        assertThat(meterRegistry.get(ReplicaRoutingDataSource.AVAILABLE_METER_NAME).gauge().value()).isEqualTo(1);
+        assertThat(readNode(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void testUnreachableReplicaFailsOverToThePrimary() {
+        replicaDataSource.down = true;
+
+        assertThat(readNode(true)).isEqualTo("primary");
+        assertThat(routingDataSource.getReplicaAvailability()).containsEntry("replica", false);
+        assertThat(meterRegistry.get(ReplicaRoutingDataSource.AVAILABLE_METER_NAME).gauge().value()).isZero();
+
+        routingDataSource.checkReplicas();
+        assertThat(routingDataSource.getReplicaAvailability()).containsEntry("replica", false);
+
+        replicaDataSource.down = false;
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getReplicaAvailability()).containsEntry("replica", true);
+        assertThat(readNode(true)).isEqualTo("replica");
+    }
+
+    /**
+     * A data source that can be made unreachable.
+     */
+    private static class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mycompany.myapp.config.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The maximum number of SQL statements each request of an integration test may run, checked after the test by the
+ * {@link SqlStatementBudgetExtension}, so an N+1 added to an endpoint fails its tests.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementBudgetExtension.class)
+public @interface SqlStatementBudget {
+    /**
+     * @return the maximum number of statements of each request.
+     */
+    int value();
+
+    /**
+     * @return the endpoint the budget applies to, such as {@code GET /api/heroes/{id}}, or all the endpoints if empty.
+     */
+    String endpoint() default "";
+}
@@ -0,0 +1,80 @@
+package com.mycompany.myapp.config.sql;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Collects the reports of the {@link SqlStatementTracker} of the application context during a test annotated with
+ * {@link SqlStatementBudget}, and fails the test if one of its requests ran more statements than its budget.
+ */
+public class SqlStatementBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlStatementBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        SqlStatementTracker tracker = SpringExtension.getApplicationContext(context).getBean(SqlStatementTracker.class);
+        Collector collector = new Collector(Thread.currentThread());
+        tracker.addListener(collector);
+        context.getStore(NAMESPACE).put(Collector.class, collector);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Collector collector = context.getStore(NAMESPACE).remove(Collector.class, Collector.class);
+        if (collector == null) {
+            return;
+        }
+        SpringExtension.getApplicationContext(context).getBean(SqlStatementTracker.class).removeListener(collector);
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        SqlStatementBudget budget = AnnotationSupport
+            .findAnnotation(context.getRequiredTestMethod(), SqlStatementBudget.class)
+            .orElseThrow(IllegalStateException::new);
+        List<SqlStatementReport> requests = collector.reports
+            .stream()
+            .filter(report -> SqlStatementTracker.REQUEST_SCOPE.equals(report.getScope()))
+            .filter(report -> budget.endpoint().isEmpty() || budget.endpoint().equals(report.getName()))
+            .collect(Collectors.toList());
+        if (requests.isEmpty()) {
+            throw new AssertionError("No request" + (budget.endpoint().isEmpty() ? "" : " to " + budget.endpoint()) + " was made");
+        }
+        List<String> overBudget = requests
+            .stream()
+            .filter(report -> report.getCount() > budget.value())
+            .map(report -> report.getName() + " ran " + report.getCount() + " statements: " + report.getStatements())
+            .collect(Collectors.toList());
+        if (!overBudget.isEmpty()) {
+            throw new AssertionError("Over the budget of " + budget.value() + " SQL statements per request: " + overBudget);
+        }
+    }
+
+    /**
+     * The reports of the thread of the test, which also runs the requests of {@code MockMvc}.
+     */
+    private static final class Collector implements Consumer<SqlStatementReport> {
+
+        private final Thread thread;
+
+        private final List<SqlStatementReport> reports = new CopyOnWriteArrayList<>();
+
+        private Collector(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public void accept(SqlStatementReport report) {
+            if (Thread.currentThread() == thread) {
+                reports.add(report);
+            }
+        }
+    }
+}
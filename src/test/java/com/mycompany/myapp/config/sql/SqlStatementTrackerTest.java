@@ -0,0 +1,160 @@
+package com.mycompany.myapp.config.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Unit tests for {@link SqlStatementTracker} and {@link SqlStatementFilter}.
+ */
+class SqlStatementTrackerTest {
+
+    private static final String SELECT_USER = "select * from jhi_user where id=?";
+
+    private static final String SELECT_AUTHORITIES = "select * from jhi_user_authority where user_id=?";
+
+    private MeterRegistry meterRegistry;
+
+    private SqlStatementTracker tracker;
+
+    private List<SqlStatementReport> reports;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new SqlStatementTracker(5, 2, meterRegistry);
+        reports = new ArrayList<>();
+        tracker.addListener(reports::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+        TransactionSynchronizationManager.unbindResourceIfPossible(tracker);
+    }
+
+    @Test
+    void shouldCountTheStatementsOfARequestByEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/users");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/admin/users");
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                tracker.record(SELECT_USER);
+                tracker.record(SELECT_AUTHORITIES);
+            }
+        };
+
+        new SqlStatementFilter(tracker).doFilter(request, new MockHttpServletResponse(), chain);
+        // Out of the request
+        tracker.record(SELECT_USER);
+
+        assertThat(reports).hasSize(1);
+        SqlStatementReport report = reports.get(0);
+        assertThat(report.getScope()).isEqualTo(SqlStatementTracker.REQUEST_SCOPE);
+        assertThat(report.getName()).isEqualTo("GET /api/admin/users");
+        assertThat(report.getCount()).isEqualTo(2);
+        assertThat(report.getRepeatedStatements()).isEmpty();
+        assertThat(
+            meterRegistry
+                .get(SqlStatementTracker.STATEMENTS_METER_NAME)
+                .tags(SqlStatementTracker.SCOPE_DIMENSION, "request", SqlStatementTracker.NAME_DIMENSION, "GET /api/admin/users")
+                .summary()
+                .totalAmount()
+        )
+            .isEqualTo(2);
+    }
+
+    @Test
+    void shouldFlagRepeatedStatementsAndRequestsOverBudget() {
+        SqlStatementTracker.Scope scope = tracker.openRequest();
+        assertThat(tracker.openRequest()).isNull();
+        tracker.record(SELECT_USER);
+        for (int i = 0; i < 5; i++) {
+            tracker.record(SELECT_AUTHORITIES);
+        }
+        tracker.closeRequest(scope, "GET /api/admin/users");
+
+        assertThat(reports.get(0).getCount()).isEqualTo(6);
+        assertThat(reports.get(0).getRepeatedStatements()).containsOnlyKeys(SELECT_AUTHORITIES).containsEntry(SELECT_AUTHORITIES, 5);
+        assertThat(meterRegistry.get(SqlStatementTracker.REPEATED_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SqlStatementTracker.OVER_BUDGET_METER_NAME).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountTheStatementsOfATransactionByMethod() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionName("com.mycompany.myapp.service.UserService.getAllManagedUsers");
+
+        tracker.record(SELECT_USER);
+        tracker.record(SELECT_AUTHORITIES);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+        assertThat(reports).isEmpty();
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        assertThat(reports).hasSize(1);
+        assertThat(reports.get(0).getScope()).isEqualTo(SqlStatementTracker.TRANSACTION_SCOPE);
+        assertThat(reports.get(0).getName()).isEqualTo("UserService.getAllManagedUsers");
+        assertThat(reports.get(0).getCount()).isEqualTo(2);
+        assertThat(TransactionSynchronizationManager.hasResource(tracker)).isFalse();
+    }
+
+    @Test
+    void shouldCountTheStatementsOfANewTransactionApartFromTheSuspendedOne() {
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.record(SELECT_USER);
+        List<TransactionSynchronization> suspended = TransactionSynchronizationManager.getSynchronizations();
+        suspended.forEach(TransactionSynchronization::suspend);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // A REQUIRES_NEW transaction
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.record(SELECT_AUTHORITIES);
+        complete();
+
+        TransactionSynchronizationManager.initSynchronization();
+        for (TransactionSynchronization synchronization : suspended) {
+            synchronization.resume();
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        }
+        tracker.record(SELECT_USER);
+        complete();
+
+        assertThat(reports).extracting(SqlStatementReport::getCount).containsExactly(1, 2);
+        assertThat(reports.get(0).getStatements()).containsOnlyKeys(SELECT_AUTHORITIES);
+    }
+
+    private static void complete() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void shouldNameTransactionsAfterTheirClassAndMethod() {
+        assertThat(SqlStatementTracker.transactionName("com.mycompany.myapp.service.HeroService.update")).isEqualTo("HeroService.update");
+        assertThat(SqlStatementTracker.transactionName("update")).isEqualTo("update");
+        assertThat(SqlStatementTracker.transactionName(null)).isEqualTo(SqlStatementTracker.UNNAMED_TRANSACTION);
+    }
+}
@@ -0,0 +1,102 @@
+package com.mycompany.myapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.sql.SqlStatementReport;
+import com.mycompany.myapp.config.sql.SqlStatementTracker;
+import com.mycompany.myapp.domain.Hero;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests comparing the OFFSET/LIMIT pagination of {@link HeroRepository#findAll(org.springframework.data.domain.Pageable)}
+ * with the keyset pagination of {@link HeroRepository#findAllByIdGreaterThan(Long, org.springframework.data.domain.Pageable)}.
+ * <p>
+ * Both paths must return the same deep page, the offset path with an {@code OFFSET} and a {@code count(*)}, the keyset path
+ * with a single statement seeking past the last id. Their latencies are measured by {@code HeroPaginationBenchmark}, in
+ * the {@code benchmark} profile.
+ */
+@IntegrationTest
+@Transactional
+class HeroPaginationBenchmarkIT {
+
+    private static final int HERO_COUNT = 5000;
+    private static final int PAGE_SIZE = 50;
+    private static final int DEEP_PAGE = HERO_COUNT / PAGE_SIZE - 1;
+
+    private static final Sort ID_ASC = Sort.by(Sort.Order.asc("id"));
+
+    @Autowired
+    private HeroRepository heroRepository;
+
+    @Autowired
+    private SqlStatementTracker sqlStatementTracker;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    public void initTest() {
+        List<Hero> heroes = new ArrayList<>(HERO_COUNT);
+        for (int i = 0; i < HERO_COUNT; i++) {
+            heroes.add(new Hero().name(String.format("benchmark-hero-%06d", i)));
+        }
+        heroRepository.saveAll(heroes);
+        heroRepository.flush();
+        em.clear();
+    }
+
+    @Test
+    void keysetPaginationSeeksToTheDeepPageInOneStatement() {
+        List<Hero> previousPage = heroRepository.findAll(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE, ID_ASC)).getContent();
+        Long beforeDeep = previousPage.get(previousPage.size() - 1).getId();
+        em.clear();
+
+        List<SqlStatementReport> offsetReports = new ArrayList<>();
+        List<Hero> offsetDeep = tracked(
+            () -> heroRepository.findAll(PageRequest.of(DEEP_PAGE, PAGE_SIZE, ID_ASC)).getContent(),
+            offsetReports
+        );
+        List<SqlStatementReport> keysetReports = new ArrayList<>();
+        List<Hero> keysetDeep = tracked(
+            () -> heroRepository.findAllByIdGreaterThan(beforeDeep, PageRequest.of(0, PAGE_SIZE, ID_ASC)),
+            keysetReports
+        );
+
+        assertThat(keysetDeep).hasSize(PAGE_SIZE).containsExactlyElementsOf(offsetDeep);
+        assertThat(offsetReports).singleElement().extracting(SqlStatementReport::getCount).isEqualTo(2);
+        assertThat(offsetReports.get(0).getStatements().keySet())
+            .anySatisfy(sql -> assertThat(sql).containsIgnoringCase("offset"))
+            .anySatisfy(sql -> assertThat(sql).containsIgnoringCase("count("));
+        assertThat(keysetReports).singleElement().extracting(SqlStatementReport::getCount).isEqualTo(1);
+        assertThat(keysetReports.get(0).getStatements().keySet())
+            .singleElement()
+            .satisfies(sql -> assertThat(sql).doesNotContainIgnoringCase("offset").containsIgnoringCase("where"));
+    }
+
+    private List<Hero> tracked(Supplier<List<Hero>> query, List<SqlStatementReport> reports) {
+        Consumer<SqlStatementReport> listener = report -> {
+            if (SqlStatementTracker.REQUEST_SCOPE.equals(report.getScope())) {
+                reports.add(report);
+            }
+        };
+        sqlStatementTracker.addListener(listener);
+        SqlStatementTracker.Scope scope = sqlStatementTracker.openRequest();
+        try {
+            return query.get();
+        } finally {
+            sqlStatementTracker.closeRequest(scope, "heroPagination");
+            sqlStatementTracker.removeListener(listener);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class AuthoritySetRegistryTest {
+
+    private AuthoritySetRegistry authoritySetRegistry;
+
+    @BeforeEach
+    public void setup() {
+        authoritySetRegistry = new AuthoritySetRegistry(8);
+    }
+
+    @Test
+    void testDecodesTheClaim() {
+        List<GrantedAuthority> authorities = authoritySetRegistry.get(AuthoritiesConstants.ADMIN + ",," + AuthoritiesConstants.USER + ", ");
+
+        assertThat(authorities)
+            .containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN), new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        assertThat(authoritySetRegistry.get("")).isEmpty();
+    }
+
+    @Test
+    void testReturnsTheSameListForEqualClaims() {
+        String claim = new StringBuilder("ROLE_").append("CUSTOM").toString();
+
+        List<GrantedAuthority> authorities = authoritySetRegistry.get(claim);
+
+        assertThat(authoritySetRegistry.get("ROLE_CUSTOM")).isSameAs(authorities);
+        assertThat(authoritySetRegistry.get(AuthoritiesConstants.USER)).isSameAs(authoritySetRegistry.get(AuthoritiesConstants.USER));
+    }
+
+    @Test
+    void testSharesTheAuthoritiesBetweenClaims() {
+        GrantedAuthority user = authoritySetRegistry.get(AuthoritiesConstants.USER).get(0);
+
+        assertThat(authoritySetRegistry.get(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER).get(1)).isSameAs(user);
+    }
+
+    @Test
+    void testReturnsImmutableLists() {
+        List<GrantedAuthority> authorities = authoritySetRegistry.get(AuthoritiesConstants.USER);
+
+        assertThatThrownBy(() -> authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void testIsBounded() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(authoritySetRegistry.get("ROLE_" + i)).containsExactly(new SimpleGrantedAuthority("ROLE_" + i));
+        }
+
+        assertThat(authoritySetRegistry.size()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+class TokenAuthenticationCacheTest {
+
+    private static final long ONE_MINUTE = 60000;
+
+    private MeterRegistry meterRegistry;
+
+    private TokenAuthenticationCache cache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TokenAuthenticationCache(10, new SecurityMetersService(meterRegistry));
+    }
+
+    @Test
+    void testCachedAuthenticationIsReturnedUntilExpiration() {
+        JWTAuthentication authentication = createAuthentication("token");
+
+        cache.put(TokenAuthenticationCache.key("token"), authentication, System.currentTimeMillis() + ONE_MINUTE);
+        cache.put(TokenAuthenticationCache.key("expired"), createAuthentication("expired"), System.currentTimeMillis() - 1);
+
+        assertThat(cache.get(TokenAuthenticationCache.key("token"))).isEqualTo(authentication);
+        assertThat(cache.get(TokenAuthenticationCache.key("expired"))).isNull();
+        assertThat(cache.get(TokenAuthenticationCache.key("unknown"))).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(evictions("expired")).isEqualTo(1);
+    }
+
+    @Test
+    void testCacheSizeIsCapped() {
+        for (int i = 0; i < 25; i++) {
+            String token = "token-" + i;
+            cache.put(TokenAuthenticationCache.key(token), createAuthentication(token), System.currentTimeMillis() + ONE_MINUTE);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(evictions("size")).isPositive();
+    }
+
+    @Test
+    void testEachHitGetsItsOwnAuthentication() {
+        cache.put(TokenAuthenticationCache.key("token"), createAuthentication("token"), System.currentTimeMillis() + ONE_MINUTE);
+
+        Authentication first = cache.get(TokenAuthenticationCache.key("token"));
+        first.setAuthenticated(false);
+
+        Authentication second = cache.get(TokenAuthenticationCache.key("token"));
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    private JWTAuthentication createAuthentication(String token) {
+        return new JWTAuthentication("test-user", token, AuthoritiesConstants.USER, new AuthoritySetRegistry(0));
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get(SecurityMetersService.TOKEN_CACHE_EVICTIONS_METER_NAME).tag("cause", cause).counter().count();
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.mycompany.myapp.management.SecurityMetersService;
 import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.SecurityUtils;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -18,6 +19,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 import tech.jhipster.config.JHipsterProperties;
 
@@ -88,6 +91,62 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testResolveAuthenticationOfValidToken() {
+        Authentication authentication = createAuthentication();
+        String token = tokenProvider.createToken(authentication, false);
+
+        Optional<Authentication> resolved = tokenProvider.resolveAuthentication(token);
+
+        assertThat(resolved).isPresent();
+        assertThat(resolved.get().getName()).isEqualTo("anonymous");
+        assertThat(resolved.get().getCredentials()).hasToString(token);
+        assertThat(resolved.get().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+        // The second resolution is served from the cache, with an authentication of its own
+        Optional<Authentication> cached = tokenProvider.resolveAuthentication(token);
+        assertThat(cached).contains(resolved.get());
+        assertThat(cached.get()).isNotSameAs(resolved.get());
+    }
+
+    @Test
+    void testResolvedAuthenticationDecodesItsAuthoritiesLazily() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication resolved = tokenProvider.resolveAuthentication(token).orElseThrow();
+        SecurityContextHolder.getContext().setAuthentication(resolved);
+
+        try {
+            assertThat(SecurityUtils.getCurrentUserLogin()).contains("anonymous");
+            assertThat(ReflectionTestUtils.getField(resolved, "authorities")).isNull();
+            assertThat(ReflectionTestUtils.getField(resolved, "principal")).isNull();
+
+            assertThat(resolved.getPrincipal()).isInstanceOfSatisfying(
+                UserDetails.class,
+                principal -> assertThat(principal.getUsername()).isEqualTo("anonymous")
+            );
+            assertThat(ReflectionTestUtils.getField(resolved, "authorities")).isNotNull();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void testResolveAuthenticationOfInvalidToken() {
+        assertThat(tokenProvider.resolveAuthentication(createTokenWithDifferentSignature())).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication("")).isEmpty();
+    }
+
+    @Test
+    void testResolveAuthenticationOfExpiredToken() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
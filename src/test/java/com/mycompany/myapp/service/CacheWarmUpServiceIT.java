@@ -0,0 +1,45 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.UserRepository;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Integration tests for {@link CacheWarmUpService}.
+ */
+@IntegrationTest
+class CacheWarmUpServiceIT {
+
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache usersByLogin;
+
+    @BeforeEach
+    public void init() {
+        usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        usersByLogin.clear();
+    }
+
+    @Test
+    void assertThatActivatedUsersAreCachedWithTheirAuthorities() {
+        cacheWarmUpService.warmUp();
+
+        User admin = usersByLogin.get("admin", User.class);
+        assertThat(admin).isNotNull();
+        assertThat(admin.getAuthorities()).isNotEmpty();
+        assertThat(usersByLogin.get("user", User.class)).isNotNull();
+        assertThat(cacheWarmUpService.getProgress()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link HeroNameTrie}.
+ */
+class HeroNameTrieTest {
+
+    private final HeroNameTrie trie = HeroNameTrie.of(
+        List.of("Spider-Man", "Spider-Woman", "Superman", "Supergirl", "Iron Man", "Spectre", "Spider", "Éclair")
+    );
+
+    @Test
+    void testSuggestReturnsTheNamesStartingWithThePrefixInOrder() {
+        assertThat(trie.suggest("sp", 10)).containsExactly("Spectre", "Spider", "Spider-Man", "Spider-Woman");
+        assertThat(trie.suggest("super", 10)).containsExactly("Supergirl", "Superman");
+        assertThat(trie.suggest("spider", 10)).containsExactly("Spider", "Spider-Man", "Spider-Woman");
+        assertThat(trie.suggest("iron man", 10)).containsExactly("Iron Man");
+    }
+
+    @Test
+    void testSuggestIgnoresCaseAccentsAndPunctuation() {
+        assertThat(trie.suggest("SPIDER-W", 10)).containsExactly("Spider-Woman");
+        assertThat(trie.suggest("spider w", 10)).containsExactly("Spider-Woman");
+        assertThat(trie.suggest("ecl", 10)).containsExactly("Éclair");
+    }
+
+    @Test
+    void testSuggestIsLimited() {
+        assertThat(trie.suggest("s", 2)).containsExactly("Spectre", "Spider");
+        assertThat(trie.count("s")).isEqualTo(6);
+    }
+
+    @Test
+    void testSuggestWithoutMatchReturnsNothing() {
+        assertThat(trie.suggest("spiders", 10)).isEmpty();
+        assertThat(trie.suggest("x", 10)).isEmpty();
+        assertThat(trie.suggest("", 10)).isEmpty();
+        assertThat(HeroNameTrie.empty().suggest("s", 10)).isEmpty();
+    }
+
+    @Test
+    void testTrieIsCompact() {
+        assertThat(trie.size()).isEqualTo(8);
+        assertThat(trie.getNodeCount()).isLessThanOrEqualTo(2 * trie.size() + 1);
+        assertThat(trie.getEstimatedBytes()).isPositive();
+    }
+}
@@ -0,0 +1,184 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.sql.SqlStatementReport;
+import com.mycompany.myapp.config.sql.SqlStatementTracker;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link HeroPageCacheService}.
+ */
+@IntegrationTest
+@Transactional
+class HeroPageCacheServiceIT {
+
+    @Autowired
+    private HeroRepository heroRepository;
+
+    @Autowired
+    private HeroPageCacheService heroPageCacheService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlStatementTracker sqlStatementTracker;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    public void init() {
+        Objects.requireNonNull(cacheManager.getCache(HeroRepository.HERO_PAGES_CACHE)).clear();
+        heroRepository.saveAndFlush(new Hero().name("AAAAAAAAAA"));
+        heroRepository.saveAndFlush(new Hero().name("BBBBBBBBBB"));
+        heroRepository.saveAndFlush(new Hero().name("CCCCCCCCCC"));
+    }
+
+    @Test
+    void assertThatPagesAreServedFromTheCache() {
+        double hits = hitCount();
+        double misses = missCount();
+
+        Page<Hero> unsorted = heroPageCacheService.findAll(PageRequest.of(0, 20));
+        Page<Hero> sortedById = heroPageCacheService.findAll(PageRequest.of(0, 20, Sort.by("id")));
+
+        assertThat(sortedById.getContent()).containsExactlyElementsOf(unsorted.getContent());
+        assertThat(sortedById.getTotalElements()).isEqualTo(unsorted.getTotalElements());
+        assertThat(missCount()).isEqualTo(misses + 1);
+        assertThat(hitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void assertThatTheHeroesOfACachedPageAreLoadedInOneStatement() {
+        Page<Hero> page = heroPageCacheService.findAll(PageRequest.of(0, 20, Sort.by("id")));
+        // Neither in the persistence context nor in the second-level cache, disabled in the tests
+        em.clear();
+
+        List<SqlStatementReport> reports = new ArrayList<>();
+        Consumer<SqlStatementReport> listener = reports::add;
+        sqlStatementTracker.addListener(listener);
+        double hits = hitCount();
+        SqlStatementTracker.Scope scope = sqlStatementTracker.openRequest();
+        Page<Hero> cachedPage;
+        try {
+            cachedPage = heroPageCacheService.findAll(PageRequest.of(0, 20, Sort.by("id")));
+        } finally {
+            sqlStatementTracker.closeRequest(scope, "heroPages");
+            sqlStatementTracker.removeListener(listener);
+        }
+
+        assertThat(hitCount()).isEqualTo(hits + 1);
+        assertThat(cachedPage.getContent()).containsExactlyElementsOf(page.getContent());
+        assertThat(reports)
+            .filteredOn(report -> SqlStatementTracker.REQUEST_SCOPE.equals(report.getScope()))
+            .extracting(SqlStatementReport::getCount)
+            .containsExactly(1);
+    }
+
+    @Test
+    void assertThatCreateOnlyEvictsTheShiftedPages() {
+        heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("id")));
+        heroPageCacheService.findAll(PageRequest.of(1, 2, Sort.by("id")));
+        heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("name")));
+
+        Hero created = heroRepository.saveAndFlush(new Hero().name("DDDDDDDDDD"));
+        heroPageCacheService.evictOnCreate(created);
+
+        double hits = hitCount();
+        double misses = missCount();
+        // The first page ends before the new hero
+        Page<Hero> firstPage = heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("id")));
+        assertThat(hitCount()).isEqualTo(hits + 1);
+        assertThat(firstPage.getTotalElements()).isEqualTo(heroRepository.count());
+        // The last page is not full, and the pages sorted by name can be shifted anywhere
+        Page<Hero> lastPage = heroPageCacheService.findAll(PageRequest.of(1, 2, Sort.by("id")));
+        heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("name")));
+        assertThat(missCount()).isEqualTo(misses + 2);
+        assertThat(lastPage.getContent()).contains(created);
+    }
+
+    @Test
+    void assertThatUpdateOnlyEvictsPagesNotSortedById() {
+        Page<Hero> page = heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("id")));
+        heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("name")));
+
+        Hero updated = page.getContent().get(0);
+        updated.setName("ZZZZZZZZZZ");
+        heroRepository.saveAndFlush(updated);
+        heroPageCacheService.evictOnUpdate(updated);
+
+        double hits = hitCount();
+        double misses = missCount();
+        heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("id")));
+        heroPageCacheService.findAll(PageRequest.of(0, 2, Sort.by("name")));
+        assertThat(hitCount()).isEqualTo(hits + 1);
+        assertThat(missCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    void assertThatDeleteEvictsThePagesContainingTheHero() {
+        Page<Hero> page = heroPageCacheService.findAll(PageRequest.of(0, 20, Sort.by("id")));
+
+        Hero deleted = page.getContent().get(0);
+        heroRepository.delete(deleted);
+        heroRepository.flush();
+        heroPageCacheService.evictOnDelete(deleted.getId());
+
+        double misses = missCount();
+        Page<Hero> refreshed = heroPageCacheService.findAll(PageRequest.of(0, 20, Sort.by("id")));
+        assertThat(missCount()).isEqualTo(misses + 1);
+        assertThat(refreshed.getContent()).doesNotContain(deleted);
+    }
+
+    @Test
+    void assertThatFilteredPagesAreCachedPerCriteriaAndEvictedByAnyWrite() {
+        Specification<Hero> startsWithB = (root, query, builder) -> builder.like(root.get("name"), "B%");
+        Page<Hero> page = heroPageCacheService.findAll("name.startsWith=B", startsWithB, PageRequest.of(0, 20, Sort.by("id")));
+        assertThat(page.getContent()).extracting(Hero::getName).containsExactly("BBBBBBBBBB");
+        assertThat(heroPageCacheService.count("name.startsWith=B", startsWithB)).isEqualTo(1);
+
+        double hits = hitCount();
+        heroPageCacheService.findAll("name.startsWith=B", startsWithB, PageRequest.of(0, 20, Sort.by("id")));
+        assertThat(hitCount()).isEqualTo(hits + 1);
+
+        // An update keeps the unfiltered pages sorted by id, not the filtered ones
+        Hero updated = heroRepository.saveAndFlush(page.getContent().get(0).name("ZZZZZZZZZZ"));
+        heroPageCacheService.evictOnUpdate(updated);
+
+        double misses = missCount();
+        Page<Hero> refreshed = heroPageCacheService.findAll("name.startsWith=B", startsWithB, PageRequest.of(0, 20, Sort.by("id")));
+        assertThat(missCount()).isEqualTo(misses + 1);
+        assertThat(refreshed.getContent()).isEmpty();
+        assertThat(heroPageCacheService.count("name.startsWith=B", startsWithB)).isZero();
+    }
+
+    private double hitCount() {
+        return meterRegistry.get(HeroPageCacheService.PAGE_CACHE_METER_NAME).tag("result", "hit").counter().count();
+    }
+
+    private double missCount() {
+        return meterRegistry.get(HeroPageCacheService.PAGE_CACHE_METER_NAME).tag("result", "miss").counter().count();
+    }
+}
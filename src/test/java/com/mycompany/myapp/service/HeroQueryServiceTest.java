@@ -0,0 +1,107 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.service.criteria.HeroCriteria;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the rewriting and the keys of the criteria of {@link HeroQueryService}.
+ */
+class HeroQueryServiceTest {
+
+    private final HeroQueryService heroQueryService = new HeroQueryService(null);
+
+    @Test
+    void testLeadingWildcardAloneIsRejected() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.name().setContains("man");
+
+        assertThatThrownBy(() -> heroQueryService.rewrite(criteria))
+            .isInstanceOf(UnindexedCriteriaException.class)
+            .hasMessageStartingWith("name.contains");
+    }
+
+    @Test
+    void testLeadingWildcardNextToAnIndexedPredicateIsAccepted() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.name().setContains("man");
+        criteria.name().setStartsWith("Spider");
+
+        assertThat(heroQueryService.rewrite(criteria)).contains(criteria);
+    }
+
+    @Test
+    void testIdRangeOpenOnOneSideDoesNotNarrowALeadingWildcard() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.name().setContains("man");
+        criteria.id().setGreaterThan(0L);
+
+        assertThatThrownBy(() -> heroQueryService.rewrite(criteria)).isInstanceOf(UnindexedCriteriaException.class);
+    }
+
+    @Test
+    void testWideIdRangeDoesNotNarrowALeadingWildcard() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.name().setContains("man");
+        criteria.id().setGreaterThanOrEqual(1L);
+        criteria.id().setLessThanOrEqual(2 + HeroQueryService.MAX_SEEK_RANGE);
+
+        assertThatThrownBy(() -> heroQueryService.rewrite(criteria)).isInstanceOf(UnindexedCriteriaException.class);
+
+        HeroCriteria whole = new HeroCriteria();
+        whole.name().setContains("man");
+        whole.id().setGreaterThan(Long.MIN_VALUE);
+        whole.id().setLessThan(Long.MAX_VALUE);
+
+        assertThatThrownBy(() -> heroQueryService.rewrite(whole)).isInstanceOf(UnindexedCriteriaException.class);
+    }
+
+    @Test
+    void testNarrowIdRangeNarrowsALeadingWildcard() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.name().setContains("man");
+        criteria.id().setGreaterThanOrEqual(1L);
+        criteria.id().setLessThan(1 + HeroQueryService.MAX_SEEK_RANGE);
+
+        assertThat(heroQueryService.rewrite(criteria)).contains(criteria);
+    }
+
+    @Test
+    void testAlwaysTruePredicatesAreRewrittenAway() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.id().setSpecified(true);
+        criteria.name().setStartsWith("");
+        criteria.setDistinct(true);
+
+        HeroCriteria rewritten = heroQueryService.rewrite(criteria).orElseThrow();
+        assertThat(HeroQueryService.toKey(rewritten)).isEmpty();
+    }
+
+    @Test
+    void testAlwaysFalsePredicatesMatchNothing() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.name().setSpecified(false);
+
+        assertThat(heroQueryService.rewrite(criteria)).isEmpty();
+    }
+
+    @Test
+    void testKeyIsNormalized() {
+        HeroCriteria criteria = new HeroCriteria();
+        criteria.name().setContains("man");
+        criteria.name().setIn(List.of("Spider-Man", "Iron Man", "Spider-Man"));
+        criteria.id().setGreaterThan(5L);
+
+        HeroCriteria same = new HeroCriteria();
+        same.id().setGreaterThan(5L);
+        same.name().setIn(List.of("Iron Man", "Spider-Man"));
+        same.name().setContains("MAN");
+
+        assertThat(HeroQueryService.toKey(criteria))
+            .isEqualTo(HeroQueryService.toKey(same))
+            .isEqualTo("id.greaterThan=5&name.in=Iron+Man,Spider-Man&name.contains=MAN");
+    }
+}
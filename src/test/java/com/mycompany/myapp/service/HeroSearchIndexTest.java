@@ -0,0 +1,105 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link HeroSearchIndex}.
+ */
+class HeroSearchIndexTest {
+
+    private HeroSearchIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new HeroSearchIndex();
+        index.put(1L, "Spider-Man");
+        index.put(2L, "Iron Man");
+        index.put(3L, "Superman");
+        index.put(4L, "Spider-Woman");
+        index.put(5L, "Zoë Spéctre");
+    }
+
+    @Test
+    void testPrefixSearchMatchesTheStartOfEachWord() {
+        assertThat(index.search("spi").getIds()).containsExactly(1L, 4L);
+        assertThat(index.search("man iron").getIds()).containsExactly(2L);
+        assertThat(index.search("MAN").getIds()).startsWith(1L, 2L);
+    }
+
+    @Test
+    void testSearchIgnoresCaseAndAccents() {
+        assertThat(index.search("ZOE spec").getIds()).containsExactly(5L);
+        assertThat(index.search("Spectre").getIds()).containsExactly(5L);
+    }
+
+    @Test
+    void testNgramSearchMatchesAnywhereAfterThePrefixMatches() {
+        assertThat(index.search("erma").getIds()).containsExactly(3L);
+        assertThat(index.search("man").getIds()).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void testFuzzySearchToleratesTypos() {
+        assertThat(index.search("supermen").getIds()).containsExactly(3L);
+        assertThat(index.search("spyder").getIds()).containsExactly(1L, 4L);
+        assertThat(index.search("spyd").getIds()).isEmpty();
+    }
+
+    @Test
+    void testUpdatesAndRemovalsAreReflected() {
+        index.put(2L, "Iron Fist");
+        index.remove(1L);
+
+        assertThat(index.search("iron").getIds()).containsExactly(2L);
+        assertThat(index.search("fist").getIds()).containsExactly(2L);
+        assertThat(index.search("spider").getIds()).containsExactly(4L);
+        assertThat(index.size()).isEqualTo(4);
+
+        index.remove(4L);
+        assertThat(index.search("spider").getIds()).isEmpty();
+        assertThat(index.search("woman").getIds()).isEmpty();
+    }
+
+    @Test
+    void testTotalCountsTheMatchesPastTheMaximum() {
+        index = new HeroSearchIndex();
+        for (long id = 1; id <= HeroSearchIndex.MAX_MATCHES + 5; id++) {
+            index.put(id, "Hero " + id);
+        }
+
+        HeroSearchIndex.Matches matches = index.search("hero");
+
+        assertThat(matches.getIds()).hasSize(HeroSearchIndex.MAX_MATCHES).startsWith(1L, 2L);
+        assertThat(matches.getTotal()).isEqualTo(HeroSearchIndex.MAX_MATCHES + 5);
+        assertThat(index.search("hero 12").getTotal()).isEqualTo(111);
+    }
+
+    @Test
+    void testBroadQueriesDoNotLookForTheNamesContainingThem() {
+        for (long id = 10; id < 10 + HeroSearchIndex.FALLBACK_THRESHOLD; id++) {
+            index.put(id, "Mantis " + id);
+        }
+
+        HeroSearchIndex.Matches matches = index.search("man");
+
+        assertThat(matches.getIds()).contains(1L, 2L).doesNotContain(3L, 4L);
+        assertThat(matches.getTotal()).isEqualTo(HeroSearchIndex.FALLBACK_THRESHOLD + 2);
+    }
+
+    @Test
+    void testEmptyQueryMatchesNothing() {
+        assertThat(index.search("").getIds()).isEmpty();
+        assertThat(index.search("").getTotal()).isZero();
+        assertThat(index.search(" - ").getIds()).isEmpty();
+    }
+
+    @Test
+    void testEditDistanceIsBounded() {
+        assertThat(HeroSearchIndex.editDistance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(HeroSearchIndex.editDistance("kitten", "sitting", 1)).isEqualTo(2);
+        assertThat(HeroSearchIndex.editDistance("hero", "hero", 1)).isZero();
+    }
+}
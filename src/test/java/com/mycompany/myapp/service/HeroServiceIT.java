@@ -0,0 +1,116 @@
+package com.mycompany.myapp.service;
+
+import static com.mycompany.myapp.service.dto.HeroBatchResultDTO.Status.CREATED;
+import static com.mycompany.myapp.service.dto.HeroBatchResultDTO.Status.REJECTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Hero;
+import com.mycompany.myapp.repository.HeroRepository;
+import com.mycompany.myapp.service.dto.HeroBatchResultDTO;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the updates and the batches of {@link HeroService}.
+ */
+@IntegrationTest
+@Transactional
+class HeroServiceIT {
+
+    @Autowired
+    private HeroRepository heroRepository;
+
+    @Autowired
+    private HeroService heroService;
+
+    @Autowired
+    private EntityManager em;
+
+    private Hero hero;
+
+    @BeforeEach
+    public void init() {
+        hero = heroRepository.saveAndFlush(new Hero().name("AAAAAAAAAA"));
+    }
+
+    @Test
+    void assertThatUpdateIncrementsTheVersion() {
+        Hero updated = heroService.update(new Hero().id(hero.getId()).name("BBBBBBBBBB"), hero.getVersion()).orElseThrow();
+
+        assertThat(updated.getVersion()).isEqualTo(hero.getVersion() + 1);
+        Hero reloaded = heroRepository.findById(hero.getId()).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("BBBBBBBBBB");
+        assertThat(reloaded.getVersion()).isEqualTo(updated.getVersion());
+    }
+
+    @Test
+    void assertThatUpdateAtAnotherVersionConflicts() {
+        Hero update = new Hero().id(hero.getId()).name("BBBBBBBBBB");
+
+        assertThatThrownBy(() -> heroService.update(update, hero.getVersion() + 1)).isInstanceOf(ConcurrencyFailureException.class);
+        em.clear();
+        assertThat(heroRepository.findById(hero.getId())).get().extracting(Hero::getName).isEqualTo("AAAAAAAAAA");
+    }
+
+    @Test
+    void assertThatUpdateOfAnUnknownHeroIsEmpty() {
+        assertThat(heroService.update(new Hero().id(Long.MAX_VALUE).name("BBBBBBBBBB"), 0)).isEmpty();
+    }
+
+    @Test
+    void assertThatPartialUpdateIsValidated() {
+        Hero update = new Hero().id(hero.getId()).name("B");
+
+        assertThatThrownBy(() -> heroService.partialUpdate(update, hero.getVersion())).isInstanceOf(ConstraintViolationException.class);
+    }
+
+    @Test
+    void assertThatBatchNamesDifferingByCaseOrAccentsAreDuplicates() {
+        List<HeroBatchResultDTO> results = heroService.saveAll(
+            List.of(
+                new Hero().name("Mixed-Case"),
+                new Hero().name("mixed-case"),
+                new Hero().name("MIXED-CASÉ"),
+                new Hero().name("Mixed-Case "),
+                new Hero().name("Straße"),
+                new Hero().name("STRASSE")
+            )
+        );
+
+        assertThat(results)
+            .extracting(HeroBatchResultDTO::getStatus)
+            .containsExactly(CREATED, REJECTED, REJECTED, CREATED, CREATED, REJECTED);
+        assertThat(results)
+            .extracting(HeroBatchResultDTO::getErrorKey)
+            .containsExactly(null, "nameduplicate", "nameduplicate", null, null, "nameduplicate");
+    }
+
+    @Test
+    void assertThatRejectedBatchHeroesDoNotTakeTheirNames() {
+        List<HeroBatchResultDTO> results = heroService.saveAll(
+            List.of(new Hero().id(Long.MAX_VALUE).name("Free Name"), new Hero().name("Free Name"))
+        );
+
+        assertThat(results).extracting(HeroBatchResultDTO::getErrorKey).containsExactly("idnotfound", null);
+        assertThat(results).extracting(HeroBatchResultDTO::getStatus).containsExactly(REJECTED, CREATED);
+    }
+
+    @Test
+    void assertThatNameKeysFollowTheCollationOfTheNames() {
+        assertThat(HeroService.nameKey("Héro")).isEqualTo(HeroService.nameKey("HERO"));
+        assertThat(HeroService.nameKey("Straße")).isEqualTo(HeroService.nameKey("strasse"));
+        assertThat(HeroService.nameKey("Spider-Man")).isEqualTo(HeroService.nameKey("spider-man"));
+        // NO PAD: the trailing spaces count, as do the spaces and the punctuation
+        assertThat(HeroService.nameKey("Héro ")).isNotEqualTo(HeroService.nameKey("hero"));
+        assertThat(HeroService.nameKey(" hero")).isNotEqualTo(HeroService.nameKey("hero"));
+        assertThat(HeroService.nameKey("Spider Man")).isNotEqualTo(HeroService.nameKey("Spider-Man"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.mycompany.myapp.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * A minimal SMTP server for the tests, standing in for a real mail server.
+ * <p>
+ * It speaks just enough SMTP for JavaMail without authentication nor TLS, keeps the messages it receives, counts the
+ * connections, and rejects the recipients it is told to.
+ */
+public class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final List<MimeMessage> messages = new CopyOnWriteArrayList<>();
+
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Session session = Session.getInstance(new Properties());
+
+    public LocalSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "local-smtp-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<MimeMessage> getMessages() {
+        return Collections.unmodifiableList(messages);
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Reply to {@code RCPT TO} with a permanent failure for this address.
+     */
+    public void rejectRecipient(String address) {
+        rejectedRecipients.add(address);
+    }
+
+    public void reset() {
+        messages.clear();
+        rejectedRecipients.clear();
+        connections.set(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread handler = new Thread(() -> handle(socket), "local-smtp-session");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (SocketException e) {
+                // Closed
+                return;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (
+            Socket s = socket;
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+            OutputStream out = s.getOutputStream()
+        ) {
+            reply(out, "220 localhost ESMTP");
+            boolean hasRecipient = false;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (command) {
+                    case "EHLO":
+                    case "HELO":
+                        reply(out, "250 localhost");
+                        break;
+                    case "MAIL":
+                        hasRecipient = false;
+                        reply(out, "250 OK");
+                        break;
+                    case "RCPT":
+                        if (rejectedRecipients.stream().anyMatch(line::contains)) {
+                            reply(out, "550 No such user");
+                        } else {
+                            hasRecipient = true;
+                            reply(out, "250 OK");
+                        }
+                        break;
+                    case "DATA":
+                        if (!hasRecipient) {
+                            reply(out, "503 No valid recipients");
+                            break;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        messages.add(readMessage(in));
+                        hasRecipient = false;
+                        reply(out, "250 OK");
+                        break;
+                    case "RSET":
+                        hasRecipient = false;
+                        reply(out, "250 OK");
+                        break;
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | MessagingException e) {
+            // The client went away, or sent a message that is not MIME
+        }
+    }
+
+    private MimeMessage readMessage(BufferedReader in) throws IOException, MessagingException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !".".equals(line)) {
+            // Undo the dot-stuffing
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return new MimeMessage(session, new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+}
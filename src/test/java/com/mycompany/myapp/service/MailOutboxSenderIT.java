@@ -0,0 +1,171 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.MailOutboxMessage;
+import com.mycompany.myapp.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailOutboxSender}, sending to a {@link LocalSmtpServer}.
+ */
+@IntegrationTest
+@Transactional
+class MailOutboxSenderIT {
+
+    private static final String BOUNCE_ADDRESS = "bounce@example.com";
+
+    private static LocalSmtpServer smtpServer;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    private MailService mailService;
+
+    private MailOutboxSender mailOutboxSender;
+
+    @BeforeAll
+    public static void startSmtpServer() throws Exception {
+        smtpServer = new LocalSmtpServer();
+    }
+
+    @AfterAll
+    public static void stopSmtpServer() throws Exception {
+        smtpServer.close();
+    }
+
+    @BeforeEach
+    public void setup() {
+        smtpServer.reset();
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost(smtpServer.getHost());
+        javaMailSender.setPort(smtpServer.getPort());
+        meterRegistry = new SimpleMeterRegistry();
+        mailService = new MailService(mailOutboxRepository, mailTemplateRenderer);
+        mailOutboxSender =
+            new MailOutboxSender(
+                mailOutboxRepository,
+                javaMailSender,
+                jHipsterProperties,
+                applicationProperties,
+                transactionManager,
+                meterRegistry
+            );
+        mailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void testSendsABatchOverOneConnection() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mailService.sendEmail("user" + i + "@example.com", "testSubject" + i, "testContent", false, false);
+        }
+
+        mailOutboxSender.sendPending();
+
+        assertThat(smtpServer.getMessages()).hasSize(3);
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(1);
+        assertThat(smtpServer.getMessages().get(0).getSubject()).isEqualTo("testSubject0");
+        assertThat(mailOutboxRepository.count()).isZero();
+        assertThat(meterRegistry.get(MailOutboxSender.MESSAGES_METER_NAME).tag("result", "sent").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(MailOutboxSender.BACKLOG_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testRetriesTheMessagesThatFail() {
+        smtpServer.rejectRecipient(BOUNCE_ADDRESS);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail(BOUNCE_ADDRESS, "testSubject", "testContent", false, false);
+
+        mailOutboxSender.sendPending();
+
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        MailOutboxMessage bounced = findByRecipient(BOUNCE_ADDRESS).orElseThrow();
+        assertThat(bounced.getStatus()).isEqualTo(MailOutboxMessage.Status.PENDING);
+        assertThat(bounced.getAttempts()).isEqualTo(1);
+        assertThat(bounced.getLastError()).isNotBlank();
+        assertThat(bounced.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(meterRegistry.get(MailOutboxSender.MESSAGES_METER_NAME).tag("result", "retried").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailOutboxSender.BACKLOG_METER_NAME).gauge().value()).isEqualTo(1);
+
+        // Not due yet
+        mailOutboxSender.sendPending();
+        assertThat(findByRecipient(BOUNCE_ADDRESS).orElseThrow().getAttempts()).isEqualTo(1);
+
+        // The last attempt
+        bounced.setAttempts(applicationProperties.getMail().getOutbox().getMaxAttempts() - 1);
+        bounced.setNextAttemptAt(Instant.now().minusSeconds(1));
+        mailOutboxRepository.saveAndFlush(bounced);
+        mailOutboxSender.sendPending();
+
+        assertThat(findByRecipient(BOUNCE_ADDRESS).orElseThrow().getStatus()).isEqualTo(MailOutboxMessage.Status.FAILED);
+        assertThat(meterRegistry.get(MailOutboxSender.MESSAGES_METER_NAME).tag("result", "failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(MailOutboxSender.BACKLOG_METER_NAME).gauge().value()).isZero();
+    }
+
+    @Test
+    void testSkipsTheMessagesClaimedByAnotherSenderUntilTheirClaimExpires() {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        MailOutboxMessage claimed = findByRecipient("john.doe@example.com").orElseThrow();
+        claimed.setStatus(MailOutboxMessage.Status.SENDING);
+        claimed.setClaimedBy("another-sender");
+        claimed.setNextAttemptAt(Instant.now().plusSeconds(60));
+        mailOutboxRepository.saveAndFlush(claimed);
+
+        mailOutboxSender.sendPending();
+
+        assertThat(smtpServer.getMessages()).isEmpty();
+        assertThat(findByRecipient("john.doe@example.com")).isPresent();
+
+        // The other sender is gone
+        claimed.setNextAttemptAt(Instant.now().minusSeconds(1));
+        mailOutboxRepository.saveAndFlush(claimed);
+        mailOutboxSender.sendPending();
+
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        assertThat(mailOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void testBacksOffExponentially() {
+        ApplicationProperties.Mail.Outbox outbox = applicationProperties.getMail().getOutbox();
+
+        assertThat(mailOutboxSender.backoff(1)).isEqualTo(outbox.getInitialBackoff());
+        assertThat(mailOutboxSender.backoff(2)).isEqualTo(outbox.getInitialBackoff().multipliedBy(2));
+        assertThat(mailOutboxSender.backoff(3)).isEqualTo(outbox.getInitialBackoff().multipliedBy(4));
+        assertThat(mailOutboxSender.backoff(Integer.MAX_VALUE)).isEqualTo(outbox.getMaxBackoff());
+        assertThat(outbox.getMaxBackoff()).isGreaterThan(Duration.ZERO);
+    }
+
+    private Optional<MailOutboxMessage> findByRecipient(String recipient) {
+        return mailOutboxRepository.findAll().stream().filter(message -> recipient.equals(message.getRecipient())).findFirst();
+    }
+}
@@ -1,12 +1,14 @@
 package com.mycompany.myapp.service;
 
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
 
 import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.ApplicationProperties;
 import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.MailOutboxMessage;
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -14,6 +16,9 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -23,21 +28,19 @@ import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.MockitoAnnotations;
-import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.MessageSource;
+import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
-import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Integration tests for {@link MailService}.
  */
 @IntegrationTest
+@Transactional
 class MailServiceIT {
 
     private static final String[] languages = {
@@ -52,31 +55,42 @@ class MailServiceIT {
     private JHipsterProperties jHipsterProperties;
 
     @Autowired
-    private MessageSource messageSource;
+    private MailTemplateRenderer mailTemplateRenderer;
 
     @Autowired
-    private SpringTemplateEngine templateEngine;
+    private ApplicationProperties applicationProperties;
 
-    @Spy
-    private JavaMailSenderImpl javaMailSender;
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
-    @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
+    private RecordingJavaMailSender javaMailSender;
 
     private MailService mailService;
 
+    private MailOutboxSender mailOutboxSender;
+
     @BeforeEach
     public void setup() {
-        MockitoAnnotations.openMocks(this);
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
+        javaMailSender = new RecordingJavaMailSender();
+        mailService = new MailService(mailOutboxRepository, mailTemplateRenderer);
+        mailOutboxSender =
+            new MailOutboxSender(
+                mailOutboxRepository,
+                javaMailSender,
+                jHipsterProperties,
+                applicationProperties,
+                transactionManager,
+                new SimpleMeterRegistry()
+            );
     }
 
     @Test
     void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -88,8 +102,7 @@ class MailServiceIT {
     @Test
     void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -101,8 +114,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -118,8 +130,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -139,8 +150,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -155,8 +165,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -170,8 +179,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -185,8 +193,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = sendPendingEmail();
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -195,12 +202,20 @@ class MailServiceIT {
 
     @Test
     void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+        javaMailSender.failure = new MailSendException("Mail server connection failed");
         try {
             mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+            mailOutboxSender.sendPending();
         } catch (Exception e) {
             fail("Exception shouldn't have been thrown");
         }
+        assertThat(mailOutboxRepository.findAll())
+            .anySatisfy(message -> {
+                assertThat(message.getRecipient()).isEqualTo("john.doe@example.com");
+                assertThat(message.getStatus()).isEqualTo(MailOutboxMessage.Status.PENDING);
+                assertThat(message.getAttempts()).isEqualTo(1);
+                assertThat(message.getNextAttemptAt()).isAfter(message.getCreatedDate());
+            });
     }
 
     @Test
@@ -211,8 +226,7 @@ class MailServiceIT {
         for (String langKey : languages) {
             user.setLangKey(langKey);
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            MimeMessage message = sendPendingEmail();
 
             String propertyFilePath = "i18n/messages_" + getJavaLocale(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
@@ -227,6 +241,16 @@ class MailServiceIT {
         }
     }
 
+    /**
+     * Send the outbox, and get the last message sent.
+     */
+    private MimeMessage sendPendingEmail() {
+        int sentBefore = javaMailSender.sentMessages.size();
+        mailOutboxSender.sendPending();
+        assertThat(javaMailSender.sentMessages).hasSizeGreaterThan(sentBefore);
+        return javaMailSender.sentMessages.get(javaMailSender.sentMessages.size() - 1);
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
@@ -242,4 +266,22 @@ class MailServiceIT {
         }
         return javaLangKey;
     }
+
+    /**
+     * A mail sender keeping the messages instead of sending them, or failing as it is told to.
+     */
+    private static class RecordingJavaMailSender extends JavaMailSenderImpl {
+
+        private final List<MimeMessage> sentMessages = new ArrayList<>();
+
+        private MailException failure;
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            if (failure != null) {
+                throw failure;
+            }
+            sentMessages.addAll(Arrays.asList(mimeMessages));
+        }
+    }
 }
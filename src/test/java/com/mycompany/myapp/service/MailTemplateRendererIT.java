@@ -0,0 +1,75 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.Constants;
+import com.mycompany.myapp.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}.
+ */
+@IntegrationTest
+class MailTemplateRendererIT {
+
+    private static final String TEST_TEMPLATE = "mail/testEmail";
+
+    private static final String TEMPLATE_DIMENSION = MailTemplateRenderer.RENDER_METER_TEMPLATE_DIMENSION;
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testRendersTheViewOfTheUser() {
+        User user = new User();
+        user.setLogin("john");
+        user.setActivationKey("activation-key");
+
+        String content = mailTemplateRenderer.render(
+            "mail/activationEmail",
+            MailTemplateRenderer.MailUserView.of(user),
+            Constants.DEFAULT_LANGUAGE
+        );
+
+        assertThat(content).contains("john").contains("/account/activate?key=activation-key");
+    }
+
+    @Test
+    void testRecordsTheRenderTime() {
+        Timer before = meterRegistry.find(MailTemplateRenderer.RENDER_METER_NAME).tag(TEMPLATE_DIMENSION, TEST_TEMPLATE).timer();
+        long count = before == null ? 0 : before.count();
+
+        mailTemplateRenderer.render(TEST_TEMPLATE, new MailTemplateRenderer.MailUserView("john", null, null), Constants.DEFAULT_LANGUAGE);
+
+        Timer after = meterRegistry.get(MailTemplateRenderer.RENDER_METER_NAME).tag(TEMPLATE_DIMENSION, TEST_TEMPLATE).timer();
+        assertThat(after.count()).isEqualTo(count + 1);
+    }
+
+    @Test
+    void testDoesNotRecordTheWarmUp() {
+        String template = MailTemplateRenderer.MAIL_TEMPLATES.get(0);
+        Timer before = meterRegistry.find(MailTemplateRenderer.RENDER_METER_NAME).tag(TEMPLATE_DIMENSION, template).timer();
+        long count = before == null ? 0 : before.count();
+
+        mailTemplateRenderer.warmUp();
+
+        Timer after = meterRegistry.find(MailTemplateRenderer.RENDER_METER_NAME).tag(TEMPLATE_DIMENSION, template).timer();
+        assertThat(after == null ? 0 : after.count()).isEqualTo(count);
+    }
+
+    @Test
+    void testCachesTheSubjectsPerLanguage() {
+        String subject = mailTemplateRenderer.getSubject("email.test.title", Constants.DEFAULT_LANGUAGE);
+
+        assertThat(subject).isEqualTo("test title");
+        assertThat(mailTemplateRenderer.getSubject("email.test.title", Constants.DEFAULT_LANGUAGE)).isSameAs(subject);
+        assertThat(mailTemplateRenderer.getSubject("email.test.title", "in")).isNotEqualTo(subject);
+    }
+}
@@ -6,22 +6,32 @@ import static org.mockito.Mockito.when;
 import com.mycompany.myapp.IntegrationTest;
 import com.mycompany.myapp.config.Constants;
 import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.repository.AuthorityRepository;
 import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
+import com.mycompany.myapp.service.dto.UserDTO;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -50,6 +60,15 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -166,6 +185,31 @@ class UserServiceIT {
         assertThat(users).isEmpty();
     }
 
+    @Test
+    @Transactional
+    void assertThatDeletedNotActivatedUsersLoseTheirAuthoritiesAndCacheEntries() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        user.setActivated(false);
+        user.setActivationKey(RandomStringUtils.random(20));
+        user.setAuthorities(Collections.singleton(authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow()));
+        User dbUser = userRepository.saveAndFlush(user);
+        Cache usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN);
+        assertThat(usersByLogin.get(DEFAULT_LOGIN)).isNotNull();
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(usersByLogin.get(DEFAULT_LOGIN)).isNull();
+        Number authorities = (Number) entityManager
+            .createNativeQuery("select count(*) from jhi_user_authority where user_id = :id")
+            .setParameter("id", dbUser.getId())
+            .getSingleResult();
+        assertThat(authorities.longValue()).isZero();
+        entityManager.clear();
+        assertThat(userRepository.findById(dbUser.getId())).isEmpty();
+    }
+
     @Test
     @Transactional
     void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
@@ -182,4 +226,42 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatManagedUsersHaveTheirColumnsAndAuthorities() {
+        user.setAuthorities(Collections.singleton(authorityRepository.findById(AuthoritiesConstants.USER).orElseThrow()));
+        User dbUser = userRepository.saveAndFlush(user);
+        entityManager.clear();
+
+        Page<AdminUserDTO> page = userService.getAllManagedUsers(PageRequest.of(0, 100, Sort.by("id")));
+
+        AdminUserDTO managedUser = page.getContent().stream().filter(dto -> dto.getId().equals(dbUser.getId())).findFirst().orElseThrow();
+        assertThat(managedUser.getLogin()).isEqualTo(DEFAULT_LOGIN);
+        assertThat(managedUser.getEmail()).isEqualTo(DEFAULT_EMAIL);
+        assertThat(managedUser.getFirstName()).isEqualTo(DEFAULT_FIRSTNAME);
+        assertThat(managedUser.getLastName()).isEqualTo(DEFAULT_LASTNAME);
+        assertThat(managedUser.getImageUrl()).isEqualTo(DEFAULT_IMAGEURL);
+        assertThat(managedUser.getLangKey()).isEqualTo(DEFAULT_LANGKEY);
+        assertThat(managedUser.isActivated()).isTrue();
+        assertThat(managedUser.getCreatedDate()).isNotNull();
+        assertThat(managedUser.getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+        AdminUserDTO admin = page.getContent().stream().filter(dto -> dto.getLogin().equals("admin")).findFirst().orElseThrow();
+        assertThat(admin.getAuthorities()).containsExactlyInAnyOrder(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER);
+        // Only the columns were read, no user was loaded in the persistence context
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        assertThat(userRepository.count()).isEqualTo(page.getTotalElements());
+    }
+
+    @Test
+    @Transactional
+    void assertThatOnlyActivatedUsersArePublic() {
+        user.setActivated(false);
+        User dbUser = userRepository.saveAndFlush(user);
+
+        Page<UserDTO> page = userService.getAllPublicUsers(PageRequest.of(0, 100, Sort.by("login")));
+
+        assertThat(page.getContent()).extracting(UserDTO::getLogin).contains("admin", "user").doesNotContain(DEFAULT_LOGIN);
+        assertThat(page.getContent()).extracting(UserDTO::getId).doesNotContain(dbUser.getId());
+    }
 }
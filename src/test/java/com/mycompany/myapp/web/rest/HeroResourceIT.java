@@ -1,14 +1,21 @@
 package com.mycompany.myapp.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.sql.SqlStatementBudget;
 import com.mycompany.myapp.domain.Hero;
 import com.mycompany.myapp.repository.HeroRepository;
+import com.mycompany.myapp.service.HeroSuggestService;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
@@ -16,9 +23,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -44,6 +55,12 @@ class HeroResourceIT {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private HeroSuggestService heroSuggestService;
+
     @Autowired
     private MockMvc restHeroMockMvc;
 
@@ -73,6 +90,7 @@ class HeroResourceIT {
 
     @BeforeEach
     public void initTest() {
+        Objects.requireNonNull(cacheManager.getCache(HeroRepository.HERO_PAGES_CACHE)).clear();
         hero = createEntity(em);
     }
 
@@ -110,6 +128,42 @@ class HeroResourceIT {
         assertThat(heroList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void saveHeroesInBatch() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+        int databaseSizeBeforeCreate = heroRepository.findAll().size();
+
+        List<Hero> batch = List.of(
+            new Hero().name("CCCCCCCCCC"),
+            new Hero().name("CCCCCCCCCC"),
+            new Hero().name("D"),
+            new Hero().name(DEFAULT_NAME),
+            new Hero().id(hero.getId()).name(UPDATED_NAME),
+            new Hero().id(count.incrementAndGet()).name("EEEEEEEEEE")
+        );
+
+        restHeroMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batch))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[1].errorKey").value("nameduplicate"))
+            .andExpect(jsonPath("$.[2].errorKey").value("invalid"))
+            .andExpect(jsonPath("$.[3].errorKey").value("nameexists"))
+            .andExpect(jsonPath("$.[4].status").value("UPDATED"))
+            .andExpect(jsonPath("$.[5].errorKey").value("idnotfound"));
+
+        // Validate the Hero in the database
+        List<Hero> heroList = heroRepository.findAll();
+        assertThat(heroList).hasSize(databaseSizeBeforeCreate + 1);
+        assertThat(heroList).extracting(Hero::getName).contains("CCCCCCCCCC", UPDATED_NAME).doesNotContain(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void checkNameIsRequired() throws Exception {
@@ -129,6 +183,7 @@ class HeroResourceIT {
 
     @Test
     @Transactional
+    @SqlStatementBudget(3)
     void getAllHeroes() throws Exception {
         // Initialize the database
         heroRepository.saveAndFlush(hero);
@@ -144,6 +199,282 @@ class HeroResourceIT {
 
     @Test
     @Transactional
+    void getAllHeroesWithCursor() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+        Hero otherHero = heroRepository.saveAndFlush(new Hero().name(UPDATED_NAME));
+
+        // Get the first keyset page, only one hero per page
+        MvcResult firstPage = restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor=&size=1&sort=id,desc&withCount=true"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(otherHero.getId().intValue())))
+            .andExpect(header().exists("X-Total-Count"))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andReturn();
+
+        // Follow the continuation token
+        String nextCursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&sort=id,desc").param("cursor", nextCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(hero.getId().intValue())))
+            .andExpect(header().doesNotExist("X-Total-Count"));
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesWithCursorSortedByName() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        String cursor = KeysetPaginationUtil.encodeCursor(Sort.Order.asc("name"), "AAAAAAAAA");
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=name,asc").param("cursor", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesWithInvalidCursor() throws Exception {
+        restHeroMockMvc.perform(get(ENTITY_API_URL + "?cursor=not-a-cursor")).andExpect(status().isBadRequest());
+
+        // A cursor issued for another sort is rejected
+        String cursor = KeysetPaginationUtil.encodeCursor(Sort.Order.asc("name"), DEFAULT_NAME);
+        restHeroMockMvc.perform(get(ENTITY_API_URL + "?sort=id,asc").param("cursor", cursor)).andExpect(status().isBadRequest());
+
+        // Only indexed unique keys can be used to seek
+        restHeroMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=unknown,asc")).andExpect(status().isBadRequest());
+
+        // A secondary order cannot be seeked on
+        restHeroMockMvc.perform(get(ENTITY_API_URL + "?cursor=&sort=name,asc&sort=id,desc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getHeroesByIdFiltering() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        Long id = hero.getId();
+
+        defaultHeroShouldBeFound("id.equals=" + id);
+        defaultHeroShouldNotBeFound("id.notEquals=" + id + "&id.greaterThanOrEqual=" + id + "&id.lessThanOrEqual=" + id);
+
+        defaultHeroShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultHeroShouldNotBeFound("id.greaterThan=" + id);
+
+        defaultHeroShouldBeFound("id.lessThanOrEqual=" + id);
+        defaultHeroShouldNotBeFound("id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesByNameIsEqualToSomething() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        // Get all the heroList where name equals to DEFAULT_NAME
+        defaultHeroShouldBeFound("name.equals=" + DEFAULT_NAME);
+
+        // Get all the heroList where name equals to UPDATED_NAME
+        defaultHeroShouldNotBeFound("name.equals=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesByNameIsInShouldWork() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        // Get all the heroList where name in DEFAULT_NAME or UPDATED_NAME
+        defaultHeroShouldBeFound("name.in=" + DEFAULT_NAME + "," + UPDATED_NAME);
+
+        // Get all the heroList where name equals to UPDATED_NAME
+        defaultHeroShouldNotBeFound("name.in=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesByNameStartsWithSomething() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        // Get all the heroList where name starts with the start of DEFAULT_NAME
+        defaultHeroShouldBeFound("name.startsWith=" + DEFAULT_NAME.substring(0, 5));
+
+        // Get all the heroList where name starts with UPDATED_NAME
+        defaultHeroShouldNotBeFound("name.startsWith=" + UPDATED_NAME);
+
+        // The LIKE wildcards are matched literally
+        defaultHeroShouldNotBeFound("name.startsWith=A_");
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesByNameContainsSomething() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        // Get all the heroList where name contains DEFAULT_NAME, among the heroes around its id
+        String around = "id.greaterThanOrEqual=" + hero.getId() + "&id.lessThan=" + (hero.getId() + 100);
+        defaultHeroShouldBeFound(around + "&name.contains=" + DEFAULT_NAME);
+
+        // Get all the heroList where name contains UPDATED_NAME, among the heroes around its id
+        defaultHeroShouldNotBeFound(around + "&name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesByNameIsSpecified() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        // name is NOT NULL: always specified
+        defaultHeroShouldBeFound("id.equals=" + hero.getId() + "&name.specified=true");
+        defaultHeroShouldNotBeFound("name.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesWithUnindexedCriteria() throws Exception {
+        // A leading wildcard LIKE alone would scan the whole table
+        restHeroMockMvc.perform(get(ENTITY_API_URL + "?name.contains=" + DEFAULT_NAME)).andExpect(status().isBadRequest());
+        restHeroMockMvc.perform(get(ENTITY_API_URL + "/count?name.notEquals=" + DEFAULT_NAME)).andExpect(status().isBadRequest());
+        // An id range open on one side seeks, but to scan the whole table
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?id.greaterThan=0&name.contains=" + DEFAULT_NAME))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultHeroShouldBeFound(String filter) throws Exception {
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(hero.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)));
+
+        // Check, that the count call also returns 1
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultHeroShouldNotBeFound(String filter) throws Exception {
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+    @Test
+    void searchHeroes() throws Exception {
+        // Not transactional: the search index is only updated once the writes are committed
+        String suffix = Long.toString(count.incrementAndGet(), 36);
+        Hero searched = heroRepository.saveAndFlush(new Hero().name("Searchable Spïder " + suffix));
+        try {
+            // By the start of its words, whatever the accents
+            restHeroMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q=spid " + suffix + "&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(header().exists("X-Total-Count"))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(searched.getId().intValue())));
+            // Anywhere in the name
+            restHeroMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q=chable spider " + suffix))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(searched.getId().intValue())));
+            // With a typo
+            restHeroMockMvc
+                .perform(get(ENTITY_API_URL + "/_search?q=serchable " + suffix))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(searched.getId().intValue())));
+        } finally {
+            heroRepository.deleteById(searched.getId());
+        }
+
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "/_search?q=searchable " + suffix))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(searched.getId().intValue()))));
+    }
+
+    @Test
+    void suggestHeroNames() throws Exception {
+        // Not transactional: the suggestions are only updated once the writes are committed
+        String prefix = "Suggested " + Long.toString(count.incrementAndGet(), 36);
+        Hero first = heroRepository.saveAndFlush(new Hero().name(prefix + " Bravo"));
+        Hero second = heroRepository.saveAndFlush(new Hero().name(prefix + " Alpha"));
+        try {
+            // Rebuilt in the background a moment after the writes, so rebuilt now to check it
+            heroSuggestService.rebuild();
+
+            restHeroMockMvc
+                .perform(get(ENTITY_API_URL + "/_suggest?prefix=" + prefix.toLowerCase()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$").value(contains(second.getName(), first.getName())));
+            restHeroMockMvc
+                .perform(get(ENTITY_API_URL + "/_suggest?prefix=" + prefix + "&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(contains(second.getName())));
+        } finally {
+            heroRepository.deleteById(first.getId());
+            heroRepository.deleteById(second.getId());
+        }
+
+        heroSuggestService.rebuild();
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest?prefix=" + prefix))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void exportHeroes() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+        heroRepository.saveAndFlush(new Hero().name(UPDATED_NAME));
+
+        // Export all the heroes, one JSON object per line
+        MvcResult result = restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(heroRepository.findAll().size());
+        assertThat(lines).anyMatch(line -> line.contains("\"name\":\"" + DEFAULT_NAME + "\""));
+        assertThat(lines).anyMatch(line -> line.contains("\"name\":\"" + UPDATED_NAME + "\""));
+    }
+
+    @Test
+    @Transactional
+    @SqlStatementBudget(1)
     void getHero() throws Exception {
         // Initialize the database
         heroRepository.saveAndFlush(hero);
@@ -157,6 +488,81 @@ class HeroResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
 
+    @Test
+    @SqlStatementBudget(1)
+    void getHeroOutsideTheTestTransaction() throws Exception {
+        // Not transactional: the request loads the hero in its own transaction, rather than finding it in the persistence context
+        heroRepository.saveAndFlush(hero);
+
+        try {
+            restHeroMockMvc
+                .perform(get(ENTITY_API_URL_ID, hero.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(hero.getId().intValue()))
+                .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
+        } finally {
+            heroRepository.deleteById(hero.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getHeroIfNoneMatch() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        String eTag = restHeroMockMvc
+            .perform(get(ENTITY_API_URL_ID, hero.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + hero.getVersion() + "\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Unchanged since: not sent again
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL_ID, hero.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Updated since: sent again with its new ETag
+        hero.setName(UPDATED_NAME);
+        heroRepository.saveAndFlush(hero);
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL_ID, hero.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getAllHeroesIfNoneMatch() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+
+        String eTag = restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // A hero of the page was updated
+        hero.setName(UPDATED_NAME);
+        heroRepository.saveAndFlush(hero);
+        Objects.requireNonNull(cacheManager.getCache(HeroRepository.HERO_PAGES_CACHE)).clear();
+        restHeroMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)));
+    }
+
     @Test
     @Transactional
     void getNonExistingHero() throws Exception {
@@ -193,6 +599,67 @@ class HeroResourceIT {
         assertThat(testHero.getName()).isEqualTo(UPDATED_NAME);
     }
 
+    @Test
+    @Transactional
+    void putHeroIfMatch() throws Exception {
+        // Initialize the database
+        heroRepository.saveAndFlush(hero);
+        String eTag = "\"" + hero.getVersion() + "\"";
+
+        Hero updatedHero = new Hero().id(hero.getId()).name(UPDATED_NAME);
+        String newETag = restHeroMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, hero.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedHero))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // An update made on the previous version does not overwrite the new one
+        restHeroMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, hero.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedHero.name(DEFAULT_NAME)))
+            )
+            .andExpect(status().isPreconditionFailed());
+        restHeroMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, hero.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(updatedHero.name(DEFAULT_NAME)))
+            )
+            .andExpect(status().isPreconditionFailed());
+        // A list of ETags is checked against the current version, read by the update
+        restHeroMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, hero.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag + ", \"" + (hero.getVersion() + 100) + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedHero.name(DEFAULT_NAME)))
+            )
+            .andExpect(status().isPreconditionFailed());
+        assertThat(heroRepository.findById(hero.getId())).get().extracting(Hero::getName).isEqualTo(UPDATED_NAME);
+
+        // An update made on the current version is applied
+        restHeroMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, hero.getId())
+                    .header(HttpHeaders.IF_MATCH, newETag)
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(updatedHero.name(DEFAULT_NAME)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
     @Test
     @Transactional
     void putNonExistingHero() throws Exception {
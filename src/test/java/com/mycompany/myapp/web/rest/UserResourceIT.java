@@ -7,6 +7,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.config.sql.SqlStatementBudget;
 import com.mycompany.myapp.domain.Authority;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.UserRepository;
@@ -242,6 +243,7 @@ class UserResourceIT {
 
     @Test
     @Transactional
+    @SqlStatementBudget(3)
     void getAllUsers() throws Exception {
         // Initialize the database
         userRepository.saveAndFlush(user);
@@ -261,6 +263,7 @@ class UserResourceIT {
 
     @Test
     @Transactional
+    @SqlStatementBudget(1)
     void getUser() throws Exception {
         // Initialize the database
         userRepository.saveAndFlush(user);
@@ -0,0 +1,59 @@
+/*
+ * Load test comparing the platform and virtual thread execution modes (application.execution.mode).
+ *
+ * Start the application in each mode (virtual threads need a Java 21+ runtime), with a connection pool sized for the load:
+ *
+ *   APPLICATION_EXECUTION_MODE=platform ./mvnw
+ *   APPLICATION_EXECUTION_MODE=virtual ./mvnw
+ *
+ * then run, against each of them:
+ *
+ *   k6 run -e BASE_URL=http://localhost:8080 -e VUS=5000 src/test/k6/heroes-load.js
+ *
+ * and compare the http_req_duration percentiles, the http_reqs rate and the errors reported by k6, with the
+ * executor.*, jvm.threads.* and hikaricp.* metrics of /management/prometheus.
+ *
+ * Results, one line per run (mode, runtime, VUS, http_reqs/s, p50 / p95 / p99 of http_req_duration, errors, peak
+ * jvm.threads.live):
+ *
+ *   none recorded yet: the virtual mode needs a Java 21 runtime, and the runs so far were on Java 17, where both modes
+ *   fall back to the same platform thread pools and a comparison would measure nothing.
+ */
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '5000', 10);
+
+export const options = {
+  scenarios: {
+    concurrentConnections: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: '2m', target: VUS },
+        { duration: '15s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const response = http.post(`${BASE_URL}/api/authenticate`, JSON.stringify({ username: 'admin', password: 'admin' }), {
+    headers: { 'Content-Type': 'application/json' },
+  });
+  check(response, { authenticated: r => r.status === 200 });
+  return { token: response.json('id_token') };
+}
+
+export default function (data) {
+  const params = { headers: { Authorization: `Bearer ${data.token}` } };
+  const heroes = http.get(`${BASE_URL}/api/heroes?page=0&size=20`, params);
+  check(heroes, { 'heroes listed': r => r.status === 200 });
+  const account = http.get(`${BASE_URL}/api/account`, params);
+  check(account, { 'account read': r => r.status === 200 });
+  sleep(1);
+}